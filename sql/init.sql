@@ -7,7 +7,7 @@ USE my_db;
 -- Create the 'users' table if it does not already exist
 create table if not exists users
 (
-    id                     bigint auto_increment comment 'Unique identifier for the user'
+    id                     bigint                     not null comment 'Unique identifier for the user'
         primary key,
     username               varchar(50)                not null comment 'User''s chosen username',
     password               varchar(100)               not null comment 'Hashed password for the user',
@@ -26,6 +26,7 @@ create table if not exists users
     last_login_ip_location varchar(100)               null comment 'ip归属地',
     role                   int         default 1      not null comment '用户角色(1=普通用户, 2= 管理员, 0= 系统管理员)',
     display_name           varchar(50) default 'momo' not null comment '用户昵称',
+    version                int         default 0      not null comment '乐观锁版本号',
     constraint username
         unique (username),
     constraint users_id_card_uindex
@@ -33,17 +34,48 @@ create table if not exists users
 )
     comment 'Table to store user account information';
 
-create index idx_email
+-- 邮箱唯一：注册时只做一次存在性查询，并发注册由唯一索引拦截
+-- 已有数据库执行：ALTER TABLE users DROP INDEX idx_email, ADD UNIQUE INDEX uk_email (email);
+create unique index uk_email
     on users (email);
 
 create index idx_phone
     on users (phone);
 
+-- 管理员用户列表按状态筛选、按ID倒序翻页：二级索引隐含主键，同一状态内已按ID有序，无需排序
 create index idx_status
     on users (status);
 
-create index idx_username
-    on users (username);
+-- 管理员用户列表按角色筛选，已有数据库执行：ALTER TABLE users ADD INDEX idx_role (role);
+create index idx_role
+    on users (role);
 
+-- 登录认证投影的覆盖索引（见 UserMapper.AUTH_COLUMNS），按用户名登录时不回表；
+-- 唯一约束 username 仍负责唯一性，原来单列的 idx_username 与其重复，已由本索引替代
+-- 已有数据库执行：ALTER TABLE users DROP INDEX idx_username,
+--     ADD INDEX idx_username_auth (username, password, status, role, display_name, update_time, version);
+create index idx_username_auth
+    on users (username, password, status, role, display_name, update_time, version);
 
+-- 乐观锁版本号，已有数据库执行：
+-- ALTER TABLE users ADD COLUMN version int DEFAULT 0 NOT NULL COMMENT '乐观锁版本号';
 
+-- 主键由应用内的雪花算法生成（见 SnowflakeIdGenerator），不再使用自增
+-- 已有数据库执行：ALTER TABLE users MODIFY id bigint NOT NULL COMMENT 'Unique identifier for the user';
+
+-- 用户名、邮箱到用户ID的全局查找表：用户表分片后，按用户名登录和注册时的唯一性校验通过它定位用户，
+-- 主键保证用户名、邮箱全局唯一；排序规则与 users 表一致，大小写不敏感
+-- 未分片时应用不读写该表，从未分片切换到分片时由重新分片工具回填
+create table if not exists user_lookup
+(
+    lookup_type  tinyint      not null comment '查找类型：1=用户名，2=邮箱',
+    lookup_value varchar(100) not null comment '用户名或邮箱',
+    user_id      bigint       not null comment '用户ID',
+    primary key (lookup_type, lookup_value),
+    index idx_user_id (user_id)
+)
+    comment '用户名、邮箱到用户ID的全局查找表';
+
+-- 用户表分片：app.user-shard.shard-count 大于 1 时物理表为 <table-prefix>_0 ~ <table-prefix>_<n-1>，
+-- 结构与 users 相同，由重新分片工具以 CREATE TABLE ... LIKE 创建，例如：
+-- java -jar app.jar --reshard-target-prefix=users --reshard-target-count=4
@@ -0,0 +1,94 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.annotation.AuthCheck;
+import com.ince.springboottemplate.aop.AuthInterceptor;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.security.LoginPrincipal;
+import com.ince.springboottemplate.services.UserService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 权限校验切面基准：仅登录校验与带角色校验两种路径。
+ * RequestContextHolder 是线程级的，因此状态按线程隔离。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthInterceptorBenchmark {
+
+    private AuthInterceptor authInterceptor;
+    private ProceedingJoinPoint loginOnlyJoinPoint;
+    private ProceedingJoinPoint adminJoinPoint;
+    private AuthCheck loginOnly;
+    private AuthCheck adminOnly;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        LoginPrincipal admin = new LoginPrincipal(1L, UserRole.ADMIN.getCode(), UserStatus.ACTIVE.getCode(), 0L);
+        UserService userService = BenchmarkFixtures.stub(UserService.class,
+                invocation -> "getLoginUser".equals(invocation.name()) ? admin : BenchmarkFixtures.UNHANDLED);
+
+        authInterceptor = new AuthInterceptor();
+        ReflectionTestUtils.setField(authInterceptor, "userService", userService);
+
+        Method loginOnlyMethod = ProtectedEndpoints.class.getMethod("current");
+        Method adminMethod = ProtectedEndpoints.class.getMethod("adminOnly");
+        loginOnly = loginOnlyMethod.getAnnotation(AuthCheck.class);
+        adminOnly = adminMethod.getAnnotation(AuthCheck.class);
+        loginOnlyJoinPoint = JoinPoints.proceeding(loginOnlyMethod);
+        adminJoinPoint = JoinPoints.proceeding(adminMethod);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/current");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object loginOnly() throws Throwable {
+        return authInterceptor.doInterceptor(loginOnlyJoinPoint, loginOnly);
+    }
+
+    @Benchmark
+    public Object roleCheck() throws Throwable {
+        return authInterceptor.doInterceptor(adminJoinPoint, adminOnly);
+    }
+
+    public static class ProtectedEndpoints {
+
+        @AuthCheck
+        public String current() {
+            return "ok";
+        }
+
+        @AuthCheck(roles = {"admin", "system_admin"})
+        public String adminOnly() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.security.PasswordHashEngine;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 基准测试公共桩对象
+ * 不启动 Spring 容器，依赖通过反射注入，避免把容器和外部资源的开销算进测量结果。
+ */
+final class BenchmarkFixtures {
+
+    static final String CHROME_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36";
+
+    static final String IPHONE_USER_AGENT = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_5 like Mac OS X) "
+            + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.5 Mobile/15E148 Safari/604.1";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 构造一个字段填充完整的用户，TEXT/JSON 字段使用接近线上的长度
+     */
+    static User user(String encodedPassword) {
+        User user = new User();
+        user.setId(1_812_345_678_901_234_567L);
+        user.setUsername("bench_user");
+        user.setDisplayName("基准测试用户");
+        user.setPassword(encodedPassword);
+        user.setEmail("bench_user@example.com");
+        user.setPhone("13800001234");
+        user.setAddress("上海市浦东新区世纪大道 100 号 ".repeat(8));
+        user.setAvatar("https://cdn.example.com/avatar/bench_user.png");
+        user.setLastLoginIp("121.40.12.34");
+        user.setLastLoginTime(new Date());
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreateTime(new Date());
+        user.setUpdateTime(new Date());
+        user.setAdditionalInfo(Map.of("theme", "dark", "locale", "zh_CN"));
+        user.setBio("热爱开源，关注后端性能优化。".repeat(10));
+        user.setIdCard("310101199001011234");
+        user.setLastLoginIpLocation("浙江省");
+        user.setRole(UserRole.REGULAR_USER);
+        user.setVersion(3);
+        return user;
+    }
+
+    /**
+     * 模拟经过反向代理的登录请求
+     */
+    static MockHttpServletRequest request(String userAgent) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/user/login");
+        request.setRemoteAddr("127.0.0.1");
+        request.addHeader("User-Agent", userAgent);
+        request.addHeader("X-Forwarded-For", "121.40.12.34, 10.0.0.8");
+        request.addHeader("X-Real-IP", "121.40.12.34");
+        request.addHeader("Accept", "application/json");
+        request.addHeader("Content-Type", "application/json");
+        return request;
+    }
+
+    /**
+     * 创建不做启动校准的密码哈希引擎
+     */
+    static PasswordHashEngine passwordHashEngine(int iterations) {
+        PasswordHashEngine engine = new PasswordHashEngine();
+        ReflectionTestUtils.setField(engine, "iterations", iterations);
+        ReflectionTestUtils.setField(engine, "calibrationEnabled", false);
+        ReflectionTestUtils.setField(engine, "threads", 0);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 1024);
+        ReflectionTestUtils.setField(engine, "timeoutMillis", 10_000L);
+        engine.init();
+        return engine;
+    }
+
+    /**
+     * 创建不分片的用户表路由（布局 users[1]），所有访问都落到 users 表
+     */
+    static UserShardRouter unshardedRouter() {
+        UserShardRouter router = new UserShardRouter();
+        ReflectionTestUtils.setField(router, "tablePrefix", "users");
+        ReflectionTestUtils.setField(router, "shardCount", 1);
+        router.init();
+        return router;
+    }
+
+    /**
+     * 基于动态代理的接口桩：接口默认方法走真实实现，其余方法交给 handler，
+     * handler 返回 {@link #UNHANDLED} 时返回对应类型的默认值。
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Function<Invocation, Object> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            Object result = handler.apply(new Invocation(method, args));
+            return result == UNHANDLED ? defaultValue(method.getReturnType()) : result;
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    static final Object UNHANDLED = new Object();
+
+    record Invocation(Method method, Object[] args) {
+
+        String name() {
+            return method.getName();
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return '\0';
+    }
+}
@@ -0,0 +1,69 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.baomidou.mybatisplus.core.incrementer.DefaultIdentifierGenerator;
+import com.ince.springboottemplate.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主键生成基准：项目的雪花算法生成器（按线程预留序列号块 / 每个ID一次 CAS）与 MyBatis-Plus 默认生成器，
+ * 分单线程和 8 线程竞争两种场景。
+ * <p>
+ * 雪花算法每毫秒最多 4096 个ID：MyBatis-Plus 默认生成器用完后自旋等待下一毫秒，测得的是这一容量上限；
+ * 项目生成器会借用后面的毫秒，这里放开允许领先的时间，只测量分配本身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Param({"1", "16"})
+    private int blockSize;
+
+    private SnowflakeIdGenerator snowflake;
+    private DefaultIdentifierGenerator mybatisPlusDefault;
+
+    @Setup
+    public void setUp() {
+        snowflake = new SnowflakeIdGenerator(blockSize, Long.MAX_VALUE, System::currentTimeMillis);
+        snowflake.assignWorker(1, 0, Long.MAX_VALUE);
+        mybatisPlusDefault = new DefaultIdentifierGenerator();
+    }
+
+    @Benchmark
+    public long snowflake() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long snowflakeContended() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public Long mybatisPlusDefault() {
+        return mybatisPlusDefault.nextId(null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long mybatisPlusDefaultContended() {
+        return mybatisPlusDefault.nextId(null);
+    }
+}
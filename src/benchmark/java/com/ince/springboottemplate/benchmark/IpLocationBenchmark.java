@@ -0,0 +1,101 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.model.vo.IpRegion;
+import com.ince.springboottemplate.services.Impl.IpLocationServiceImpl;
+import org.lionsoul.ip2region.xdb.Searcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP 归属地查询基准：原先的 ip2region 内存缓冲 Searcher 与内存映射的 IpLocationService 对照。
+ * <ul>
+ *     <li>hotIp：同一批 IP 反复查询，反映结果缓存命中时的开销</li>
+ *     <li>randomIp：随机 IP，缓存基本不命中，反映查询本身的开销</li>
+ * </ul>
+ * xdb 文件路径通过 xdbPath 参数指定，默认读取 src/main/resources/ip2region.xdb。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class IpLocationBenchmark {
+
+    private static final String[] HOT_IPS = {"121.40.12.34", "114.114.114.114", "8.8.8.8", "220.181.38.148",
+            "180.101.50.188", "58.217.200.37", "39.156.66.10", "1.1.1.1"};
+
+    @Param({"src/main/resources/ip2region.xdb"})
+    public String xdbPath;
+
+    private Searcher bufferSearcher;
+    private IpLocationServiceImpl ipLocationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        bufferSearcher = Searcher.newWithBuffer(Files.readAllBytes(Path.of(xdbPath)));
+
+        ipLocationService = new IpLocationServiceImpl();
+        ReflectionTestUtils.setField(ipLocationService, "dbPath", xdbPath);
+        ReflectionTestUtils.setField(ipLocationService, "cacheSize", 100_000);
+        ReflectionTestUtils.setField(ipLocationService, "cacheTtlSeconds", 86_400L);
+        ReflectionTestUtils.setField(ipLocationService, "reloadCheckSeconds", 0L);
+        ipLocationService.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ipLocationService.destroy();
+    }
+
+    @Benchmark
+    public String bufferSearcherHotIp() throws Exception {
+        String region = bufferSearcher.search(hotIp());
+        // 与原 IpUtils 一致：每次查询后拆分区域字符串
+        return region.split("\\|")[0];
+    }
+
+    @Benchmark
+    public IpRegion mappedServiceHotIp() {
+        return ipLocationService.search(hotIp());
+    }
+
+    @Benchmark
+    public String bufferSearcherRandomIp() throws Exception {
+        String region = bufferSearcher.search(randomIp());
+        return region.split("\\|")[0];
+    }
+
+    @Benchmark
+    public IpRegion mappedServiceRandomIp() {
+        return ipLocationService.search(randomIp());
+    }
+
+    private static String hotIp() {
+        return HOT_IPS[ThreadLocalRandom.current().nextInt(HOT_IPS.length)];
+    }
+
+    private static String randomIp() {
+        int ip = ThreadLocalRandom.current().nextInt();
+        return ((ip >>> 24) & 0xFF) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF);
+    }
+}
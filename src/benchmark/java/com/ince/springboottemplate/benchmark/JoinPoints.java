@@ -0,0 +1,35 @@
+package com.ince.springboottemplate.benchmark;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+
+/**
+ * 切面基准使用的连接点桩：proceed 直接返回固定值，签名指向给定方法
+ */
+final class JoinPoints {
+
+    private static final Object RESULT = "ok";
+
+    private JoinPoints() {
+    }
+
+    static ProceedingJoinPoint proceeding(Method method) {
+        MethodSignature signature = BenchmarkFixtures.stub(MethodSignature.class, invocation -> switch (invocation.name()) {
+            case "getMethod" -> method;
+            case "getName" -> method.getName();
+            case "getDeclaringType" -> method.getDeclaringClass();
+            case "getParameterNames" -> new String[0];
+            case "getParameterTypes" -> method.getParameterTypes();
+            case "getReturnType" -> method.getReturnType();
+            default -> BenchmarkFixtures.UNHANDLED;
+        });
+        return BenchmarkFixtures.stub(ProceedingJoinPoint.class, invocation -> switch (invocation.name()) {
+            case "proceed" -> RESULT;
+            case "getSignature" -> signature;
+            case "getArgs" -> new Object[0];
+            default -> BenchmarkFixtures.UNHANDLED;
+        });
+    }
+}
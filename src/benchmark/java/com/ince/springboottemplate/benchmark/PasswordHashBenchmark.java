@@ -0,0 +1,62 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.security.Md5PasswordHasher;
+import com.ince.springboottemplate.security.Pbkdf2PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码哈希基准：PBKDF2 不同迭代次数下的哈希/校验耗时，以及旧版 MD5 作为对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "bench_password";
+
+    @Param({"100000", "210000", "600000"})
+    public int iterations;
+
+    private Pbkdf2PasswordHasher pbkdf2;
+    private Md5PasswordHasher md5;
+    private String pbkdf2Hash;
+    private String md5Hash;
+
+    @Setup
+    public void setUp() {
+        pbkdf2 = new Pbkdf2PasswordHasher(iterations);
+        md5 = new Md5PasswordHasher();
+        pbkdf2Hash = pbkdf2.hash(PASSWORD);
+        md5Hash = md5.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String pbkdf2Hash() {
+        return pbkdf2.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean pbkdf2Matches() {
+        return pbkdf2.matches(PASSWORD, pbkdf2Hash);
+    }
+
+    @Benchmark
+    public boolean md5Matches() {
+        return md5.matches(PASSWORD, md5Hash);
+    }
+}
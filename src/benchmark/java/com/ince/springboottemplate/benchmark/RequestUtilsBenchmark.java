@@ -0,0 +1,54 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.utils.DeviceUtils;
+import com.ince.springboottemplate.utils.IpUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求解析工具基准：IP 地址解析、设备信息解析。
+ * IP 归属地查询见 {@link IpLocationBenchmark}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestUtilsBenchmark {
+
+    private MockHttpServletRequest desktopRequest;
+    private MockHttpServletRequest mobileRequest;
+
+    @Setup
+    public void setUp() {
+        desktopRequest = BenchmarkFixtures.request(BenchmarkFixtures.CHROME_USER_AGENT);
+        mobileRequest = BenchmarkFixtures.request(BenchmarkFixtures.IPHONE_USER_AGENT);
+    }
+
+    @Benchmark
+    public String ipAddress() {
+        return IpUtils.getIpAddress(desktopRequest);
+    }
+
+    @Benchmark
+    public String deviceInfoDesktop() {
+        return DeviceUtils.getDeviceInfo(desktopRequest);
+    }
+
+    @Benchmark
+    public String deviceInfoMobile() {
+        return DeviceUtils.getDeviceInfo(mobileRequest);
+    }
+}
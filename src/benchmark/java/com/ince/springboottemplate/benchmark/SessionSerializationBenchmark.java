@@ -0,0 +1,72 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.security.LoginPrincipal;
+import com.ince.springboottemplate.security.LoginPrincipalRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话登录属性序列化基准：完整 User 走通用 JSON 与登录主体走二进制编码的对比。
+ * 启动时输出两种编码的字节数，即每个请求写回 Redis 的登录属性大小。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionSerializationBenchmark {
+
+    private RedisSerializer<Object> jsonSerializer;
+    private RedisSerializer<Object> principalSerializer;
+    private User user;
+    private LoginPrincipal principal;
+    private byte[] userJson;
+    private byte[] principalBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        principalSerializer = new LoginPrincipalRedisSerializer(new GenericJackson2JsonRedisSerializer());
+        user = BenchmarkFixtures.user("$pbkdf2-sha256$210000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaA==");
+        principal = LoginPrincipal.of(user);
+        userJson = jsonSerializer.serialize(user);
+        principalBytes = principalSerializer.serialize(principal);
+        System.out.printf("%nsession attribute bytes: user(json)=%d, principal(binary)=%d%n",
+                userJson.length, principalBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeUserJson() {
+        return jsonSerializer.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] serializePrincipal() {
+        return principalSerializer.serialize(principal);
+    }
+
+    @Benchmark
+    public Object deserializeUserJson() {
+        return jsonSerializer.deserialize(userJson);
+    }
+
+    @Benchmark
+    public Object deserializePrincipal() {
+        return principalSerializer.deserialize(principalBytes);
+    }
+}
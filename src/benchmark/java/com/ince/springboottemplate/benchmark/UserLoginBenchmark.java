@@ -0,0 +1,130 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.event.LastLoginWriteBehindBuffer;
+import com.ince.springboottemplate.event.LoginEventPipeline;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.dto.UserLoginRequest;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.security.PasswordHashEngine;
+import com.ince.springboottemplate.services.Impl.UserIdentityServiceImpl;
+import com.ince.springboottemplate.services.Impl.UserServiceImpl;
+import com.ince.springboottemplate.services.UserBloomFilterService;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录热路径基准：UserServiceImpl.userLogin，UserMapper 使用内存桩，不访问数据库。
+ * iterations 较小时主要反映哈希以外的开销，取默认值时反映真实登录耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLoginBenchmark {
+
+    private static final String PASSWORD = "bench_password";
+
+    @Param({"1000", "210000"})
+    public int iterations;
+
+    private UserServiceImpl userService;
+    private PasswordHashEngine passwordHashEngine;
+    private LoginEventPipeline loginEventPipeline;
+    private LastLoginWriteBehindBuffer lastLoginWriteBehindBuffer;
+    private UserLoginRequest loginRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordHashEngine = BenchmarkFixtures.passwordHashEngine(iterations);
+        String encodedPassword = passwordHashEngine.hash(PASSWORD);
+
+        UserMapper userMapper = BenchmarkFixtures.stub(UserMapper.class, invocation -> switch (invocation.name()) {
+            case "selectAuthByUsername", "selectAuthById" -> BenchmarkFixtures.user(encodedPassword);
+            case "rehashPassword", "updateLastLogin", "insert" -> 1;
+            default -> BenchmarkFixtures.UNHANDLED;
+        });
+        UserCacheService userCacheService = BenchmarkFixtures.stub(UserCacheService.class,
+                invocation -> BenchmarkFixtures.UNHANDLED);
+        // 基准用户存在，布隆过滤器总是放行
+        UserBloomFilterService userBloomFilterService = BenchmarkFixtures.stub(UserBloomFilterService.class,
+                invocation -> invocation.name().startsWith("mightContain") ? Boolean.TRUE : BenchmarkFixtures.UNHANDLED);
+
+        // 不分片：登录经 UserIdentityServiceImpl 直接查 users 表，与默认配置一致
+        UserShardRouter userShardRouter = BenchmarkFixtures.unshardedRouter();
+        UserIdentityServiceImpl userIdentityService = new UserIdentityServiceImpl();
+        ReflectionTestUtils.setField(userIdentityService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userIdentityService, "userShardRouter", userShardRouter);
+
+        SqlSession sqlSession = BenchmarkFixtures.stub(SqlSession.class, invocation ->
+                "getMapper".equals(invocation.name()) ? userMapper : BenchmarkFixtures.UNHANDLED);
+        SqlSessionFactory sqlSessionFactory = BenchmarkFixtures.stub(SqlSessionFactory.class, invocation ->
+                "openSession".equals(invocation.name()) ? sqlSession : BenchmarkFixtures.UNHANDLED);
+        AppThreadFactory appThreadFactory = new AppThreadFactory();
+        lastLoginWriteBehindBuffer = new LastLoginWriteBehindBuffer();
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "appThreadFactory", appThreadFactory);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "sqlSessionFactory", sqlSessionFactory);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "userCacheService", userCacheService);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "userShardRouter", userShardRouter);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "flushIntervalMillis", 1000L);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "batchSize", 500);
+        ReflectionTestUtils.setField(lastLoginWriteBehindBuffer, "maxPending", 20_000);
+        lastLoginWriteBehindBuffer.init();
+
+        // 登录副作用由后台线程处理，不计入登录耗时
+        loginEventPipeline = new LoginEventPipeline();
+        ReflectionTestUtils.setField(loginEventPipeline, "appThreadFactory", appThreadFactory);
+        ReflectionTestUtils.setField(loginEventPipeline, "lastLoginWriteBehindBuffer", lastLoginWriteBehindBuffer);
+        ReflectionTestUtils.setField(loginEventPipeline, "queueCapacity", 100_000);
+        ReflectionTestUtils.setField(loginEventPipeline, "workers", 1);
+        ReflectionTestUtils.setField(loginEventPipeline, "offerTimeoutMillis", 0L);
+        loginEventPipeline.init();
+
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "baseMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userCacheService", userCacheService);
+        ReflectionTestUtils.setField(userService, "passwordHashEngine", passwordHashEngine);
+        ReflectionTestUtils.setField(userService, "loginEventPipeline", loginEventPipeline);
+        ReflectionTestUtils.setField(userService, "userBloomFilterService", userBloomFilterService);
+        ReflectionTestUtils.setField(userService, "userIdentityService", userIdentityService);
+        ReflectionTestUtils.setField(userService, "userShardRouter", userShardRouter);
+
+        loginRequest = new UserLoginRequest();
+        loginRequest.setUsername("bench_user");
+        loginRequest.setPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        loginEventPipeline.destroy();
+        lastLoginWriteBehindBuffer.destroy();
+        passwordHashEngine.destroy();
+    }
+
+    @Benchmark
+    public User userLogin() {
+        MockHttpServletRequest request = BenchmarkFixtures.request(BenchmarkFixtures.CHROME_USER_AGENT);
+        return userService.userLogin(loginRequest, request);
+    }
+}
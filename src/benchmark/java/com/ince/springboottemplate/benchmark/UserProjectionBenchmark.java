@@ -0,0 +1,120 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户查询投影基准：SELECT * 与认证投影、资料投影的对比。
+ * 启动时输出每种查询读取的列数据字节数（按 UTF-8 文本估算，接近 MySQL 文本协议的传输量）
+ * 和用户缓存写入 Redis 的字节数；基准方法测量缓存值的反序列化以及原来 User -> UserVO 的复制开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    private Jackson2JsonRedisSerializer<Object> cacheSerializer;
+    private User user;
+    private byte[] userJson;
+    private byte[] profileJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 与 RedisConfig 中用户缓存使用的序列化方式一致
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        cacheSerializer = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+
+        user = BenchmarkFixtures.user("$pbkdf2-sha256$210000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaA==");
+        UserVO profile = new UserVO();
+        BeanUtils.copyProperties(user, profile);
+        userJson = cacheSerializer.serialize(user);
+        profileJson = cacheSerializer.serialize(profile);
+
+        List<String> allColumns = Arrays.stream(BeanUtils.getPropertyDescriptors(User.class))
+                .map(PropertyDescriptor::getName)
+                .filter(name -> !"class".equals(name))
+                .toList();
+        System.out.printf("%nbytes read per row: select *=%d, auth projection=%d, profile projection=%d%n",
+                columnBytes(user, allColumns), columnBytes(user, columns(UserMapper.AUTH_COLUMNS)),
+                columnBytes(user, columns(UserMapper.PROFILE_COLUMNS)));
+        System.out.printf("user cache bytes: user(json)=%d, profile(json)=%d%n", userJson.length, profileJson.length);
+    }
+
+    @Benchmark
+    public Object deserializeCachedUser() {
+        // 改动前：缓存完整 User，读取后再复制为 UserVO
+        User cached = (User) cacheSerializer.deserialize(userJson);
+        UserVO userVO = new UserVO();
+        BeanUtils.copyProperties(cached, userVO);
+        return userVO;
+    }
+
+    @Benchmark
+    public Object deserializeCachedProfile() {
+        return cacheSerializer.deserialize(profileJson);
+    }
+
+    /**
+     * 把投影列（下划线命名）转为属性名
+     */
+    private static List<String> columns(String projection) {
+        return Arrays.stream(projection.split(","))
+                .map(String::trim)
+                .map(column -> {
+                    StringBuilder builder = new StringBuilder();
+                    boolean upper = false;
+                    for (char c : column.toCharArray()) {
+                        if (c == '_') {
+                            upper = true;
+                        } else {
+                            builder.append(upper ? Character.toUpperCase(c) : c);
+                            upper = false;
+                        }
+                    }
+                    return builder.toString();
+                })
+                .toList();
+    }
+
+    private static long columnBytes(User user, List<String> properties) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(user);
+        long bytes = 0;
+        for (String property : properties) {
+            Object value = wrapper.getPropertyValue(property);
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof Date date ? String.valueOf(date.getTime()) : String.valueOf(value);
+            bytes += text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+}
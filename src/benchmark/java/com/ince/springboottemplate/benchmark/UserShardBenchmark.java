@@ -0,0 +1,187 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.id.SnowflakeIdGenerator;
+import com.ince.springboottemplate.shard.UserShardLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户表分片吞吐基准：8 个线程按 {@link UserShardLayout} 把注册写入和最后登录更新路由到各分片，
+ * 比较分片数 1/2/4/8 时的吞吐量。
+ * <ul>
+ *     <li>tables：所有分片表在同一个 H2 内存库中，与项目当前的分表方式一致</li>
+ *     <li>databases：每个分片一个 H2 内存库，对应把分片放到独立数据源上的情况</li>
+ * </ul>
+ * 只测量分片表本身的写入，不包含 user_lookup（全局单表，分片数增加时不会随之扩展）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class UserShardBenchmark {
+
+    private static final int PRELOADED_USERS = 20_000;
+
+    private static final AtomicInteger TRIALS = new AtomicInteger();
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    @Param({"tables", "databases"})
+    public String placement;
+
+    private UserShardLayout layout;
+    private SnowflakeIdGenerator ids;
+    private String[] urls;
+    private long[] preloadedIds;
+    private long maxPreloadedId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        layout = new UserShardLayout("users", shards);
+        ids = new SnowflakeIdGenerator(16, Long.MAX_VALUE, System::currentTimeMillis);
+        ids.assignWorker(1, 0, Long.MAX_VALUE);
+        int trial = TRIALS.incrementAndGet();
+        urls = new String[shards];
+        for (int i = 0; i < shards; i++) {
+            String database = "databases".equals(placement) ? "shard_bench_" + trial + "_" + i : "shard_bench_" + trial;
+            urls[i] = "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1";
+            try (Connection connection = DriverManager.getConnection(urls[i]);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + layout.table(i) + " (id BIGINT PRIMARY KEY, "
+                        + "username VARCHAR(50) NOT NULL UNIQUE, email VARCHAR(100) UNIQUE, password VARCHAR(100) NOT NULL, "
+                        + "status INT NOT NULL, last_login_time TIMESTAMP, last_login_ip VARCHAR(45), version INT NOT NULL)");
+            }
+        }
+        preloadedIds = new long[PRELOADED_USERS];
+        Connections connections = new Connections();
+        try {
+            connections.open(this);
+            for (int i = 0; i < PRELOADED_USERS; i++) {
+                preloadedIds[i] = insert(connections, ids.nextId());
+            }
+        } finally {
+            connections.close();
+        }
+        maxPreloadedId = preloadedIds[PRELOADED_USERS - 1];
+    }
+
+    /**
+     * 删除本轮注册的用户，内存库的大小不随迭代次数增长
+     */
+    @TearDown(Level.Iteration)
+    public void removeRegistered() throws SQLException {
+        for (int i = 0; i < shards; i++) {
+            try (Connection connection = DriverManager.getConnection(urls[i]);
+                 PreparedStatement delete = connection.prepareStatement(
+                         "DELETE FROM " + layout.table(i) + " WHERE id > ?")) {
+                delete.setLong(1, maxPreloadedId);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        Set<String> databases = new LinkedHashSet<>(Arrays.asList(urls));
+        for (String url : databases) {
+            try (Connection connection = DriverManager.getConnection(url);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Benchmark
+    public long register(Connections connections) throws SQLException {
+        return insert(connections, ids.nextId());
+    }
+
+    @Benchmark
+    public int recordLogin(Connections connections) throws SQLException {
+        long id = preloadedIds[ThreadLocalRandom.current().nextInt(PRELOADED_USERS)];
+        PreparedStatement update = connections.updates[layout.shardOf(id)];
+        update.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+        update.setString(2, "121.40.12.34");
+        update.setLong(3, id);
+        return update.executeUpdate();
+    }
+
+    private long insert(Connections connections, long id) throws SQLException {
+        PreparedStatement insert = connections.inserts[layout.shardOf(id)];
+        insert.setLong(1, id);
+        insert.setString(2, "u" + id);
+        insert.setString(3, id + "@example.com");
+        insert.setString(4, "pbkdf2$210000$c2FsdA$aGFzaA");
+        insert.setInt(5, 1);
+        insert.setInt(6, 0);
+        insert.executeUpdate();
+        return id;
+    }
+
+    /**
+     * 每个线程自己的连接和预编译语句，按分片序号索引；同一个库的分片共用一个连接
+     */
+    @State(Scope.Thread)
+    public static class Connections {
+
+        private Connection[] connections;
+        private PreparedStatement[] inserts;
+        private PreparedStatement[] updates;
+
+        @Setup(Level.Trial)
+        public void open(UserShardBenchmark benchmark) throws SQLException {
+            int shards = benchmark.shards;
+            connections = new Connection[shards];
+            inserts = new PreparedStatement[shards];
+            updates = new PreparedStatement[shards];
+            for (int i = 0; i < shards; i++) {
+                connections[i] = i > 0 && benchmark.urls[i].equals(benchmark.urls[i - 1])
+                        ? connections[i - 1]
+                        : DriverManager.getConnection(benchmark.urls[i]);
+                String table = benchmark.layout.table(i);
+                inserts[i] = connections[i].prepareStatement("INSERT INTO " + table
+                        + " (id, username, email, password, status, version) VALUES (?, ?, ?, ?, ?, ?)");
+                updates[i] = connections[i].prepareStatement("UPDATE " + table
+                        + " SET last_login_time = ?, last_login_ip = ? WHERE id = ?");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            for (int i = 0; i < connections.length; i++) {
+                if (connections[i] != null && (i == 0 || connections[i] != connections[i - 1])) {
+                    connections[i].close();
+                }
+            }
+        }
+    }
+}
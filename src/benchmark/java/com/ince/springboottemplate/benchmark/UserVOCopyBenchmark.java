@@ -0,0 +1,60 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User 转 UserVO 基准：BeanUtils.copyProperties 与手写赋值对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserVOCopyBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user("password");
+    }
+
+    @Benchmark
+    public UserVO beanUtilsCopy() {
+        UserVO userVO = new UserVO();
+        BeanUtils.copyProperties(user, userVO);
+        return userVO;
+    }
+
+    @Benchmark
+    public UserVO manualCopy() {
+        UserVO userVO = new UserVO();
+        userVO.setId(user.getId());
+        userVO.setUsername(user.getUsername());
+        userVO.setDisplayName(user.getDisplayName());
+        userVO.setEmail(user.getEmail());
+        userVO.setPhone(user.getPhone());
+        userVO.setAvatar(user.getAvatar());
+        userVO.setLastLoginIpLocation(user.getLastLoginIpLocation());
+        userVO.setStatus(user.getStatus());
+        userVO.setBio(user.getBio());
+        userVO.setIdCard(user.getIdCard());
+        userVO.setRole(user.getRole());
+        return userVO;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ince.springboottemplate.benchmark;
+
+import com.ince.springboottemplate.datasource.ConcurrencyLimitedDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求线程模型负载对比：平台线程池（与 Tomcat 默认 200 线程一致）与每请求一个虚拟线程。
+ * 每个模拟请求先通过并发限制的数据源借用连接并阻塞 dbMillis，再阻塞 redisMillis 模拟 Redis 访问；
+ * 每次操作并发提交 requests 个请求并等待全部完成，吞吐量即每秒完成的批次数。
+ * <p>
+ * 这是合成模型而不是压测：数据源是 Thread.sleep 桩，不经过 Tomcat、Druid、Jedis 和真实网络，
+ * 只用来说明两种线程模型下请求在连接池前的排队方式，结果不能代表接口的实际吞吐。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DRUID_MAX_ACTIVE = 20;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"2"})
+    public long dbMillis;
+
+    @Param({"1"})
+    public long redisMillis;
+
+    private ExecutorService executor;
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        Connection connection = BenchmarkFixtures.stub(Connection.class, invocation -> BenchmarkFixtures.UNHANDLED);
+        DataSource pool = BenchmarkFixtures.stub(DataSource.class,
+                invocation -> "getConnection".equals(invocation.name()) ? connection : BenchmarkFixtures.UNHANDLED);
+        dataSource = new ConcurrencyLimitedDataSource(pool, DRUID_MAX_ACTIVE, 60_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int handleRequests() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                try (Connection ignored = dataSource.getConnection()) {
+                    Thread.sleep(dbMillis);
+                }
+                Thread.sleep(redisMillis);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ince.springboottemplate.annotation;
+
+import com.ince.springboottemplate.ratelimit.RateLimitKeyType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限流注解
+ * 先经过本节点的令牌桶，再经过基于 Redis 的集群滑动窗口，任一阶段拒绝都直接返回，不执行业务方法。
+ * 可在同一方法上声明多个，按声明顺序依次校验（如同时按 IP 和用户名限流）。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+
+    /**
+     * 限流名称，作为 Redis key 的一部分，同名的限流共享计数
+     */
+    String name();
+
+    /**
+     * 限流维度，默认按客户端 IP
+     */
+    RateLimitKeyType type() default RateLimitKeyType.IP;
+
+    /**
+     * type 为 PARAMETER 时取值的 SpEL 表达式，如 {@code #userLoginRequest.username}，取值为空时不限流
+     */
+    String key() default "";
+
+    /**
+     * 窗口内允许的请求数
+     */
+    int permits();
+
+    /**
+     * 窗口长度（秒）
+     */
+    long windowSeconds();
+
+    /**
+     * 被拒绝时的提示
+     */
+    String message() default "请求过于频繁，请稍后再试";
+}
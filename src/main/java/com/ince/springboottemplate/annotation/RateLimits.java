@@ -0,0 +1,16 @@
+package com.ince.springboottemplate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link RateLimit} 的容器注解，同一方法声明多个限流规则时由编译器自动生成
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimits {
+
+    RateLimit[] value();
+}
@@ -0,0 +1,16 @@
+package com.ince.springboottemplate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只读方法注解
+ * 方法内的查询可以发往只读副本；只应标注不写库的方法，副本不可用、处于写事务中
+ * 或当前会话刚更新过数据（见 {@link ReadYourWrites}）时仍走主库
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+}
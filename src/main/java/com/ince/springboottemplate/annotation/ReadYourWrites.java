@@ -0,0 +1,16 @@
+package com.ince.springboottemplate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 写后读一致注解
+ * 方法正常返回后，当前会话在 app.datasource.routing.sticky-seconds 内的 {@link ReadReplica} 查询都走主库，
+ * 用户看到的始终是自己刚写入的数据，不受副本复制延迟影响
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadYourWrites {
+}
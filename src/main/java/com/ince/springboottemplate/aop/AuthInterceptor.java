@@ -4,84 +4,149 @@ package com.ince.springboottemplate.aop;
 import com.ince.springboottemplate.annotation.AuthCheck;
 import com.ince.springboottemplate.enums.ErrorCode;
 import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
 import com.ince.springboottemplate.exception.BusinessException;
-import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.security.LoginPrincipal;
 import com.ince.springboottemplate.services.UserService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Objects;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 权限校验 AOP
  * 用于拦截带有 @AuthCheck 注解的方法，进行登录状态验证
+ * <p>
+ * 每个方法的角色要求在首次调用时编译为按 {@link UserRole} 角色码索引的位掩码并缓存，
+ * 之后每次校验只做一次位运算。登录主体由 {@link UserService#getLoginUser} 与缓存中的用户资料比对后返回，
+ * 冻结、封禁和角色调整对已有会话同样生效，通常只命中本地缓存，不查询数据库。
  */
 @Aspect
 @Component
 @Slf4j
 public class AuthInterceptor {
 
+    /**
+     * 不限角色
+     */
+    private static final int ANY_ROLE = -1;
+
+    /**
+     * 禁止访问的用户状态
+     */
+    private static final int DENIED_STATUS_MASK = (1 << UserStatus.FROZEN.getCode()) | (1 << UserStatus.BLOCKED.getCode());
+
     @Resource
     private UserService userService;
 
+    /**
+     * 方法 -> 允许的角色掩码
+     */
+    private final Map<Method, Integer> roleMasks = new ConcurrentHashMap<>();
+
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder notLogin = new LongAdder();
+    private final LongAdder deniedStatus = new LongAdder();
+    private final LongAdder deniedRole = new LongAdder();
+
     /**
      * 执行拦截
      */
     @Around("@annotation(authCheck)")
     public Object doInterceptor(ProceedingJoinPoint joinPoint, AuthCheck authCheck) throws Throwable {
-        // 获取当前请求
-        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
-        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
-
         // 如果需要登录验证
         if (authCheck.mustLogin()) {
+            // 获取当前请求
+            RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+            HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+
             // 当前登录用户
-            User loginUser = null;
+            LoginPrincipal loginUser;
             try {
                 loginUser = userService.getLoginUser(request);
             } catch (BusinessException e) {
                 // 如果获取登录用户失败，说明未登录
+                notLogin.increment();
                 log.warn("用户未登录，访问路径: {}", request.getRequestURI());
                 throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
             }
 
             // 检查用户状态
-            if (loginUser == null) {
-                log.warn("用户未登录，访问路径: {}", request.getRequestURI());
-                throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+            if (isFlagged(DENIED_STATUS_MASK, loginUser.status())) {
+                deniedStatus.increment();
+                log.warn("用户状态禁止访问，用户: {}, 状态: {}, 访问路径: {}",
+                        loginUser.id(), loginUser.status(), request.getRequestURI());
+                throw new BusinessException(ErrorCode.FORBIDDEN_ERROR,
+                        loginUser.status() == UserStatus.FROZEN.getCode() ? "账户已被冻结" : "账户已被封禁");
             }
 
             // 如果有角色要求，进行角色验证
-            String[] requiredRoles = authCheck.roles();
-            if (requiredRoles.length > 0) {
-                String userRole = Objects.requireNonNull(UserRole.fromCode(loginUser.getRole())).getRole();
-                boolean hasRole = false;
-                for (String requiredRole : requiredRoles) {
-                    if (StringUtils.equals(userRole, requiredRole)) {
-                        hasRole = true;
-                        break;
-                    }
-                }
-                if (!hasRole) {
-                    log.warn("用户权限不足，用户角色: {}, 需要角色: {}, 访问路径: {}",
-                            userRole, String.join(",", requiredRoles), request.getRequestURI());
-                    throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
-                }
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            int roleMask = roleMasks.computeIfAbsent(method, key -> compileRoleMask(key, authCheck));
+            if (roleMask != ANY_ROLE && !isFlagged(roleMask, loginUser.role())) {
+                deniedRole.increment();
+                log.warn("用户权限不足，用户: {}, 角色码: {}, 需要角色: {}, 访问路径: {}",
+                        loginUser.id(), loginUser.role(), String.join(",", authCheck.roles()), request.getRequestURI());
+                throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
             }
-
-            log.info("用户 {} 通过权限验证，访问路径: {}", loginUser.getUsername(), request.getRequestURI());
+            passed.increment();
         }
 
         // 通过权限校验，执行原方法
         return joinPoint.proceed();
     }
-} 
\ No newline at end of file
+
+    private static boolean isFlagged(int mask, int code) {
+        return code >= 0 && code < Integer.SIZE && (mask & (1 << code)) != 0;
+    }
+
+    /**
+     * 把注解中的角色名编译为角色码掩码，未声明角色时不限角色
+     */
+    private static int compileRoleMask(Method method, AuthCheck authCheck) {
+        String[] roles = authCheck.roles();
+        if (roles.length == 0) {
+            return ANY_ROLE;
+        }
+        int mask = 0;
+        for (String role : roles) {
+            Optional<UserRole> userRole = UserRole.fromEnglishDescription(role);
+            if (userRole.isEmpty()) {
+                log.warn("@AuthCheck 中的角色不存在，已忽略: {}.{} -> {}",
+                        method.getDeclaringClass().getSimpleName(), method.getName(), role);
+                continue;
+            }
+            mask |= 1 << userRole.get().getCode();
+        }
+        return mask;
+    }
+
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    public long getNotLogin() {
+        return notLogin.sum();
+    }
+
+    public long getDeniedStatus() {
+        return deniedStatus.sum();
+    }
+
+    public long getDeniedRole() {
+        return deniedRole.sum();
+    }
+}
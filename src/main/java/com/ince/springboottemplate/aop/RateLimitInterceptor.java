@@ -0,0 +1,197 @@
+package com.ince.springboottemplate.aop;
+
+import com.ince.springboottemplate.annotation.RateLimit;
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.ratelimit.RateLimitKeyType;
+import com.ince.springboottemplate.ratelimit.RedisSlidingWindowLimiter;
+import com.ince.springboottemplate.ratelimit.TokenBucket;
+import com.ince.springboottemplate.utils.IpUtils;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流 AOP
+ * 拦截带有 @RateLimit 注解的方法，先后经过本节点令牌桶和 Redis 滑动窗口两级限流。
+ * <ul>
+ *     <li>本节点令牌桶拒绝时不访问 Redis，单个客户端的突发流量在本地就被挡住</li>
+ *     <li>Redis 不可用时只保留本地限流，不影响正常请求</li>
+ *     <li>优先于 @AuthCheck 和业务方法执行，被拒绝的请求不会访问数据库</li>
+ * </ul>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RateLimitInterceptor {
+
+    /**
+     * 参数取值的最大长度，避免超长的 key 写入 Redis
+     */
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    @Resource
+    private RedisSlidingWindowLimiter redisSlidingWindowLimiter;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.redis.enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${app.rate-limit.local.max-keys:100000}")
+    private int localMaxKeys;
+
+    /**
+     * 方法 -> 声明的限流规则
+     */
+    private final Map<Method, Set<RateLimit>> rules = new ConcurrentHashMap<>();
+
+    /**
+     * 限流名称 -> 各 key 的令牌桶
+     * 按访问续期：令牌最多一个窗口就能补满，空闲超过一个窗口的桶与新建的满桶等价，可以直接剔除；
+     * 不能按写入过期，否则持续访问的 key 每个窗口都会换成一个新的满桶，多放行一整个窗口的请求数
+     */
+    private final Map<String, LocalCache<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder rejectedLocal = new LongAdder();
+    private final LongAdder rejectedRedis = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    @Around("@annotation(com.ince.springboottemplate.annotation.RateLimit) "
+            + "|| @annotation(com.ince.springboottemplate.annotation.RateLimits)")
+    public Object doInterceptor(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Set<RateLimit> limits = rules.computeIfAbsent(method,
+                key -> AnnotatedElementUtils.findMergedRepeatableAnnotations(key, RateLimit.class));
+        for (RateLimit limit : limits) {
+            String key = resolveKey(limit, method, joinPoint);
+            if (key != null) {
+                check(limit, key);
+            }
+        }
+        passed.increment();
+        return joinPoint.proceed();
+    }
+
+    private void check(RateLimit limit, String key) {
+        TokenBucket bucket = bucketFor(limit, key);
+        if (!bucket.tryAcquire()) {
+            rejectedLocal.increment();
+            log.debug("请求被本地限流: limit={}, key={}", limit.name(), key);
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST_ERROR, limit.message());
+        }
+        if (!redisEnabled) {
+            return;
+        }
+        long waitMillis;
+        try {
+            waitMillis = redisSlidingWindowLimiter.tryAcquire(limit.name(), key, limit.permits(), limit.windowSeconds());
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Redis 限流不可用，仅使用本地限流: {}", e.getMessage());
+            return;
+        }
+        if (waitMillis > 0) {
+            rejectedRedis.increment();
+            log.debug("请求被集群限流: limit={}, key={}, retryAfter={}ms", limit.name(), key, waitMillis);
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST_ERROR, limit.message());
+        }
+    }
+
+    private TokenBucket bucketFor(RateLimit limit, String key) {
+        LocalCache<String, TokenBucket> cache = buckets.computeIfAbsent(limit.name(),
+                name -> new LocalCache<>(localMaxKeys, limit.windowSeconds(), true));
+        TokenBucket bucket = cache.get(key);
+        if (bucket == null) {
+            // 并发创建时最多多放行一次突发，不需要加锁
+            bucket = new TokenBucket(limit.permits(), limit.windowSeconds());
+            cache.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * 解析限流维度的取值，取值为空时返回 null（不限流）
+     */
+    private String resolveKey(RateLimit limit, Method method, ProceedingJoinPoint joinPoint) {
+        if (limit.type() == RateLimitKeyType.IP) {
+            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                return null;
+            }
+            HttpServletRequest request = attributes.getRequest();
+            return IpUtils.getIpAddress(request);
+        }
+        Expression expression = expressions.computeIfAbsent(limit.key(), PARSER::parseExpression);
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, joinPoint.getArgs(),
+                PARAMETER_NAMES);
+        Object value = expression.getValue(context);
+        if (value == null) {
+            return null;
+        }
+        String key = value.toString().trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return null;
+        }
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    public long getRejectedLocal() {
+        return rejectedLocal.sum();
+    }
+
+    public long getRejectedRedis() {
+        return rejectedRedis.sum();
+    }
+
+    public long getRedisErrors() {
+        return redisErrors.sum();
+    }
+
+    public long getTrackedKeys() {
+        long size = 0;
+        for (LocalCache<String, TokenBucket> cache : buckets.values()) {
+            size += cache.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ince.springboottemplate.aop;
+
+import com.ince.springboottemplate.annotation.ReadReplica;
+import com.ince.springboottemplate.annotation.ReadYourWrites;
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.datasource.ReplicaRoutingContext;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写路由 AOP
+ * <ul>
+ *     <li>@ReadReplica 方法执行期间允许查询发往只读副本；在事务切面之外执行，只读事务开始时就能拿到副本连接</li>
+ *     <li>@ReadYourWrites 方法正常返回后，在会话中记录粘滞截止时间，此前该会话的 @ReadReplica 查询走主库；
+ *     会话保存在 Redis 中，粘滞对所有节点生效</li>
+ * </ul>
+ * 没有配置读写分离数据源时，路由标记不起作用。
+ */
+@Aspect
+@Component
+@Order(0)
+@Slf4j
+public class ReadReplicaInterceptor {
+
+    @Value("${app.datasource.routing.sticky-seconds:5}")
+    private long stickySeconds;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+
+    @Around("@annotation(readReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint, ReadReplica readReplica) throws Throwable {
+        if (isStickyToPrimary()) {
+            stickyReads.increment();
+            return joinPoint.proceed();
+        }
+        replicaReads.increment();
+        Boolean previous = ReplicaRoutingContext.enterReadReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.restore(previous);
+        }
+    }
+
+    @AfterReturning("@annotation(readYourWrites)")
+    public void stickToPrimary(ReadYourWrites readYourWrites) {
+        HttpSession session = currentSession();
+        if (session != null && stickySeconds > 0) {
+            session.setAttribute(UserConstant.PRIMARY_STICKY_UNTIL, System.currentTimeMillis() + stickySeconds * 1000);
+        }
+    }
+
+    private boolean isStickyToPrimary() {
+        HttpSession session = currentSession();
+        if (session == null) {
+            return false;
+        }
+        Object until = session.getAttribute(UserConstant.PRIMARY_STICKY_UNTIL);
+        return until instanceof Number millis && millis.longValue() > System.currentTimeMillis();
+    }
+
+    /**
+     * 当前请求已有的会话，非请求线程或未创建会话时返回 null
+     */
+    private static HttpSession currentSession() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getSession(false);
+        }
+        return null;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getStickyReads() {
+        return stickyReads.sum();
+    }
+}
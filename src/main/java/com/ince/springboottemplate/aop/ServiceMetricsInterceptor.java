@@ -0,0 +1,62 @@
+package com.ince.springboottemplate.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务方法耗时 AOP
+ * 按方法记录 UserService 的 app.service 计时器，exception 标签为抛出的异常类名（正常返回为 none）。
+ * 排在读写路由和事务切面之外，耗时包含获取连接和提交事务。
+ */
+@Aspect
+@Component
+@Order(-1)
+@ConditionalOnProperty(name = "app.monitor.service.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsInterceptor {
+
+    private static final String SERVICE_TIMER = "app.service";
+
+    private static final String NO_EXCEPTION = "none";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 按 "服务.方法:异常" 缓存计时器
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.ince.springboottemplate.services.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            String tagException = exception;
+            timers.computeIfAbsent(service + "." + method + ":" + exception, key -> Timer.builder(SERVICE_TIMER)
+                            .description("业务方法耗时")
+                            .tag("service", service)
+                            .tag("method", method)
+                            .tag("exception", tagException)
+                            .register(meterRegistry))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
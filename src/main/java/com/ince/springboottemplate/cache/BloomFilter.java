@@ -0,0 +1,208 @@
+package com.ince.springboottemplate.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 字符串布隆过滤器
+ * 位数组按 long 分组存放，写入使用 CAS，多线程同时写入和读取无需加锁。
+ * 第 i 个哈希位置按 {@code h1 + i * h2} 由两个 64 位哈希推导，只对 key 计算一次哈希，不分配中间对象。
+ * <p>
+ * 位顺序可以导出为 Redis 位图（{@link #toRedisBitmap}），位置 i 与 Redis 的 SETBIT/GETBIT 偏移量 i 一致。
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SECOND_SEED = 0x9e3779b97f4a7c15L;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    private final AtomicLongArray words;
+
+    /**
+     * @param bitSize       位数组长度
+     * @param hashFunctions 哈希函数个数
+     */
+    public BloomFilter(long bitSize, int hashFunctions) {
+        if (bitSize <= 0 || hashFunctions <= 0) {
+            throw new IllegalArgumentException("bitSize and hashFunctions must be positive");
+        }
+        long wordCount = (bitSize + Long.SIZE - 1) / Long.SIZE;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bitSize too large: " + bitSize);
+        }
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray((int) wordCount);
+    }
+
+    /**
+     * 按预期元素数和目标误判率计算位数组长度和哈希函数个数
+     * @param expectedInsertions 预期元素数
+     * @param falsePositiveRate  目标误判率，取值 (0, 1)
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        long bitSize = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    /**
+     * 加入 key
+     * @return 是否有位发生变化（false 表示 key 可能已存在）
+     */
+    public boolean put(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            changed |= setBit(index(h1, h2, i));
+        }
+        return changed;
+    }
+
+    /**
+     * key 是否可能存在，返回 false 时一定不存在
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!getBit(index(h1, h2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * key 对应的全部位偏移量，用于同步到 Redis 位图
+     */
+    public long[] indexes(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        long[] indexes = new long[hashFunctions];
+        for (int i = 0; i < hashFunctions; i++) {
+            indexes[i] = index(h1, h2, i);
+        }
+        return indexes;
+    }
+
+    /**
+     * 直接置位，用于把其他节点写入 Redis 的位同步到本地
+     */
+    public void setBits(long[] indexes) {
+        for (long index : indexes) {
+            setBit(index);
+        }
+    }
+
+    /**
+     * 导出为 Redis 位图：偏移量 i 对应第 i / 8 个字节的第 7 - i % 8 位（高位在前）
+     */
+    public byte[] toRedisBitmap() {
+        byte[] bytes = new byte[(int) ((bitSize + 7) / 8)];
+        for (int w = 0; w < words.length(); w++) {
+            long word = words.get(w);
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                long index = (long) w * Long.SIZE + bit;
+                bytes[(int) (index >>> 3)] |= (byte) (0x80 >>> (index & 7));
+                word &= word - 1;
+            }
+        }
+        return bytes;
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * 已置位的位数，需要遍历整个位数组，只用于统计
+     */
+    public long getBitCount() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * 按置位比例估算的元素数
+     */
+    public long approximateElementCount() {
+        double fillRatio = (double) getBitCount() / bitSize;
+        if (fillRatio >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) bitSize / hashFunctions * Math.log1p(-fillRatio));
+    }
+
+    /**
+     * 按当前置位比例估算的误判率
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) getBitCount() / bitSize, hashFunctions);
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Long.remainderUnsigned(h1 + i * h2, bitSize);
+    }
+
+    private boolean setBit(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long mask = 1L << index;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+        return true;
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    /**
+     * FNV-1a 累加字符后做 64 位混合，保证低位分布均匀
+     */
+    private static long hash(String key) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long secondHash(long h1) {
+        // 保证为奇数，避免步长与位数组长度有公因子时退化
+        return mix(h1 ^ SECOND_SEED) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ince.springboottemplate.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内有界缓存
+ * 按 key 的哈希分段，每段是一个按访问顺序排列的 LinkedHashMap，
+ * 超过容量时淘汰段内最久未访问的条目，读取时惰性剔除过期条目。
+ * 默认从写入开始计算存活时间；按访问续期时，每次命中都把过期时间推迟到当前时间之后的一个存活时间。
+ *
+ * @param <K> key 类型
+ * @param <V> value 类型
+ */
+public class LocalCache<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] segments;
+
+    private final long ttlNanos;
+
+    private final boolean expireAfterAccess;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize    最大条目数
+     * @param ttlSeconds 写入后的存活时间（秒）
+     */
+    public LocalCache(int maxSize, long ttlSeconds) {
+        this(maxSize, ttlSeconds, false);
+    }
+
+    /**
+     * @param maxSize           最大条目数
+     * @param ttlSeconds        存活时间（秒）
+     * @param expireAfterAccess 是否按最后一次访问计算存活时间（空闲过期）
+     */
+    @SuppressWarnings("unchecked")
+    public LocalCache(int maxSize, long ttlSeconds, boolean expireAfterAccess) {
+        if (maxSize <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("maxSize and ttlSeconds must be positive");
+        }
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.expireAfterAccess = expireAfterAccess;
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期时返回 null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.nanoTime();
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expireAt - now <= 0) {
+                segment.map.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            if (expireAfterAccess) {
+                entry.expireAt = now + ttlNanos;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 写入缓存，value 为 null 时等同于删除
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        segment.lock.lock();
+        try {
+            segment.map.put(key, entry);
+            if (segment.map.size() > segment.capacity) {
+                Iterator<Map.Entry<K, Entry<V>>> iterator = segment.map.entrySet().iterator();
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 当前统计快照
+     */
+    public CacheStats stats() {
+        return new CacheStats(size(), hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * 缓存条目，过期时间只在段锁内读写
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param size        当前条目数
+     * @param hits        命中次数
+     * @param misses      未命中次数
+     * @param evictions   因容量淘汰的次数
+     * @param expirations 因过期剔除的次数
+     */
+    public record CacheStats(long size, long hits, long misses, long evictions, long expirations) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0D : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.ince.springboottemplate.cache;
+
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 用户本地缓存跨节点失效总线
+ * 基于 Redis 发布/订阅：写节点只发布用户ID，所有节点收到后剔除本地缓存。
+ * <p>
+ * 消息格式：{@code 节点ID|启动纪元|序号|id1,id2,...}，id 部分为 {@code *} 时表示全量清空。
+ * <ul>
+ *     <li>合并：短时间内的多次失效合并为一条消息发布</li>
+ *     <li>乱序：按发布节点记录纪元和序号，忽略旧纪元和不大于已处理序号的消息</li>
+ *     <li>丢失：同一节点序号出现跳跃，或订阅断线重连后，清空全部本地缓存</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class UserCacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    private static final String CHANNEL = "user:cache:invalidation";
+    private static final String FLUSH_ALL = "*";
+    private static final char FIELD_SEPARATOR = '|';
+    private static final char ID_SEPARATOR = ',';
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Value("${app.user-cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-cache.invalidation.coalesce-millis:50}")
+    private long coalesceMillis;
+
+    @Value("${app.user-cache.invalidation.max-ids-per-message:500}")
+    private int maxIdsPerMessage;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingFlushAll = new AtomicBoolean();
+
+    /**
+     * 每个发布节点最近处理的纪元和序号
+     */
+    private final Map<String, long[]> lastSeen = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribedOnce = new AtomicBoolean();
+
+    private volatile Consumer<Long> evictHandler = id -> {
+    };
+    private volatile Runnable flushAllHandler = () -> {
+    };
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+    private final LongAdder fullFlushes = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                appThreadFactory.newThreadFactory("user-cache-invalidation"));
+        scheduler.scheduleWithFixedDelay(this::flushPending, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("用户缓存失效总线已启动: nodeId={}, epoch={}", nodeId, epoch);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flushPending();
+        }
+    }
+
+    /**
+     * 注册本地缓存的剔除回调
+     * @param evictHandler    按用户ID剔除
+     * @param flushAllHandler 全量清空
+     */
+    public void register(Consumer<Long> evictHandler, Runnable flushAllHandler) {
+        this.evictHandler = evictHandler;
+        this.flushAllHandler = flushAllHandler;
+    }
+
+    /**
+     * 通知其他节点剔除指定用户，消息会在合并窗口结束后发出
+     */
+    public void publish(Long userId) {
+        if (enabled && userId != null) {
+            pendingIds.add(userId);
+        }
+    }
+
+    /**
+     * 批量通知其他节点剔除用户，同一合并窗口内的用户ID合并为一条消息（超过 max-ids-per-message 时拆分）
+     */
+    public void publish(Collection<Long> userIds) {
+        if (!enabled) {
+            return;
+        }
+        for (Long userId : userIds) {
+            if (userId != null) {
+                pendingIds.add(userId);
+            }
+        }
+    }
+
+    /**
+     * 通知其他节点清空全部本地缓存
+     */
+    public void publishFlushAll() {
+        if (enabled) {
+            pendingFlushAll.set(true);
+        }
+    }
+
+    private void flushPending() {
+        try {
+            if (pendingFlushAll.getAndSet(false)) {
+                pendingIds.clear();
+                send(FLUSH_ALL);
+                return;
+            }
+            if (pendingIds.isEmpty()) {
+                return;
+            }
+            StringBuilder ids = new StringBuilder();
+            int count = 0;
+            Iterator<Long> iterator = pendingIds.iterator();
+            while (iterator.hasNext()) {
+                Long id = iterator.next();
+                iterator.remove();
+                if (count > 0) {
+                    ids.append(ID_SEPARATOR);
+                }
+                ids.append(id);
+                if (++count >= maxIdsPerMessage) {
+                    send(ids.toString());
+                    ids.setLength(0);
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                send(ids.toString());
+            }
+        } catch (Exception e) {
+            log.warn("发布用户缓存失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void send(String payload) {
+        String message = nodeId + FIELD_SEPARATOR + epoch + FIELD_SEPARATOR + sequence.incrementAndGet()
+                + FIELD_SEPARATOR + payload;
+        stringRedisTemplate.convertAndSend(CHANNEL, message);
+        published.increment();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        received.increment();
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(FIELD_SEPARATOR);
+        int second = body.indexOf(FIELD_SEPARATOR, first + 1);
+        int third = body.indexOf(FIELD_SEPARATOR, second + 1);
+        if (first <= 0 || second < 0 || third < 0) {
+            log.warn("无法解析用户缓存失效消息: {}", body);
+            ignored.increment();
+            return;
+        }
+        String sender = body.substring(0, first);
+        if (nodeId.equals(sender)) {
+            // 本节点发出的消息，本地缓存已在写入时剔除
+            return;
+        }
+        long senderEpoch;
+        long senderSequence;
+        try {
+            senderEpoch = Long.parseLong(body, first + 1, second, 10);
+            senderSequence = Long.parseLong(body, second + 1, third, 10);
+        } catch (NumberFormatException e) {
+            log.warn("无法解析用户缓存失效消息: {}", body);
+            ignored.increment();
+            return;
+        }
+
+        if (!accept(sender, senderEpoch, senderSequence)) {
+            ignored.increment();
+            return;
+        }
+
+        if (body.length() - third - 1 == FLUSH_ALL.length() && body.endsWith(FLUSH_ALL)) {
+            flushAll("收到全量清空消息");
+            return;
+        }
+        Consumer<Long> handler = evictHandler;
+        int start = third + 1;
+        while (start < body.length()) {
+            int end = body.indexOf(ID_SEPARATOR, start);
+            if (end < 0) {
+                end = body.length();
+            }
+            try {
+                handler.accept(Long.parseLong(body, start, end, 10));
+            } catch (NumberFormatException e) {
+                log.warn("忽略非法的用户ID: {}", body.substring(start, end));
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 按发布节点校验纪元和序号，返回是否需要处理该消息
+     */
+    private boolean accept(String sender, long senderEpoch, long senderSequence) {
+        boolean[] gap = new boolean[1];
+        boolean[] accepted = new boolean[1];
+        lastSeen.compute(sender, (key, seen) -> {
+            if (seen == null || senderEpoch > seen[0]) {
+                // 首次见到该节点或该节点已重启：无法判断之前是否丢消息，按序号是否从 1 开始推断
+                gap[0] = seen != null && senderSequence != 1;
+                accepted[0] = true;
+                return new long[]{senderEpoch, senderSequence};
+            }
+            if (senderEpoch < seen[0] || senderSequence <= seen[1]) {
+                return seen;
+            }
+            gap[0] = senderSequence != seen[1] + 1;
+            accepted[0] = true;
+            seen[1] = senderSequence;
+            return seen;
+        });
+        if (gap[0]) {
+            flushAll("检测到失效消息序号跳跃: node=" + sender);
+        }
+        return accepted[0];
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (!subscribedOnce.compareAndSet(false, true)) {
+            // 断线期间的失效消息已丢失，只能清空全部本地缓存
+            flushAll("订阅重连");
+        }
+    }
+
+    private void flushAll(String reason) {
+        fullFlushes.increment();
+        log.info("清空用户本地缓存: {}", reason);
+        flushAllHandler.run();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getIgnored() {
+        return ignored.sum();
+    }
+
+    public long getFullFlushes() {
+        return fullFlushes.sum();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ince.springboottemplate.concurrent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 项目内后台线程的统一线程工厂
+ * spring.threads.virtual.enabled=true 时创建虚拟线程，与 Tomcat 请求线程保持同一种执行模式；
+ * 否则创建守护平台线程。线程名为 前缀-序号。
+ * <p>
+ * 只用于以 IO 等待为主的任务，密码哈希等 CPU 密集任务仍使用固定大小的平台线程池。
+ */
+@Component
+public class AppThreadFactory {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * 创建指定名称前缀的线程工厂
+     */
+    public ThreadFactory newThreadFactory(String namePrefix) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(namePrefix + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix + "-", 1).daemon(true).factory();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ince.springboottemplate.config;
+
+import com.ince.springboottemplate.datasource.ConcurrencyLimitSettings;
+import com.ince.springboottemplate.datasource.ReplicaProperties;
+import com.ince.springboottemplate.datasource.ReplicaRoutingPostProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * 读写分离配置
+ * app.datasource.routing.enabled=true 且配置了副本时，@ReadReplica 方法内的查询发往只读副本，其余查询和所有写入走主库。
+ */
+@Configuration
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    /**
+     * 使用静态方法，避免配置类被提前实例化
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment environment) {
+        List<ReplicaProperties> replicas = Binder.get(environment)
+                .bind("app.datasource.routing.replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+        if (replicas.isEmpty()) {
+            log.warn("读写分离已开启但未配置副本，所有查询仍走主库");
+        }
+        return new ReplicaRoutingPostProcessor(replicas,
+                environment.getProperty("app.datasource.routing.health-check-interval-millis", Long.class, 5000L),
+                environment.getProperty("app.datasource.routing.validation-timeout-seconds", Integer.class, 1),
+                environment.getProperty("app.datasource.routing.replica-max-wait-millis", Long.class, 1000L),
+                ConcurrencyLimitSettings.from(environment));
+    }
+}
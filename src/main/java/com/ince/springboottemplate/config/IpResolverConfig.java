@@ -0,0 +1,31 @@
+package com.ince.springboottemplate.config;
+
+import com.ince.springboottemplate.utils.ClientIpResolver;
+import com.ince.springboottemplate.utils.IpUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class IpResolverConfig {
+
+    /**
+     * 按配置创建客户端 IP 解析器，并安装到 IpUtils 中
+     *
+     * @param headers         代理请求头，按优先级排列，默认只读取 X-Forwarded-For
+     * @param trustedProxies  可信代理地址或 IPv4 网段
+     * @param debugSampleRate 请求头调试日志的采样率（0~1），需同时开启 DEBUG 日志
+     * @return ClientIpResolver 对象
+     */
+    @Bean
+    public ClientIpResolver clientIpResolver(
+            @Value("${app.ip.headers:X-Forwarded-For}") List<String> headers,
+            @Value("${app.ip.trusted-proxies:127.0.0.0/8,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,::1}") List<String> trustedProxies,
+            @Value("${app.ip.debug-sample-rate:0}") double debugSampleRate) {
+        ClientIpResolver resolver = new ClientIpResolver(headers, trustedProxies, debugSampleRate);
+        IpUtils.setClientIpResolver(resolver);
+        return resolver;
+    }
+}
@@ -2,8 +2,13 @@ package com.ince.springboottemplate.config;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.DynamicTableNameInnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.ince.springboottemplate.id.SnowflakeIdGenerator;
+import com.ince.springboottemplate.shard.UserShardRouter;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,13 +17,31 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
     /**
-     * 添加分页插件
+     * 添加动态表名、乐观锁和分页插件
+     * 动态表名插件按 UserShardRouter 把 users 替换为分片后的物理表；
+     * 乐观锁插件让 updateById 等方法对带 @Version 字段的实体自动校验并递增版本号
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(UserShardRouter userShardRouter) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        DynamicTableNameInnerInterceptor dynamicTableName = new DynamicTableNameInnerInterceptor();
+        dynamicTableName.setTableNameHandler((sql, tableName) -> userShardRouter.resolveTableName(tableName));
+        interceptor.addInnerInterceptor(dynamicTableName);
+        interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL)); // 如果配置多个插件, 切记分页最后添加
         // 如果有多数据源可以不配具体类型, 否则都建议配上具体的 DbType
         return interceptor;
     }
-}
\ No newline at end of file
+
+    /**
+     * 主键生成器，替换 MyBatis-Plus 默认按主机名和 MAC 推导 worker id 的实现；
+     * IdType.ASSIGN_ID 的字段都由它生成，worker id 由 WorkerIdLease 启动时从 Redis 租用；
+     * 虚拟线程模式下每个请求都是新线程，按线程预留的序列号用不完就被丢弃，因此不预留，每个ID单独 CAS 分配
+     */
+    @Bean
+    public SnowflakeIdGenerator identifierGenerator(@Value("${app.id.block-size:16}") int blockSize,
+                                                    @Value("${app.id.max-backward-millis:1000}") long maxBackwardMillis,
+                                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return new SnowflakeIdGenerator(virtualThreads ? 1 : blockSize, maxBackwardMillis, System::currentTimeMillis);
+    }
+}
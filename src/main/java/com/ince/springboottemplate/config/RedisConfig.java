@@ -2,10 +2,12 @@ package com.ince.springboottemplate.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.ince.springboottemplate.security.LoginPrincipalRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -47,14 +49,31 @@ public class RedisConfig {
      * 配置后，Spring Session 会将 Session 数据序列化为 JSON 格式存储到 Redis 中，
      * 并在需要时反序列化为 Session 对象。
      * 这样可以更方便地管理和操作 Session 数据，同时也可以与其他 Spring 应用程序共享 Session 数据。
+     * 登录主体使用定长二进制编码，避免每次请求都做通用 JSON 序列化。
      * 注意：在使用 Spring Session 时，需要在 pom.xml 中添加 spring-session-data-redis 依赖。
      *
      * @return RedisSerializer 对象
      */
     @Bean
     public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
-        // 让 Spring Session 使用 JSON 方式存储  
-        return new GenericJackson2JsonRedisSerializer();
+        // 让 Spring Session 使用 JSON 方式存储，登录主体使用二进制编码
+        return new LoginPrincipalRedisSerializer(new GenericJackson2JsonRedisSerializer());
+    }
+
+    /**
+     * Redis 发布/订阅监听容器
+     * 复用同一个连接工厂，用于跨节点的缓存失效通知。
+     * 连接断开后容器会按恢复间隔自动重新订阅。
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @return RedisMessageListenerContainer 对象
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setRecoveryInterval(5000L);
+        return container;
     }
 
 }
@@ -1,21 +1,35 @@
 package com.ince.springboottemplate.config;
 
 import com.ince.springboottemplate.constant.Constant;
+import com.ince.springboottemplate.session.DeltaRedisSessionRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
 import org.springframework.session.web.http.CookieSerializer;
 import org.springframework.session.web.http.DefaultCookieSerializer;
 
+import java.time.Duration;
+
 
 @Configuration
-@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 1800, redisNamespace = "spring:session") // 30分钟过期
+@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 1800, redisNamespace = SessionConfig.REDIS_NAMESPACE) // 30分钟过期
 public class SessionConfig {
-    
+
+    static final String REDIS_NAMESPACE = "spring:session";
+
     @Value("${spring.session.timeout}")
     private int sessionTimeout;
 
+    @Value("${app.session.persistence.touch-granularity-seconds:60}")
+    private long touchGranularitySeconds;
+
     @Bean
     public CookieSerializer cookieSerializer() {
         DefaultCookieSerializer serializer = new DefaultCookieSerializer();
@@ -28,4 +42,25 @@ public class SessionConfig {
         serializer.setUseSecureCookie(false); // 本地开发时设为false，生产环境应该设为true
         return serializer;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 增量写入的会话仓库（app.session.persistence.mode=delta，默认）
+     * 覆盖 @EnableRedisHttpSession 注册的仓库，只写入变化的属性并对访问时间节流；
+     * 设置为 full 时使用 Spring Session 自带的仓库。
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.session.persistence.mode", havingValue = "delta", matchIfMissing = true)
+    public DeltaRedisSessionRepository deltaRedisSessionRepository(RedisConnectionFactory redisConnectionFactory,
+            @Qualifier("springSessionDefaultRedisSerializer") RedisSerializer<Object> springSessionDefaultRedisSerializer) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(springSessionDefaultRedisSerializer);
+        template.setHashValueSerializer(springSessionDefaultRedisSerializer);
+        template.afterPropertiesSet();
+        return new DeltaRedisSessionRepository(template, REDIS_NAMESPACE, Duration.ofSeconds(sessionTimeout),
+                Duration.ofSeconds(touchGranularitySeconds));
+    }
+}
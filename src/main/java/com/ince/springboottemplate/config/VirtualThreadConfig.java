@@ -0,0 +1,40 @@
+package com.ince.springboottemplate.config;
+
+import com.ince.springboottemplate.datasource.ConcurrencyLimitSettings;
+import com.ince.springboottemplate.datasource.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 虚拟线程模式相关配置
+ * 由 spring.threads.virtual.enabled 切换：开启后 Tomcat 请求、@Async 和项目内的后台线程都使用虚拟线程。
+ * 同时在数据源前加并发限制，避免大量虚拟线程堆积在连接池的等待队列中。
+ */
+@Configuration
+@Slf4j
+public class VirtualThreadConfig {
+
+    /**
+     * 为数据源加上并发限制，配置见 {@link ConcurrencyLimitSettings}
+     * 读写分离数据源由 {@link com.ince.springboottemplate.datasource.ReplicaRoutingPostProcessor} 为主库和各副本分别限制，这里跳过。
+     * 使用静态方法，避免配置类被提前实例化。
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        ConcurrencyLimitSettings settings = ConcurrencyLimitSettings.from(environment);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                return settings.limit(dataSource, beanName);
+            }
+        };
+    }
+}
@@ -3,4 +3,8 @@ package com.ince.springboottemplate.constant;
 public interface UserConstant {
     String USER_LOGIN_STATE = "userLoginState";
     String LOGIN_USER = "login_user";
+    String PRIMARY_STICKY_UNTIL = "primary_sticky_until";
+    String USER_CACHE_KEY_PREFIX = "user:cache:";
+    String USER_BLOOM_KEY_PREFIX = "user:bloom:";
+    String USER_IMPORT_CHECKPOINT_PREFIX = "user:import:checkpoint:";
 }
@@ -0,0 +1,243 @@
+package com.ince.springboottemplate.controller;
+
+import com.ince.springboottemplate.annotation.AuthCheck;
+import com.ince.springboottemplate.aop.AuthInterceptor;
+import com.ince.springboottemplate.aop.ReadReplicaInterceptor;
+import com.ince.springboottemplate.aop.RateLimitInterceptor;
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.common.BaseResponse;
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.datasource.ConcurrencyLimitedDataSource;
+import com.ince.springboottemplate.datasource.ReplicaRoutingDataSource;
+import com.ince.springboottemplate.event.LastLoginWriteBehindBuffer;
+import com.ince.springboottemplate.event.LoginEventPipeline;
+import com.ince.springboottemplate.model.vo.AuthCheckStatsVO;
+import com.ince.springboottemplate.model.vo.DataSourceRoutingStatsVO;
+import com.ince.springboottemplate.model.vo.LoginPipelineStatsVO;
+import com.ince.springboottemplate.model.vo.RateLimitStatsVO;
+import com.ince.springboottemplate.model.vo.RedisRoundTripStatsVO;
+import com.ince.springboottemplate.model.vo.UserBloomFilterStatsVO;
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.VirtualThreadStatsVO;
+import com.ince.springboottemplate.monitor.RedisRoundTrips;
+import com.ince.springboottemplate.monitor.VirtualThreadPinningMonitor;
+import com.ince.springboottemplate.services.IpLocationService;
+import com.ince.springboottemplate.services.UserBloomFilterService;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.utils.ResultUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 运行状态监控接口，仅管理员可访问
+ */
+@RestController
+@RequestMapping("/monitor")
+@Tag(name = "运行监控", description = "缓存等组件的运行统计，仅管理员可访问")
+public class MonitorController {
+
+    @Resource
+    private UserCacheService userCacheService;
+
+    @Resource
+    private IpLocationService ipLocationService;
+
+    @Resource
+    private LoginEventPipeline loginEventPipeline;
+
+    @Resource
+    private LastLoginWriteBehindBuffer lastLoginWriteBehindBuffer;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Resource
+    private AuthInterceptor authInterceptor;
+
+    @Resource
+    private UserBloomFilterService userBloomFilterService;
+
+    @Resource
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Resource
+    private ReadReplicaInterceptor readReplicaInterceptor;
+
+    @Autowired(required = false)
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+    @Value("${app.session.persistence.mode:delta}")
+    private String sessionPersistenceMode;
+
+    @GetMapping("/cache/user")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "用户缓存统计", description = "获取用户两级缓存的命中、未命中和淘汰统计")
+    public BaseResponse<UserCacheStatsVO> getUserCacheStats() {
+        return ResultUtils.success(userCacheService.getStats());
+    }
+
+    @GetMapping("/ip-location/cache")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "IP 归属地缓存统计", description = "获取 IP 归属地查询结果缓存的命中统计")
+    public BaseResponse<LocalCache.CacheStats> getIpLocationCacheStats() {
+        return ResultUtils.success(ipLocationService.getCacheStats());
+    }
+
+    @PostMapping("/ip-location/reload")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "重新加载 IP 库", description = "立即重新映射 ip2region.xdb 并清空查询缓存")
+    public BaseResponse<Boolean> reloadIpLocation() {
+        return ResultUtils.success(ipLocationService.reload());
+    }
+
+    @GetMapping("/login-pipeline")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "登录管道统计", description = "获取登录事件队列和最后登录信息批量写入的统计")
+    public BaseResponse<LoginPipelineStatsVO> getLoginPipelineStats() {
+        LoginPipelineStatsVO stats = new LoginPipelineStatsVO();
+        stats.setEventsSubmitted(loginEventPipeline.getSubmitted());
+        stats.setEventsProcessed(loginEventPipeline.getProcessed());
+        stats.setEventsDropped(loginEventPipeline.getDropped());
+        stats.setEventsFailed(loginEventPipeline.getFailed());
+        stats.setQueueSize(loginEventPipeline.getQueueSize());
+        stats.setPendingWrites(lastLoginWriteBehindBuffer.getPendingSize());
+        stats.setWritesRecorded(lastLoginWriteBehindBuffer.getRecorded());
+        stats.setWritesCoalesced(lastLoginWriteBehindBuffer.getCoalesced());
+        stats.setWritesDropped(lastLoginWriteBehindBuffer.getDropped());
+        stats.setRowsFlushed(lastLoginWriteBehindBuffer.getFlushedRows());
+        stats.setFlushCount(lastLoginWriteBehindBuffer.getFlushCount());
+        stats.setFlushFailures(lastLoginWriteBehindBuffer.getFlushFailures());
+        stats.setLastBatchSize(lastLoginWriteBehindBuffer.getLastBatchSize());
+        stats.setMaxBatchSize(lastLoginWriteBehindBuffer.getMaxBatchSize());
+        stats.setLastFlushMillis(lastLoginWriteBehindBuffer.getLastFlushMillis());
+        stats.setMaxFlushMillis(lastLoginWriteBehindBuffer.getMaxFlushMillis());
+        stats.setAverageFlushMillis(lastLoginWriteBehindBuffer.getAverageFlushMillis());
+        return ResultUtils.success(stats);
+    }
+
+    @GetMapping("/redis/round-trips")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "Redis 往返统计", description = "获取每个 HTTP 请求访问 Redis 的往返次数统计")
+    public BaseResponse<RedisRoundTripStatsVO> getRedisRoundTripStats() {
+        RedisRoundTripStatsVO stats = new RedisRoundTripStatsVO();
+        long requests = RedisRoundTrips.getRequests();
+        long roundTrips = RedisRoundTrips.getRequestRoundTrips();
+        stats.setSessionPersistenceMode(sessionPersistenceMode);
+        stats.setRequests(requests);
+        stats.setRequestRoundTrips(roundTrips);
+        stats.setRoundTripsPerRequest(requests == 0 ? 0D : (double) roundTrips / requests);
+        stats.setMaxPerRequest(RedisRoundTrips.getMaxPerRequest());
+        stats.setBackgroundRoundTrips(RedisRoundTrips.getBackgroundRoundTrips());
+        return ResultUtils.success(stats);
+    }
+
+    @PostMapping("/redis/round-trips/reset")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "重置 Redis 往返统计", description = "清零 Redis 往返统计，便于切换配置前后对比")
+    public BaseResponse<Boolean> resetRedisRoundTripStats() {
+        RedisRoundTrips.reset();
+        return ResultUtils.success(true);
+    }
+
+    @GetMapping("/virtual-threads")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "虚拟线程统计", description = "获取虚拟线程载体固定诊断和数据源并发限制的排队情况")
+    public BaseResponse<VirtualThreadStatsVO> getVirtualThreadStats() {
+        VirtualThreadStatsVO stats = new VirtualThreadStatsVO();
+        stats.setVirtualThreads(appThreadFactory.isVirtualThreads());
+        if (virtualThreadPinningMonitor != null) {
+            stats.setPinnedByComponent(virtualThreadPinningMonitor.getPinnedByComponent());
+            stats.setPinnedBySite(virtualThreadPinningMonitor.getPinnedBySite());
+            stats.setPinnedMillis(virtualThreadPinningMonitor.getPinnedMillis());
+        } else {
+            stats.setPinnedByComponent(Map.of());
+            stats.setPinnedBySite(Map.of());
+        }
+        // 读写分离时每个连接池单独限制，这里报告主库的排队情况
+        DataSource limited = dataSource instanceof ReplicaRoutingDataSource routing ? routing.getPrimary() : dataSource;
+        if (limited instanceof ConcurrencyLimitedDataSource limitedDataSource) {
+            stats.setDataSourceLimited(true);
+            stats.setDataSourceAvailablePermits(limitedDataSource.getAvailablePermits());
+            stats.setDataSourceQueueLength(limitedDataSource.getQueueLength());
+        }
+        return ResultUtils.success(stats);
+    }
+
+    @GetMapping("/auth")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "权限校验统计", description = "获取 @AuthCheck 通过和各类拒绝的次数")
+    public BaseResponse<AuthCheckStatsVO> getAuthCheckStats() {
+        AuthCheckStatsVO stats = new AuthCheckStatsVO();
+        stats.setPassed(authInterceptor.getPassed());
+        stats.setNotLogin(authInterceptor.getNotLogin());
+        stats.setDeniedStatus(authInterceptor.getDeniedStatus());
+        stats.setDeniedRole(authInterceptor.getDeniedRole());
+        return ResultUtils.success(stats);
+    }
+
+    @GetMapping("/user-bloom-filter")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "用户布隆过滤器统计", description = "获取用户名/邮箱布隆过滤器的填充率、估算误判率和拦截次数")
+    public BaseResponse<UserBloomFilterStatsVO> getUserBloomFilterStats() {
+        return ResultUtils.success(userBloomFilterService.getStats());
+    }
+
+    @PostMapping("/user-bloom-filter/rebuild")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "重建用户布隆过滤器", description = "流式扫描用户表重建过滤器，开启 Redis 镜像时同时覆盖 Redis 位图")
+    public BaseResponse<Boolean> rebuildUserBloomFilter() {
+        return ResultUtils.success(userBloomFilterService.rebuild());
+    }
+
+    @GetMapping("/rate-limit")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "限流统计", description = "获取 @RateLimit 本地令牌桶和 Redis 滑动窗口的放行、拒绝次数")
+    public BaseResponse<RateLimitStatsVO> getRateLimitStats() {
+        RateLimitStatsVO stats = new RateLimitStatsVO();
+        stats.setPassed(rateLimitInterceptor.getPassed());
+        stats.setRejectedLocal(rateLimitInterceptor.getRejectedLocal());
+        stats.setRejectedRedis(rateLimitInterceptor.getRejectedRedis());
+        stats.setRedisErrors(rateLimitInterceptor.getRedisErrors());
+        stats.setTrackedKeys(rateLimitInterceptor.getTrackedKeys());
+        return ResultUtils.success(stats);
+    }
+
+    @GetMapping("/datasource-routing")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "读写分离统计", description = "获取主库和各副本提供的连接数、副本健康状态和回退次数")
+    public BaseResponse<DataSourceRoutingStatsVO> getDataSourceRoutingStats() throws SQLException {
+        DataSourceRoutingStatsVO stats = new DataSourceRoutingStatsVO();
+        stats.setReplicaReads(readReplicaInterceptor.getReplicaReads());
+        stats.setStickyReads(readReplicaInterceptor.getStickyReads());
+        // 开启并发限制时读写分离数据源被包在里面
+        if (dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+            ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+            stats.setEnabled(true);
+            stats.setPrimaryConnections(routing.getPrimaryConnections());
+            stats.setReplicaConnections(routing.getReplicaConnections());
+            stats.setFallbacks(routing.getFallbacks());
+            stats.setReplicaHealth(routing.getReplicaHealth());
+            stats.setReplicaServed(routing.getReplicaServed());
+            stats.setReplicaFailures(routing.getReplicaFailures());
+        } else {
+            stats.setReplicaHealth(Map.of());
+            stats.setReplicaServed(Map.of());
+            stats.setReplicaFailures(Map.of());
+        }
+        return ResultUtils.success(stats);
+    }
+}
@@ -1,16 +1,26 @@
 package com.ince.springboottemplate.controller;
 
+import com.ince.springboottemplate.annotation.AuthCheck;
+import com.ince.springboottemplate.annotation.RateLimit;
 import com.ince.springboottemplate.common.BaseResponse;
 import com.ince.springboottemplate.constant.Constant;
 import com.ince.springboottemplate.constant.UserConstant;
 import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.enums.ExportFormat;
 import com.ince.springboottemplate.exception.BusinessException;
 import com.ince.springboottemplate.model.dto.UserLoginRequest;
+import com.ince.springboottemplate.model.dto.UserQueryRequest;
 import com.ince.springboottemplate.model.dto.UserRegisterRequest;
 import com.ince.springboottemplate.model.dto.UserUpdatePasswordRequest;
 import com.ince.springboottemplate.model.dto.UserUpdateRequest;
 import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.CursorPageVO;
+import com.ince.springboottemplate.model.vo.UserImportResultVO;
 import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.ratelimit.RateLimitKeyType;
+import com.ince.springboottemplate.security.LoginPrincipal;
+import com.ince.springboottemplate.services.UserExportService;
+import com.ince.springboottemplate.services.UserImportService;
 import com.ince.springboottemplate.services.UserService;
 import com.ince.springboottemplate.utils.ResultUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,8 +34,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
-import org.springframework.beans.BeanUtils;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author inceChen
@@ -39,12 +53,20 @@ public class UserController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private UserExportService userExportService;
+
+    @Resource
+    private UserImportService userImportService;
+
     @PostMapping("/register")
+    @RateLimit(name = "register:ip", permits = 10, windowSeconds = 3600)
     @Operation(summary = "用户注册", description = "用户注册接口，需要提供用户名、密码、邮箱等信息")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "注册成功"),
             @ApiResponse(responseCode = "400", description = "请求参数错误"),
-            @ApiResponse(responseCode = "409", description = "用户名或邮箱已存在")
+            @ApiResponse(responseCode = "409", description = "用户名或邮箱已存在"),
+            @ApiResponse(responseCode = "429", description = "请求过于频繁")
     })
     public BaseResponse<User> userRegister(
             @Parameter(description = "用户注册请求对象", required = true)
@@ -54,11 +76,15 @@ public class UserController {
     }
 
     @PostMapping("/login")
+    @RateLimit(name = "login:ip", permits = 30, windowSeconds = 60)
+    @RateLimit(name = "login:username", type = RateLimitKeyType.PARAMETER, key = "#userLoginRequest.username",
+            permits = 10, windowSeconds = 300, message = "登录尝试过于频繁，请稍后再试")
     @Operation(summary = "用户登录", description = "用户登录接口，登录成功后会创建会话")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "登录成功"),
             @ApiResponse(responseCode = "400", description = "用户名或密码错误"),
-            @ApiResponse(responseCode = "403", description = "账户被禁用")
+            @ApiResponse(responseCode = "403", description = "账户被禁用"),
+            @ApiResponse(responseCode = "429", description = "请求过于频繁")
     })
     public BaseResponse<User> userLogin(
             @Parameter(description = "用户登录请求对象", required = true)
@@ -111,18 +137,14 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "用户不存在")
     })
     public BaseResponse<UserVO> getCurrentUser(HttpServletRequest request) {
-        // 从Session中获取登录用户的基本信息（主要是获取用户ID）
-        User sessionUser = userService.getLoginUser(request);
+        // 从Session中获取登录主体（主要是获取用户ID）
+        LoginPrincipal principal = userService.getLoginUser(request);
 
-        // 根据用户ID从数据库查询最新的用户信息
-        User currentUser = userService.getById(sessionUser.getId());
-        if (currentUser == null) {
+        // 根据用户ID查询资料投影（优先读取缓存），只包含 UserVO 需要的列
+        UserVO userVO = userService.getUserProfile(principal.id());
+        if (userVO == null) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "用户不存在");
         }
-
-        // 转换为VO对象（脱敏）
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(currentUser, userVO);
         return ResultUtils.success(userVO);
     }
 
@@ -155,4 +177,65 @@ public class UserController {
         User user = userService.updateUserInfo(updateRequest, request);
         return ResultUtils.success(user);
     }
+
+    @GetMapping("/admin/list")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "用户列表", description = "管理员按状态、角色、用户名前缀查询用户，按ID倒序游标翻页，可选返回近似总数")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "查询成功"),
+            @ApiResponse(responseCode = "400", description = "筛选条件或游标无效"),
+            @ApiResponse(responseCode = "401", description = "未登录"),
+            @ApiResponse(responseCode = "403", description = "无权限")
+    })
+    public BaseResponse<CursorPageVO<UserVO>> listUsers(@ParameterObject UserQueryRequest queryRequest) {
+        return ResultUtils.success(userService.listUsers(queryRequest));
+    }
+
+    @GetMapping("/admin/export")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "导出用户", description = "管理员按ID顺序流式导出用户，邮箱和手机号脱敏，支持 ndjson 和 csv，同时只允许一个导出任务")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "开始导出"),
+            @ApiResponse(responseCode = "400", description = "导出格式无效"),
+            @ApiResponse(responseCode = "401", description = "未登录"),
+            @ApiResponse(responseCode = "403", description = "无权限")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "导出格式：ndjson 或 csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "按账户状态筛选") @RequestParam(required = false) Integer status) {
+        ExportFormat exportFormat = ExportFormat.fromName(format)
+                .orElseThrow(() -> new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的导出格式"));
+        StreamingResponseBody body = userExportService.exportUsers(exportFormat, status);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    @PostMapping("/admin/import")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "批量导入用户", description = "管理员上传 CSV 或 NDJSON 文件后台导入用户，校验规则与注册一致；"
+            + "导入中断后使用同一导入ID重新上传同一文件即可从断点继续")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "已开始导入"),
+            @ApiResponse(responseCode = "400", description = "文件或参数无效"),
+            @ApiResponse(responseCode = "401", description = "未登录"),
+            @ApiResponse(responseCode = "403", description = "无权限")
+    })
+    public BaseResponse<UserImportResultVO> importUsers(
+            @Parameter(description = "导入文件", required = true) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "文件格式：csv 或 ndjson") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "导入ID，续传时传入上次返回的ID") @RequestParam(required = false) String importId) {
+        ExportFormat importFormat = ExportFormat.fromName(format)
+                .orElseThrow(() -> new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的导入格式"));
+        return ResultUtils.success(userImportService.submitImport(file, importFormat, importId));
+    }
+
+    @GetMapping("/admin/import/{importId}")
+    @AuthCheck(roles = {"admin", "system_admin"})
+    @Operation(summary = "查询导入进度", description = "查询导入任务的进度和逐行错误报告，任务保留一天")
+    public BaseResponse<UserImportResultVO> getImport(
+            @Parameter(description = "导入ID", required = true) @PathVariable String importId) {
+        return ResultUtils.success(userImportService.getImport(importId));
+    }
 }
@@ -0,0 +1,47 @@
+package com.ince.springboottemplate.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据源并发限制配置（app.datasource.limiter.*）
+ * 限制加在每个连接池上，而不是读写分离数据源之外：主库和每个副本各自一个信号量，
+ * 许可数默认取该连接池自己的 max-active，副本分担的读请求不占用主库的许可。
+ *
+ * @param enabled              是否启用，未配置时跟随虚拟线程开关
+ * @param maxConcurrency       每个连接池的许可数，0 表示与连接池的 max-active 一致
+ * @param acquireTimeoutMillis 等待许可的最长时间（毫秒）
+ */
+@Slf4j
+public record ConcurrencyLimitSettings(boolean enabled, int maxConcurrency, long acquireTimeoutMillis) {
+
+    /**
+     * 非 Druid 连接池且未配置许可数时使用的默认值
+     */
+    private static final int DEFAULT_MAX_CONCURRENCY = 20;
+
+    public static ConcurrencyLimitSettings from(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        return new ConcurrencyLimitSettings(
+                environment.getProperty("app.datasource.limiter.enabled", Boolean.class, virtualThreads),
+                environment.getProperty("app.datasource.limiter.max-concurrency", Integer.class, 0),
+                environment.getProperty("app.datasource.limiter.acquire-timeout-millis", Long.class, 3000L));
+    }
+
+    /**
+     * 为单个连接池加上并发限制，未启用或已限制时原样返回
+     */
+    public DataSource limit(DataSource pool, String name) {
+        if (!enabled || pool instanceof ConcurrencyLimitedDataSource) {
+            return pool;
+        }
+        int permits = maxConcurrency > 0 ? maxConcurrency
+                : pool instanceof DruidDataSource druid ? druid.getMaxActive() : DEFAULT_MAX_CONCURRENCY;
+        log.info("数据源并发限制已启用: pool={}, maxConcurrency={}, acquireTimeout={}ms",
+                name, permits, acquireTimeoutMillis);
+        return new ConcurrencyLimitedDataSource(pool, permits, acquireTimeoutMillis);
+    }
+}
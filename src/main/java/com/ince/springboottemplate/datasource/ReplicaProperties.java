@@ -0,0 +1,25 @@
+package com.ince.springboottemplate.datasource;
+
+import lombok.Data;
+
+/**
+ * 只读副本连接配置（app.datasource.routing.replicas[n]），连接池参数沿用主库的 Druid 配置
+ */
+@Data
+public class ReplicaProperties {
+
+    /**
+     * JDBC 连接串
+     */
+    private String url;
+
+    /**
+     * 用户名，为空时与主库一致
+     */
+    private String username;
+
+    /**
+     * 密码，为空时与主库一致
+     */
+    private String password;
+}
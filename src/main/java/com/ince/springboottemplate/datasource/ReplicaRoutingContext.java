@@ -0,0 +1,39 @@
+package com.ince.springboottemplate.datasource;
+
+/**
+ * 当前线程的读写路由标记
+ * 由 {@link com.ince.springboottemplate.aop.ReadReplicaInterceptor} 在 @ReadReplica 方法执行期间设置，
+ * {@link ReplicaRoutingDataSource} 获取连接时读取
+ */
+public class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_REPLICA = new ThreadLocal<>();
+
+    /**
+     * 当前线程的查询是否可以发往只读副本
+     */
+    public static boolean isReadReplica() {
+        return Boolean.TRUE.equals(READ_REPLICA.get());
+    }
+
+    /**
+     * 进入只读区域
+     * @return 进入前的标记，退出时传给 {@link #restore}
+     */
+    public static Boolean enterReadReplica() {
+        Boolean previous = READ_REPLICA.get();
+        READ_REPLICA.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * 恢复进入前的标记，支持嵌套调用
+     */
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            READ_REPLICA.remove();
+        } else {
+            READ_REPLICA.set(previous);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.ince.springboottemplate.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写分离数据源
+ * <ul>
+ *     <li>当前线程处于 @ReadReplica 方法中、且不在写事务中时，从健康的副本中轮询选择一个获取连接，否则使用主库</li>
+ *     <li>后台定期校验每个副本的连接，失败时标记为不健康，恢复后重新参与路由</li>
+ *     <li>从副本获取连接失败时立即标记为不健康并回退到主库，本次查询不失败</li>
+ * </ul>
+ * 只负责选择连接，副本的复制延迟由会话粘滞（@ReadYourWrites）处理。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final int validationTimeoutSeconds;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final ScheduledExecutorService healthChecker;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * @param primary                   主库
+     * @param replicas                  副本名称 -> 副本数据源
+     * @param healthCheckIntervalMillis 健康检查间隔（毫秒），0 表示不做后台检查
+     * @param validationTimeoutSeconds  单次连接校验超时（秒）
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    long healthCheckIntervalMillis, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        if (healthCheckIntervalMillis > 0 && !this.replicas.isEmpty()) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("replica-health-check").daemon(true).factory());
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            healthChecker = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (ReplicaRoutingContext.isReadReplica() && !inWriteTransaction()) {
+            Replica replica = nextHealthy();
+            if (replica != null) {
+                try {
+                    Connection connection = source.get(replica.dataSource);
+                    replica.served.increment();
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException | RuntimeException e) {
+                    replica.markDown(e);
+                    log.warn("从副本获取连接失败，回退到主库: replica={}, error={}", replica.name, e.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        primaryConnections.increment();
+        return source.get(primary);
+    }
+
+    /**
+     * 写事务中的查询必须与写入使用同一个主库连接
+     */
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 校验所有副本，可在测试中直接调用
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("连接校验失败"));
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    /**
+     * 只关闭副本连接池，主库由其自身的 Bean 生命周期关闭
+     */
+    @Override
+    public void close() throws Exception {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * 主库数据源（启用并发限制时为限制后的数据源）
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * 副本名称 -> 是否健康
+     */
+    public Map<String, Boolean> getReplicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.name, replica.healthy));
+        return health;
+    }
+
+    /**
+     * 副本名称 -> 提供的连接数
+     */
+    public Map<String, Long> getReplicaServed() {
+        Map<String, Long> served = new LinkedHashMap<>();
+        replicas.forEach(replica -> served.put(replica.name, replica.served.sum()));
+        return served;
+    }
+
+    /**
+     * 副本名称 -> 被标记为不健康的次数
+     */
+    public Map<String, Long> getReplicaFailures() {
+        Map<String, Long> failures = new LinkedHashMap<>();
+        replicas.forEach(replica -> failures.put(replica.name, replica.failures.sum()));
+        return failures;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder served = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(Exception cause) {
+            if (healthy) {
+                healthy = false;
+                failures.increment();
+                log.warn("副本已标记为不健康: replica={}, error={}", name, cause.getMessage());
+            }
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("副本已恢复: replica={}", name);
+            }
+        }
+    }
+}
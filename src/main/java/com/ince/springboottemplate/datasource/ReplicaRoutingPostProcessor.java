@@ -0,0 +1,90 @@
+package com.ince.springboottemplate.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把主库数据源包装为读写分离数据源
+ * 副本连接池从主库的 Druid 配置复制，只替换连接串和账号；获取连接等待时间缩短并开启 failFast，
+ * 副本宕机时快速回退到主库。
+ * 启用数据源并发限制时，主库和每个副本各自包一层限制，许可数取各自的 max-active；
+ * 数据源并发限制的后置处理器会跳过读写分离数据源，不在外层再加一个共用的限制。
+ */
+@Slf4j
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+    private final List<ReplicaProperties> replicas;
+
+    private final long healthCheckIntervalMillis;
+
+    private final int validationTimeoutSeconds;
+
+    private final long replicaMaxWaitMillis;
+
+    private final ConcurrencyLimitSettings limitSettings;
+
+    private final List<ReplicaRoutingDataSource> created = new ArrayList<>();
+
+    public ReplicaRoutingPostProcessor(List<ReplicaProperties> replicas, long healthCheckIntervalMillis,
+                                       int validationTimeoutSeconds, long replicaMaxWaitMillis,
+                                       ConcurrencyLimitSettings limitSettings) {
+        this.replicas = replicas;
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.replicaMaxWaitMillis = replicaMaxWaitMillis;
+        this.limitSettings = limitSettings;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ReplicaRoutingDataSource) {
+            return bean;
+        }
+        if (!(bean instanceof DruidDataSource primary)) {
+            log.warn("读写分离只支持 Druid 数据源，已跳过: bean={}, type={}", beanName, bean.getClass().getName());
+            return bean;
+        }
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaProperties properties = replicas.get(i);
+            DruidDataSource replica = primary.cloneDruidDataSource();
+            replica.setName("replica-" + i);
+            replica.setUrl(properties.getUrl());
+            if (properties.getUsername() != null) {
+                replica.setUsername(properties.getUsername());
+            }
+            if (properties.getPassword() != null) {
+                replica.setPassword(properties.getPassword());
+            }
+            replica.setMaxWait(replicaMaxWaitMillis);
+            replica.setFailFast(true);
+            pools.put(replica.getName(), limitSettings.limit(replica, replica.getName()));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(limitSettings.limit(primary, beanName), pools,
+                healthCheckIntervalMillis, validationTimeoutSeconds);
+        created.add(routing);
+        log.info("读写分离已启用: bean={}, replicas={}", beanName, pools.keySet());
+        return routing;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (ReplicaRoutingDataSource routing : created) {
+            routing.close();
+        }
+    }
+}
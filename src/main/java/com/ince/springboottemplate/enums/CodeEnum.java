@@ -0,0 +1,18 @@
+package com.ince.springboottemplate.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * 带整型编码的枚举
+ * 实现该接口的枚举可以通过 {@link EnumRegistry} 按编码查找，
+ * 持久化时由 {@link com.ince.springboottemplate.handler.CodeEnumTypeHandler} 读写编码列，
+ * JSON 序列化时输出编码，与改为枚举之前的接口格式一致。
+ */
+public interface CodeEnum {
+
+    /**
+     * 编码
+     */
+    @JsonValue
+    int getCode();
+}
@@ -0,0 +1,155 @@
+package com.ince.springboottemplate.enums;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 枚举编码注册表
+ * 在首次使用时为枚举建立查找表，之后的查找不再遍历 values()：
+ * <ul>
+ *     <li>编码连续（跨度不超过 1024）时使用数组按下标查找，否则使用哈希表</li>
+ *     <li>描述等字符串键预先转为小写建立哈希表，查找时忽略大小写</li>
+ * </ul>
+ *
+ * @param <E> 枚举类型
+ */
+public final class EnumRegistry<E extends Enum<E> & CodeEnum> {
+
+    private static final int MAX_DENSE_SPAN = 1024;
+
+    private static final Map<Class<?>, EnumRegistry<?>> REGISTRIES = new ConcurrentHashMap<>();
+
+    private final Class<E> type;
+
+    private final E[] dense;
+
+    private final int minCode;
+
+    private final Map<Integer, E> sparse;
+
+    private EnumRegistry(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (E constant : constants) {
+            min = Math.min(min, constant.getCode());
+            max = Math.max(max, constant.getCode());
+        }
+        this.minCode = constants.length == 0 ? 0 : min;
+        if (constants.length > 0 && (long) max - min < MAX_DENSE_SPAN) {
+            this.dense = Arrays.copyOf(constants, max - min + 1);
+            Arrays.fill(dense, null);
+            for (E constant : constants) {
+                int index = constant.getCode() - min;
+                if (dense[index] != null) {
+                    throw duplicate(dense[index], constant);
+                }
+                dense[index] = constant;
+            }
+            this.sparse = null;
+        } else {
+            this.dense = null;
+            Map<Integer, E> map = new HashMap<>();
+            for (E constant : constants) {
+                E previous = map.put(constant.getCode(), constant);
+                if (previous != null) {
+                    throw duplicate(previous, constant);
+                }
+            }
+            this.sparse = Map.copyOf(map);
+        }
+    }
+
+    /**
+     * 获取枚举的注册表，同一枚举只建立一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E> & CodeEnum> EnumRegistry<E> of(Class<E> type) {
+        EnumRegistry<?> registry = REGISTRIES.get(type);
+        if (registry != null) {
+            return (EnumRegistry<E>) registry;
+        }
+        // 先触发枚举类初始化：枚举的静态字段可能会调用 of，避免在 computeIfAbsent 中递归更新同一个键
+        type.getEnumConstants();
+        return (EnumRegistry<E>) REGISTRIES.computeIfAbsent(type, key -> new EnumRegistry<>(type));
+    }
+
+    /**
+     * 按编码查找
+     */
+    public Optional<E> fromCode(int code) {
+        return Optional.ofNullable(get(code));
+    }
+
+    /**
+     * 按编码查找，不存在时返回 null，用于不希望产生额外对象的热点路径
+     */
+    public E get(int code) {
+        if (dense != null) {
+            int index = code - minCode;
+            return index >= 0 && index < dense.length ? dense[index] : null;
+        }
+        return sparse.get(code);
+    }
+
+    /**
+     * 按编码查找，不存在时抛出 IllegalArgumentException
+     */
+    public E require(int code) {
+        E constant = get(code);
+        if (constant == null) {
+            throw new IllegalArgumentException("未知的 " + type.getSimpleName() + " 编码: " + code);
+        }
+        return constant;
+    }
+
+    /**
+     * 按字符串键建立忽略大小写的查找表
+     * @param keyExtractor 从枚举取出键，如英文描述
+     */
+    public Lookup<E> index(Function<E, String> keyExtractor) {
+        Map<String, E> map = new HashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            String key = keyExtractor.apply(constant);
+            if (key != null) {
+                map.putIfAbsent(key.toLowerCase(Locale.ROOT), constant);
+            }
+        }
+        return new Lookup<>(Map.copyOf(map));
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    private IllegalStateException duplicate(E first, E second) {
+        return new IllegalStateException(type.getSimpleName() + " 编码重复: " + first + ", " + second);
+    }
+
+    /**
+     * 忽略大小写的字符串键查找表
+     *
+     * @param <E> 枚举类型
+     */
+    public static final class Lookup<E> {
+
+        private final Map<String, E> byKey;
+
+        private Lookup(Map<String, E> byKey) {
+            this.byKey = byKey;
+        }
+
+        public Optional<E> find(String key) {
+            if (key == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(byKey.get(key.toLowerCase(Locale.ROOT)));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ince.springboottemplate.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 数据导入导出格式
+ */
+@Getter
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV("text/csv", "csv");
+
+    /**
+     * 响应的 Content-Type（不含字符集）
+     */
+    private final String contentType;
+
+    /**
+     * 文件扩展名
+     */
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * 根据名称获取导出格式（忽略大小写）
+     */
+    public static Optional<ExportFormat> fromName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
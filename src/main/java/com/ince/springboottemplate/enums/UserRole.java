@@ -2,12 +2,14 @@ package com.ince.springboottemplate.enums;
 
 import lombok.Getter;
 
+import java.util.Optional;
+
 /**
  * 用户角色枚举
  * 定义了用户账户的各种角色，包括整型代码和对应的描述。
  */
 @Getter
-public enum UserRole {
+public enum UserRole implements CodeEnum {
 
     /**
      * 0: 系统管理员
@@ -34,6 +36,10 @@ public enum UserRole {
      */
     private final String role;
 
+    private static final EnumRegistry<UserRole> REGISTRY = EnumRegistry.of(UserRole.class);
+
+    private static final EnumRegistry.Lookup<UserRole> BY_ROLE = REGISTRY.index(UserRole::getRole);
+
     /**
      * 构造函数
      *
@@ -49,29 +55,19 @@ public enum UserRole {
      * 根据角色码获取对应的枚举
      *
      * @param code 角色码
-     * @return 对应的UserRole枚举，如果不存在则返回null
+     * @return 对应的UserRole枚举，不存在时为空
      */
-    public static UserRole fromCode(int code) {
-        for (UserRole userRole : UserRole.values()) {
-            if (userRole.getCode() == code) {
-                return userRole;
-            }
-        }
-        return null; // 或者抛出IllegalArgumentException
+    public static Optional<UserRole> fromCode(int code) {
+        return REGISTRY.fromCode(code);
     }
 
     /**
-     * 根据英文描述获取对应的枚举
+     * 根据英文描述获取对应的枚举（忽略大小写）
      *
      * @param roleName 角色名称
-     * @return 对应的UserRole枚举，如果不存在则返回null
+     * @return 对应的UserRole枚举，不存在时为空
      */
-    public static UserRole fromEnglishDescription(String roleName) {
-        for (UserRole role : UserRole.values()) {
-            if (role.getRole().equalsIgnoreCase(roleName)) {
-                return role;
-            }
-        }
-        return null; // 或者抛出IllegalArgumentException
+    public static Optional<UserRole> fromEnglishDescription(String roleName) {
+        return BY_ROLE.find(roleName);
     }
 }
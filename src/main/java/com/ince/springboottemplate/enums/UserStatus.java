@@ -1,10 +1,12 @@
 package com.ince.springboottemplate.enums;
 
+import java.util.Optional;
+
 /**
  * 用户状态枚举
  * 定义了用户账户的各种状态，包括整型代码和对应的描述。
  */
-public enum UserStatus {
+public enum UserStatus implements CodeEnum {
 
     /**
      * 0: 非活跃用户
@@ -41,6 +43,14 @@ public enum UserStatus {
      */
     private final String chineseDescription;
 
+    private static final EnumRegistry<UserStatus> REGISTRY = EnumRegistry.of(UserStatus.class);
+
+    private static final EnumRegistry.Lookup<UserStatus> BY_ENGLISH_DESCRIPTION =
+            REGISTRY.index(UserStatus::getEnglishDescription);
+
+    private static final EnumRegistry.Lookup<UserStatus> BY_CHINESE_DESCRIPTION =
+            REGISTRY.index(UserStatus::getChineseDescription);
+
     /**
      * 构造函数
      * @param code 状态码
@@ -57,6 +67,7 @@ public enum UserStatus {
      * 获取状态码
      * @return 状态码
      */
+    @Override
     public int getCode() {
         return code;
     }
@@ -80,42 +91,27 @@ public enum UserStatus {
     /**
      * 根据状态码获取对应的枚举
      * @param code 状态码
-     * @return 对应的UserStatus枚举，如果不存在则返回null
+     * @return 对应的UserStatus枚举，不存在时为空
      */
-    public static UserStatus fromCode(int code) {
-        for (UserStatus status : UserStatus.values()) {
-            if (status.getCode() == code) {
-                return status;
-            }
-        }
-        return null; // 或者抛出IllegalArgumentException
+    public static Optional<UserStatus> fromCode(int code) {
+        return REGISTRY.fromCode(code);
     }
 
     /**
-     * 根据英文描述获取对应的枚举
+     * 根据英文描述获取对应的枚举（忽略大小写）
      * @param description 英文状态描述
-     * @return 对应的UserStatus枚举，如果不存在则返回null
+     * @return 对应的UserStatus枚举，不存在时为空
      */
-    public static UserStatus fromEnglishDescription(String description) {
-        for (UserStatus status : UserStatus.values()) {
-            if (status.getEnglishDescription().equalsIgnoreCase(description)) {
-                return status;
-            }
-        }
-        return null; // 或者抛出IllegalArgumentException
+    public static Optional<UserStatus> fromEnglishDescription(String description) {
+        return BY_ENGLISH_DESCRIPTION.find(description);
     }
 
     /**
      * 根据中文描述获取对应的枚举
      * @param description 中文状态描述
-     * @return 对应的UserStatus枚举，如果不存在则返回null
+     * @return 对应的UserStatus枚举，不存在时为空
      */
-    public static UserStatus fromChineseDescription(String description) {
-        for (UserStatus status : UserStatus.values()) {
-            if (status.getChineseDescription().equalsIgnoreCase(description)) {
-                return status;
-            }
-        }
-        return null; // 或者抛出IllegalArgumentException
+    public static Optional<UserStatus> fromChineseDescription(String description) {
+        return BY_CHINESE_DESCRIPTION.find(description);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+package com.ince.springboottemplate.event;
+
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 最后登录信息写回缓冲
+ * 同一用户在刷新间隔内的多次登录只保留最新一次，定期以 JDBC 批量更新写入数据库，
+ * 应用关闭时会把剩余数据全部刷新。
+ * <p>
+ * 缓冲有界：待写入的用户数达到 max-pending 时立即触发刷新；
+ * 超过 max-pending 的两倍时丢弃新用户的记录（已在缓冲中的用户仍会被合并更新）。
+ */
+@Component
+@Slf4j
+public class LastLoginWriteBehindBuffer {
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Resource
+    private UserCacheService userCacheService;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
+    @Value("${app.login-pipeline.write-behind.flush-interval-millis:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${app.login-pipeline.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.login-pipeline.write-behind.max-pending:20000}")
+    private int maxPending;
+
+    private final Map<Long, LastLogin> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(appThreadFactory.newThreadFactory("last-login-flush"));
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        // 关闭前把剩余数据全部写入
+        flushQuietly();
+    }
+
+    /**
+     * 记录一次登录，同一用户只保留登录时间最新的一条
+     */
+    public void record(Long userId, Date loginTime, String ip, String ipLocation) {
+        LastLogin record = new LastLogin(userId, loginTime, ip, ipLocation);
+        int size = pending.size();
+        if (size >= maxPending * 2 && !pending.containsKey(userId)) {
+            dropped.increment();
+            log.warn("最后登录信息缓冲已满，丢弃记录: userId={}", userId);
+            return;
+        }
+        // merge 返回的是合并后的值而不是旧值，是否与已有记录合并要在合并函数中记录
+        boolean[] merged = new boolean[1];
+        pending.merge(userId, record, (oldValue, newValue) -> {
+            merged[0] = true;
+            return newValue.loginTime().before(oldValue.loginTime()) ? oldValue : newValue;
+        });
+        recorded.increment();
+        if (merged[0]) {
+            coalesced.increment();
+        }
+        if (size >= maxPending && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // 正在关闭，剩余数据由 destroy 统一刷新
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 把当前缓冲的数据分批写入数据库
+     */
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<LastLogin> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                requeue(batch);
+                throw e;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            flushCount.increment();
+            flushedRows.add(batch.size());
+            totalFlushNanos.add(elapsedNanos);
+            lastBatchSize.set(batch.size());
+            maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+            lastFlushMillis.set(elapsedMillis);
+            maxFlushMillis.accumulateAndGet(elapsedMillis, Math::max);
+
+            // 整批一次删除 Redis 缓存、发布一条失效消息
+            List<Long> userIds = new ArrayList<>(batch.size());
+            for (LastLogin record : batch) {
+                userIds.add(record.userId());
+            }
+            userCacheService.invalidate(userIds);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("刷新最后登录信息失败，将在下次刷新时重试", e);
+        }
+    }
+
+    private List<LastLogin> drain() {
+        List<LastLogin> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Long> iterator = pending.keySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            LastLogin record = pending.remove(iterator.next());
+            if (record != null) {
+                batch.add(record);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 按物理表分组写入，每组刷新一次语句：批处理执行器按改写前的 SQL 判断能否复用语句，
+     * 不同分片的行混在一起会被写到同一个表
+     */
+    private void writeBatch(List<LastLogin> batch) {
+        Map<String, List<LastLogin>> byTable = new LinkedHashMap<>();
+        for (LastLogin record : batch) {
+            byTable.computeIfAbsent(userShardRouter.getLayout().tableOf(record.userId()), table -> new ArrayList<>())
+                    .add(record);
+        }
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+            byTable.forEach((table, records) -> userShardRouter.onTable(table, () -> {
+                for (LastLogin record : records) {
+                    userMapper.updateLastLogin(record.userId(), record.loginTime(), record.ip(), record.ipLocation());
+                }
+                return sqlSession.flushStatements();
+            }));
+            sqlSession.commit();
+        }
+    }
+
+    /**
+     * 写入失败时放回缓冲，期间若已有更新的记录则以新记录为准
+     */
+    private void requeue(List<LastLogin> batch) {
+        for (LastLogin record : batch) {
+            pending.merge(record.userId(), record,
+                    (newer, failed) -> failed.loginTime().before(newer.loginTime()) ? newer : failed);
+        }
+    }
+
+    public int getPendingSize() {
+        return pending.size();
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFlushedRows() {
+        return flushedRows.sum();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getFlushFailures() {
+        return flushFailures.sum();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis.get();
+    }
+
+    public long getMaxFlushMillis() {
+        return maxFlushMillis.get();
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.sum();
+        return count == 0 ? 0D : totalFlushNanos.sum() / 1_000_000D / count;
+    }
+
+    private record LastLogin(Long userId, Date loginTime, String ip, String ipLocation) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.ince.springboottemplate.event;
+
+/**
+ * 登录成功事件
+ * 在请求线程中采集，只包含后续异步处理需要的数据，不持有请求对象
+ *
+ * @param userId      用户ID
+ * @param username    用户名
+ * @param displayName 用户昵称
+ * @param ip          客户端IP
+ * @param userAgent   User-Agent 请求头
+ * @param loginTime   登录时间（毫秒时间戳）
+ */
+public record LoginEvent(Long userId, String username, String displayName, String ip, String userAgent,
+                         long loginTime) {
+}
@@ -0,0 +1,164 @@
+package com.ince.springboottemplate.event;
+
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.utils.DeviceUtils;
+import com.ince.springboottemplate.utils.IpUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录副作用异步处理管道
+ * 登录接口在校验凭证、写入会话后立即返回，以下步骤由后台线程完成：
+ * IP 归属地解析、设备解析、最后登录信息更新、登录成功通知。
+ * <p>
+ * 队列有界：队列满时提交方最多等待 offer-timeout-millis，仍无空位则丢弃事件并计数，
+ * 保证登录接口不会因副作用处理变慢而被拖慢。
+ */
+@Component
+@Slf4j
+public class LoginEventPipeline {
+
+    @Resource
+    private LastLoginWriteBehindBuffer lastLoginWriteBehindBuffer;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Value("${app.login-pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.login-pipeline.workers:2}")
+    private int workers;
+
+    @Value("${app.login-pipeline.offer-timeout-millis:5}")
+    private long offerTimeoutMillis;
+
+    private BlockingQueue<LoginEvent> queue;
+
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        ThreadFactory threadFactory = appThreadFactory.newThreadFactory("login-event");
+        for (int i = 0; i < workers; i++) {
+            Thread thread = threadFactory.newThread(this::runWorker);
+            thread.start();
+            workerThreads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread thread : workerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("登录事件管道关闭时仍有 {} 个事件未处理", queue.size());
+        }
+    }
+
+    /**
+     * 提交登录事件，不会长时间阻塞调用方
+     * @param event 登录事件
+     * @return 是否提交成功
+     */
+    public boolean submit(LoginEvent event) {
+        try {
+            if (queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                submitted.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.warn("登录事件队列已满，丢弃事件: userId={}", event.userId());
+        return false;
+    }
+
+    private void runWorker() {
+        // 关闭时继续处理完队列中剩余的事件
+        while (running || !queue.isEmpty()) {
+            LoginEvent event;
+            try {
+                event = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event == null) {
+                continue;
+            }
+            try {
+                process(event);
+                processed.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.error("处理登录事件失败: userId={}", event.userId(), e);
+            }
+        }
+    }
+
+    private void process(LoginEvent event) {
+        // 1. IP 归属地和设备信息
+        String ipLocation = IpUtils.getIpLocation(event.ip());
+        String deviceInfo = DeviceUtils.getDeviceInfo(event.userAgent());
+
+        // 2. 更新最后登录信息：写入缓冲，由后台合并后批量落库
+        lastLoginWriteBehindBuffer.record(event.userId(), new Date(event.loginTime()), event.ip(), ipLocation);
+
+        // 3. 发送登录成功通知
+        sendLoginSuccessNotification(event, ipLocation, deviceInfo);
+    }
+
+    /**
+     * 登录成功通知：项目内没有通知通道，只记录调试日志，接入消息推送时在此发布
+     */
+    private void sendLoginSuccessNotification(LoginEvent event, String loginLocation, String deviceInfo) {
+        log.debug("登录成功通知: userId={}, username={}, location={}, device={}",
+                event.userId(), event.username(), loginLocation, deviceInfo);
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
@@ -5,6 +5,7 @@ import com.ince.springboottemplate.enums.ErrorCode;
 import com.ince.springboottemplate.utils.ResultUtils;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -19,6 +20,12 @@ public class GlobalExceptionHandler {
         return ResultUtils.error(e.getCode(), e.getMessage());
     }
 
+    @ExceptionHandler(DuplicateKeyException.class)
+    public BaseResponse<?> duplicateKeyExceptionHandler(DuplicateKeyException e) {
+        log.warn("DuplicateKeyException: {}", e.getMostSpecificCause().getMessage());
+        return ResultUtils.error(ErrorCode.PARAMS_ERROR, "数据已存在");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public BaseResponse<?> runtimeExceptionHandler(RuntimeException e) {
         log.error("RuntimeException", e);
@@ -0,0 +1,184 @@
+package com.ince.springboottemplate.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.utils.DesensitizeUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户导出写出器
+ * <ul>
+ *     <li>逐行从迭代器读取并写出，不缓存任何行，内存占用与导出行数无关</li>
+ *     <li>邮箱、手机号按 UserVO 约定的格式脱敏</li>
+ *     <li>每写满 flushRows 行刷新一次，形成分块响应；按 maxRowsPerSecond 限速，避免长时间占满数据库和带宽</li>
+ *     <li>CSV 字段以 = + - @ 开头时加单引号前缀，防止在表格软件中被当作公式执行</li>
+ * </ul>
+ */
+public class UserExportWriter {
+
+    private static final String[] CSV_HEADER = {"id", "username", "displayName", "email", "phone", "avatar",
+            "lastLoginIpLocation", "status", "role"};
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            // 每行结束时只把生成器缓冲写入 BufferedWriter，由 flushRows 控制真正的刷新
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    private final ExportFormat format;
+
+    private final long maxRowsPerSecond;
+
+    private final int flushRows;
+
+    /**
+     * @param format           导出格式
+     * @param maxRowsPerSecond 每秒最多写出的行数，0 表示不限速
+     * @param flushRows        每隔多少行刷新一次输出
+     */
+    public UserExportWriter(ExportFormat format, long maxRowsPerSecond, int flushRows) {
+        this.format = format;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    /**
+     * 写出全部行，不关闭输出流
+     * @return 写出的行数
+     */
+    public long write(Iterator<UserVO> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator generator = format == ExportFormat.NDJSON ? JSON_FACTORY.createGenerator(writer) : null;
+        if (format == ExportFormat.CSV) {
+            // BOM 让表格软件按 UTF-8 识别中文
+            writer.write('\uFEFF');
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        long start = System.nanoTime();
+        long count = 0;
+        while (rows.hasNext()) {
+            UserVO row = rows.next();
+            if (generator != null) {
+                writeJson(generator, row);
+                generator.flush();
+                writer.write('\n');
+            } else {
+                writeCsv(writer, row);
+            }
+            if (++count % flushRows == 0) {
+                writer.flush();
+                pace(start, count);
+            }
+        }
+        if (generator != null) {
+            generator.close();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeJson(JsonGenerator generator, UserVO row) throws IOException {
+        generator.writeStartObject();
+        writeNumberField(generator, "id", row.getId());
+        generator.writeStringField("username", row.getUsername());
+        generator.writeStringField("displayName", row.getDisplayName());
+        generator.writeStringField("email", DesensitizeUtils.maskEmail(row.getEmail()));
+        generator.writeStringField("phone", DesensitizeUtils.maskPhone(row.getPhone()));
+        generator.writeStringField("avatar", row.getAvatar());
+        generator.writeStringField("lastLoginIpLocation", row.getLastLoginIpLocation());
+        writeNumberField(generator, "status", row.getStatus() == null ? null : (long) row.getStatus().getCode());
+        writeNumberField(generator, "role", row.getRole() == null ? null : (long) row.getRole().getCode());
+        generator.writeEndObject();
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeCsv(Writer writer, UserVO row) throws IOException {
+        writer.write(row.getId() == null ? "" : row.getId().toString());
+        writer.write(',');
+        writeCsvText(writer, row.getUsername());
+        writer.write(',');
+        writeCsvText(writer, row.getDisplayName());
+        writer.write(',');
+        writeCsvText(writer, DesensitizeUtils.maskEmail(row.getEmail()));
+        writer.write(',');
+        writeCsvText(writer, DesensitizeUtils.maskPhone(row.getPhone()));
+        writer.write(',');
+        writeCsvText(writer, row.getAvatar());
+        writer.write(',');
+        writeCsvText(writer, row.getLastLoginIpLocation());
+        writer.write(',');
+        writer.write(row.getStatus() == null ? "" : Integer.toString(row.getStatus().getCode()));
+        writer.write(',');
+        writer.write(row.getRole() == null ? "" : Integer.toString(row.getRole().getCode()));
+        writer.write('\n');
+    }
+
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * 写出速度超过限速时休眠到预期时间点
+     */
+    private void pace(long start, long count) throws InterruptedIOException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = count * 1_000_000_000L / maxRowsPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - start);
+        if (aheadNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("导出被中断");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ince.springboottemplate.handler;
+
+import com.ince.springboottemplate.enums.CodeEnum;
+import com.ince.springboottemplate.enums.EnumRegistry;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.EnumTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 枚举类型处理器，配置为 MyBatis 的默认枚举处理器
+ * 实现 {@link CodeEnum} 的枚举按整型编码读写，通过 {@link EnumRegistry} 查找；
+ * 其他枚举保持 MyBatis 默认行为，按名称读写。
+ *
+ * @param <E> 枚举类型
+ */
+public class CodeEnumTypeHandler<E extends Enum<E>> extends BaseTypeHandler<E> {
+
+    private final Class<E> type;
+
+    private final EnumRegistry<?> registry;
+
+    private final EnumTypeHandler<E> fallback;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CodeEnumTypeHandler(Class<E> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type argument cannot be null");
+        }
+        this.type = type;
+        if (CodeEnum.class.isAssignableFrom(type)) {
+            this.registry = EnumRegistry.of((Class) type);
+            this.fallback = null;
+        } else {
+            this.registry = null;
+            this.fallback = new EnumTypeHandler<>(type);
+        }
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, E parameter, JdbcType jdbcType) throws SQLException {
+        if (registry == null) {
+            fallback.setNonNullParameter(ps, i, parameter, jdbcType);
+            return;
+        }
+        ps.setInt(i, ((CodeEnum) parameter).getCode());
+    }
+
+    @Override
+    public E getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        if (registry == null) {
+            return fallback.getNullableResult(rs, columnName);
+        }
+        int code = rs.getInt(columnName);
+        return code == 0 && rs.wasNull() ? null : toEnum(code);
+    }
+
+    @Override
+    public E getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        if (registry == null) {
+            return fallback.getNullableResult(rs, columnIndex);
+        }
+        int code = rs.getInt(columnIndex);
+        return code == 0 && rs.wasNull() ? null : toEnum(code);
+    }
+
+    @Override
+    public E getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        if (registry == null) {
+            return fallback.getNullableResult(cs, columnIndex);
+        }
+        int code = cs.getInt(columnIndex);
+        return code == 0 && cs.wasNull() ? null : toEnum(code);
+    }
+
+    private E toEnum(int code) {
+        Object constant = registry.get(code);
+        if (constant == null) {
+            throw new IllegalArgumentException("无法将编码 " + code + " 转换为 " + type.getSimpleName());
+        }
+        return type.cast(constant);
+    }
+}
@@ -0,0 +1,214 @@
+package com.ince.springboottemplate.id;
+
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法主键生成器
+ * <pre>
+ * | 1 位符号 | 41 位毫秒时间戳（自 2024-01-01 起） | 10 位 worker id | 12 位序列号 |
+ * </pre>
+ * <ul>
+ *     <li>worker id 由 {@link WorkerIdLease} 从 Redis 租用后通过 {@link #assignWorker} 分配，未分配或租约过期时拒绝生成</li>
+ *     <li>下一个可分配的ID保存在一个 AtomicLong 中，时间戳、worker id、序列号一起按 CAS 推进，不加锁</li>
+ *     <li>每个线程一次预留 blockSize 个连续序列号，之后在本线程内直接递增，减少对共享状态的 CAS 竞争；
+ *     预留的序列号只在所属毫秒内有效，时钟前进后丢弃，ID 大致按时间有序</li>
+ *     <li>同一毫秒序列号用完时借用下一毫秒</li>
+ *     <li>时钟回拨时沿用上次的逻辑时间继续分配序列号，保证不重复且单调递增；
+ *     逻辑时间领先系统时钟超过 maxBackwardMillis 时抛出 {@link IllegalStateException}，插入失败而不是生成重复ID</li>
+ * </ul>
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    /**
+     * 时间戳起点：2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int MAX_WORKER_ID = (1 << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long WORKER_MASK = (long) MAX_WORKER_ID << WORKER_SHIFT;
+
+    private static final long UNASSIGNED = -1L;
+
+    private final int blockSize;
+
+    private final long maxBackwardMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 下一个可分配的ID，未分配 worker id 时为 -1
+     */
+    private final AtomicLong next = new AtomicLong(UNASSIGNED);
+
+    /**
+     * 每次分配 worker id 时递增，使各线程预留的旧序列号失效
+     */
+    private volatile int generation;
+
+    /**
+     * worker id 租约到期时间（毫秒时间戳）
+     */
+    private volatile long leaseDeadline;
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder aheadOfClock = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param blockSize         每个线程一次预留的序列号个数，1 表示每个ID都通过 CAS 分配
+     * @param maxBackwardMillis 允许逻辑时间领先系统时钟的最大毫秒数（容忍的时钟回拨）
+     * @param clock             毫秒时钟
+     */
+    public SnowflakeIdGenerator(int blockSize, long maxBackwardMillis, LongSupplier clock) {
+        if (blockSize < 1 || blockSize > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException("blockSize must be in [1, " + (SEQUENCE_MASK + 1) + "]");
+        }
+        this.blockSize = blockSize;
+        this.maxBackwardMillis = Math.max(0, maxBackwardMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * 分配 worker id，从 notBeforeMillis 之后的时间开始生成，避免与该 worker id 上一次使用者生成的ID重复
+     * @param workerId            worker id，0-1023
+     * @param notBeforeMillis     该 worker id 上一次使用者记录的最后时间戳，没有时传 0
+     * @param leaseDeadlineMillis 租约到期时间，固定 worker id 时传 Long.MAX_VALUE
+     */
+    public synchronized void assignWorker(int workerId, long notBeforeMillis, long leaseDeadlineMillis) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId must be in [0, " + MAX_WORKER_ID + "]: " + workerId);
+        }
+        long start = Math.max(clock.getAsLong(), notBeforeMillis + 1) - EPOCH;
+        leaseDeadline = leaseDeadlineMillis;
+        next.set((start << TIMESTAMP_SHIFT) | ((long) workerId << WORKER_SHIFT));
+        generation++;
+    }
+
+    /**
+     * 续约成功后延长租约
+     */
+    public void extendLease(long leaseDeadlineMillis) {
+        leaseDeadline = leaseDeadlineMillis;
+    }
+
+    @Override
+    public Long nextId(Object entity) {
+        return nextId();
+    }
+
+    public long nextId() {
+        long now = clock.getAsLong();
+        if (now >= leaseDeadline) {
+            rejected.increment();
+            throw new IllegalStateException("worker id 未分配或租约已过期，拒绝生成ID");
+        }
+        long relative = now - EPOCH;
+        Block block = blocks.get();
+        if (block.next >= block.end || block.generation != generation || (block.next >>> TIMESTAMP_SHIFT) < relative) {
+            reserve(block, relative);
+        }
+        return block.next++;
+    }
+
+    private void reserve(Block block, long now) {
+        for (;;) {
+            int currentGeneration = generation;
+            long current = next.get();
+            if (current == UNASSIGNED) {
+                rejected.increment();
+                throw new IllegalStateException("worker id 未分配，拒绝生成ID");
+            }
+            long timestamp = current >>> TIMESTAMP_SHIFT;
+            long start;
+            if (now > timestamp) {
+                start = (now << TIMESTAMP_SHIFT) | (current & WORKER_MASK);
+            } else {
+                // 同一毫秒，或者时钟回拨、序列号借用了后面的毫秒：沿用逻辑时间继续分配
+                if (timestamp - now > maxBackwardMillis) {
+                    rejected.increment();
+                    throw new IllegalStateException(String.format(
+                            "时钟回拨 %dms，超过允许的 %dms，拒绝生成ID", timestamp - now, maxBackwardMillis));
+                }
+                start = current;
+            }
+            long sequence = start & SEQUENCE_MASK;
+            long count = Math.min(blockSize, SEQUENCE_MASK + 1 - sequence);
+            // 序列号用完时进入下一毫秒，不能直接加一进位到 worker id
+            long after = sequence + count > SEQUENCE_MASK
+                    ? (((start >>> TIMESTAMP_SHIFT) + 1) << TIMESTAMP_SHIFT) | (start & WORKER_MASK)
+                    : start + count;
+            if (next.compareAndSet(current, after)) {
+                reservations.increment();
+                if (timestamp > now) {
+                    aheadOfClock.increment();
+                }
+                block.next = start;
+                block.end = start + count;
+                block.generation = currentGeneration;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 当前 worker id，未分配时返回 -1
+     */
+    public int getWorkerId() {
+        long current = next.get();
+        return current == UNASSIGNED ? -1 : (int) ((current & WORKER_MASK) >>> WORKER_SHIFT);
+    }
+
+    /**
+     * 已使用到的逻辑时间（毫秒时间戳），续约时记录到 Redis，供下一个使用该 worker id 的实例避开
+     */
+    public long getHighWaterMillis() {
+        long current = next.get();
+        return current == UNASSIGNED ? 0 : (current >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * 从 ID 中解析生成时间（毫秒时间戳）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * 从 ID 中解析 worker id
+     */
+    public static int workerIdOf(long id) {
+        return (int) ((id & WORKER_MASK) >>> WORKER_SHIFT);
+    }
+
+    public long getReservations() {
+        return reservations.sum();
+    }
+
+    public long getAheadOfClock() {
+        return aheadOfClock.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 线程预留的序列号区间 [next, end)
+     */
+    private static final class Block {
+        private long next;
+        private long end;
+        private int generation = -1;
+    }
+}
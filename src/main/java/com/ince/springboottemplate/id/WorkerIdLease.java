@@ -0,0 +1,171 @@
+package com.ince.springboottemplate.id;
+
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花算法 worker id 租约
+ * <ul>
+ *     <li>启动时从随机位置开始依次尝试 SET NX {@code id:worker:<n>}，拿到的编号即本实例的 worker id，
+ *     不依赖主机名或 MAC 地址，容器扩缩容时不会冲突</li>
+ *     <li>每 1/3 租期用 Lua 脚本校验归属后续约，同时把已使用到的时间戳写入 {@code id:worker:<n>:last}；
+ *     下一个租到该编号的实例从这个时间之后开始生成，重启前后即使时钟回拨也不会重复</li>
+ *     <li>续约发现租约已被他人占用时重新租用；Redis 不可用导致续约失败时，租约到期后生成器拒绝生成ID</li>
+ *     <li>配置 app.id.worker-id 后使用固定编号，不访问 Redis</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class WorkerIdLease {
+
+    private static final String KEY_PREFIX = "id:worker:";
+
+    private static final String LAST_SUFFIX = ":last";
+
+    /**
+     * 已使用时间戳的保留时间，远大于任何实际的时钟回拨
+     */
+    private static final Duration LAST_TTL = Duration.ofDays(7);
+
+    /**
+     * 租约仍属于本实例时续期并记录已使用时间戳，返回 1；否则返回 0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[4])
+            return 1
+            """, Long.class);
+
+    /**
+     * 租约仍属于本实例时释放，返回 1；否则返回 0
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    @Resource
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Value("${app.id.worker-id:-1}")
+    private int fixedWorkerId;
+
+    @Value("${app.id.lease-seconds:60}")
+    private long leaseSeconds;
+
+    /**
+     * 本实例写入租约的值，用于续约和释放时校验归属
+     */
+    private final String token = ManagementFactory.getRuntimeMXBean().getName() + ':' + UUID.randomUUID();
+
+    private volatile int workerId = -1;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (fixedWorkerId >= 0) {
+            snowflakeIdGenerator.assignWorker(fixedWorkerId, 0, Long.MAX_VALUE);
+            log.info("使用固定 worker id: {}", fixedWorkerId);
+            return;
+        }
+        // 启动时租不到 worker id 直接失败，避免带着可能重复的ID生成器运行
+        acquire();
+        long renewMillis = Math.max(1000, leaseSeconds * 1000 / 3);
+        scheduler = Executors.newSingleThreadScheduledExecutor(appThreadFactory.newThreadFactory("id-worker-lease"));
+        scheduler.scheduleWithFixedDelay(this::renewQuietly, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, keys(workerId), token,
+                    String.valueOf(snowflakeIdGenerator.getHighWaterMillis()), String.valueOf(LAST_TTL.toMillis()));
+            log.info("已释放 worker id: {}", workerId);
+        } catch (Exception e) {
+            log.warn("释放 worker id 失败，等待租约自然过期: workerId={}, error={}", workerId, e.getMessage());
+        }
+    }
+
+    /**
+     * 从随机位置开始依次尝试，所有编号都被占用时抛出异常
+     */
+    private void acquire() {
+        int start = ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+        for (int i = 0; i <= SnowflakeIdGenerator.MAX_WORKER_ID; i++) {
+            int candidate = (start + i) % (SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+            long requestTime = System.currentTimeMillis();
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(KEY_PREFIX + candidate, token, Duration.ofSeconds(leaseSeconds));
+            if (Boolean.TRUE.equals(acquired)) {
+                String last = stringRedisTemplate.opsForValue().get(KEY_PREFIX + candidate + LAST_SUFFIX);
+                long notBefore = last == null ? 0 : Long.parseLong(last);
+                snowflakeIdGenerator.assignWorker(candidate, notBefore, requestTime + leaseSeconds * 1000);
+                workerId = candidate;
+                log.info("已租用 worker id: {}, notBefore={}, leaseSeconds={}", candidate, notBefore, leaseSeconds);
+                return;
+            }
+        }
+        throw new IllegalStateException("没有可用的 worker id，已有 " + (SnowflakeIdGenerator.MAX_WORKER_ID + 1) + " 个实例在运行");
+    }
+
+    private void renewQuietly() {
+        try {
+            long requestTime = System.currentTimeMillis();
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, keys(workerId), token,
+                    String.valueOf(leaseSeconds * 1000), String.valueOf(snowflakeIdGenerator.getHighWaterMillis()),
+                    String.valueOf(LAST_TTL.toMillis()));
+            if (renewed != null && renewed == 1) {
+                // 按发出请求的时间计算到期时间，比 Redis 中的实际到期时间略早
+                snowflakeIdGenerator.extendLease(requestTime + leaseSeconds * 1000);
+                return;
+            }
+            log.warn("worker id 租约已失效，重新租用: workerId={}", workerId);
+            acquire();
+        } catch (Exception e) {
+            log.warn("worker id 续约失败: workerId={}, error={}", workerId, e.getMessage());
+        }
+    }
+
+    private static List<String> keys(int workerId) {
+        return List.of(KEY_PREFIX + workerId, KEY_PREFIX + workerId + LAST_SUFFIX);
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ince.springboottemplate.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ince.springboottemplate.enums.ExportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 用户导入文件读取器
+ * 逐行读取 CSV 或 NDJSON，不缓存已读取的行，内存占用与文件大小无关。
+ * <ul>
+ *     <li>CSV 首行为表头，列名忽略大小写，必须包含 username、password、email，可选 displayName、phone；
+ *     字段按 RFC 4180 处理引号和转义</li>
+ *     <li>NDJSON 每行一个 JSON 对象，字段名与 CSV 表头一致</li>
+ *     <li>单行格式错误不会中断读取，错误记录在 {@link UserImportRow#getError()} 中</li>
+ * </ul>
+ */
+public class UserImportReader implements Iterator<UserImportRow>, Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String[] REQUIRED_COLUMNS = {"username", "password", "email"};
+
+    private final BufferedReader reader;
+
+    private final ExportFormat format;
+
+    /**
+     * CSV 列名（小写） -> 列下标
+     */
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private long rowNumber;
+
+    private UserImportRow nextRow;
+
+    private boolean finished;
+
+    public UserImportReader(InputStream in, ExportFormat format) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        if (format == ExportFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null && !finished) {
+            try {
+                nextRow = format == ExportFormat.CSV ? readCsvRow() : readJsonRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = nextRow == null;
+        }
+        return nextRow != null;
+    }
+
+    @Override
+    public UserImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UserImportRow row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readCsvRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("导入文件为空");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.putIfAbsent(name.toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV 表头缺少列: " + column);
+            }
+        }
+    }
+
+    private UserImportRow readCsvRow() throws IOException {
+        List<String> fields;
+        do {
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        UserImportRow row = new UserImportRow();
+        row.setRowNumber(++rowNumber);
+        row.setUsername(trimToNull(csvField(fields, "username")));
+        row.setPassword(csvField(fields, "password"));
+        row.setEmail(trimToNull(csvField(fields, "email")));
+        row.setDisplayName(trimToNull(csvField(fields, "displayname")));
+        row.setPhone(trimToNull(csvField(fields, "phone")));
+        return row;
+    }
+
+    private String csvField(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    /**
+     * 读取一条 CSV 记录，引号内的逗号和换行属于字段内容
+     * @return 字段列表，文件结束时返回 null
+     */
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private UserImportRow readJsonRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        UserImportRow row = new UserImportRow();
+        row.setRowNumber(++rowNumber);
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (IOException e) {
+            row.setError("JSON 格式错误");
+            return row;
+        }
+        if (node == null || !node.isObject()) {
+            row.setError("每行必须是一个 JSON 对象");
+            return row;
+        }
+        row.setUsername(trimToNull(jsonField(node, "username")));
+        row.setPassword(jsonField(node, "password"));
+        row.setEmail(trimToNull(jsonField(node, "email")));
+        row.setDisplayName(trimToNull(jsonField(node, "displayName")));
+        row.setPhone(trimToNull(jsonField(node, "phone")));
+        return row;
+    }
+
+    private static String jsonField(JsonNode node, String name) {
+        return node.hasNonNull(name) ? node.get(name).asText() : null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ince.springboottemplate.importer;
+
+import lombok.Data;
+
+/**
+ * 导入文件中的一行用户数据
+ */
+@Data
+public class UserImportRow {
+
+    /**
+     * 数据行号，从 1 开始，不含 CSV 表头和空行；断点续传按该行号跳过已处理的行
+     */
+    private long rowNumber;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 明文密码
+     */
+    private String password;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 显示名称
+     */
+    private String displayName;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 解析错误，不为空时其余字段无效
+     */
+    private String error;
+}
@@ -0,0 +1,97 @@
+package com.ince.springboottemplate.importer;
+
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.model.vo.UserImportErrorVO;
+import com.ince.springboottemplate.model.vo.UserImportResultVO;
+import com.ince.springboottemplate.services.UserImportService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 命令行批量导入用户
+ * <pre>
+ * java -jar app.jar --import-users=/data/users.csv [--import-format=csv|ndjson] [--import-id=partner-a]
+ * </pre>
+ * 导入完成后应用退出，成功时退出码为 0；错误报告写入 {@code <文件名>.errors.csv}。
+ * 导入中断后使用同一 --import-id 重新执行即可从断点继续。未传 --import-users 时不做任何事。
+ */
+@Component
+@Slf4j
+public class UserImportRunner implements ApplicationRunner {
+
+    private static final String FILE_OPTION = "import-users";
+    private static final String FORMAT_OPTION = "import-format";
+    private static final String ID_OPTION = "import-id";
+
+    @Resource
+    private UserImportService userImportService;
+
+    @Resource
+    private ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String file = firstOption(args, FILE_OPTION);
+        if (file == null) {
+            return;
+        }
+        Path path = Path.of(file);
+        String formatOption = firstOption(args, FORMAT_OPTION);
+        String formatName = formatOption != null ? formatOption
+                : file.toLowerCase().endsWith(".csv") ? "csv" : "ndjson";
+        ExportFormat format = ExportFormat.fromName(formatName)
+                .orElseThrow(() -> new IllegalArgumentException("不支持的导入格式: " + formatName));
+
+        UserImportResultVO result;
+        try (InputStream in = Files.newInputStream(path)) {
+            result = userImportService.importUsers(in, format, firstOption(args, ID_OPTION));
+        }
+        log.info("命令行导入结束: importId={}, state={}, total={}, skipped={}, imported={}, failed={}, message={}",
+                result.getImportId(), result.getState(), result.getTotalRows(), result.getSkippedRows(),
+                result.getImportedRows(), result.getFailedRows(), result.getMessage());
+        if (!result.getErrors().isEmpty()) {
+            Path report = path.resolveSibling(path.getFileName() + ".errors.csv");
+            writeErrorReport(report, result.getErrors());
+            log.info("错误报告已写入: {}{}", report, result.isErrorsTruncated() ? "（已截断）" : "");
+        }
+
+        int exitCode = "completed".equals(result.getState()) ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+
+    private static String firstOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static void writeErrorReport(Path report, List<UserImportErrorVO> errors) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("row,username,message");
+            writer.newLine();
+            for (UserImportErrorVO error : errors) {
+                writer.write(error.getRow() + "," + csv(error.getUsername()) + "," + csv(error.getMessage()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
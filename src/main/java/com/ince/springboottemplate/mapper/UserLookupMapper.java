@@ -0,0 +1,77 @@
+package com.ince.springboottemplate.mapper;
+
+import com.ince.springboottemplate.model.entity.UserLookup;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 针对表【user_lookup(用户名、邮箱到用户ID的全局查找表)】的数据库操作Mapper
+ * 主键是 (lookup_type, lookup_value) 复合主键，不继承 BaseMapper
+ */
+public interface UserLookupMapper {
+
+    /**
+     * 按用户名或邮箱查询用户ID，走主键
+     */
+    @Select("SELECT user_id FROM user_lookup WHERE lookup_type = #{lookupType} AND lookup_value = #{lookupValue}")
+    Long selectUserId(@Param("lookupType") int lookupType, @Param("lookupValue") String lookupValue);
+
+    /**
+     * 一次查询一批用户名和邮箱中已被占用的，两个集合都不能为空
+     */
+    @Select("<script>SELECT lookup_type, lookup_value, user_id FROM user_lookup WHERE "
+            + "(lookup_type = 1 AND lookup_value IN "
+            + "<foreach collection='usernames' item='u' open='(' separator=',' close=')'>#{u}</foreach>)"
+            + " OR (lookup_type = 2 AND lookup_value IN "
+            + "<foreach collection='emails' item='e' open='(' separator=',' close=')'>#{e}</foreach>)</script>")
+    List<UserLookup> selectByValues(@Param("usernames") Collection<String> usernames,
+                                    @Param("emails") Collection<String> emails);
+
+    /**
+     * 查询一批用户的全部查找记录，用于重新分片后的校验
+     */
+    @Select("<script>SELECT lookup_type, lookup_value, user_id FROM user_lookup WHERE user_id IN "
+            + "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<UserLookup> selectByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 写入一条查找记录，已被占用时抛出 DuplicateKeyException
+     */
+    @Insert("INSERT INTO user_lookup (lookup_type, lookup_value, user_id) "
+            + "VALUES (#{lookupType}, #{lookupValue}, #{userId})")
+    int insert(UserLookup lookup);
+
+    /**
+     * 多行写入，任意一条已被占用时整条语句失败
+     */
+    @Insert("<script>INSERT INTO user_lookup (lookup_type, lookup_value, user_id) VALUES "
+            + "<foreach collection='lookups' item='l' separator=','>(#{l.lookupType}, #{l.lookupValue}, #{l.userId})</foreach>"
+            + "</script>")
+    int insertBatch(@Param("lookups") Collection<UserLookup> lookups);
+
+    /**
+     * 多行写入，已存在时改为指向给定用户，用于从未分片的用户表回填
+     */
+    @Insert("<script>INSERT INTO user_lookup (lookup_type, lookup_value, user_id) VALUES "
+            + "<foreach collection='lookups' item='l' separator=','>(#{l.lookupType}, #{l.lookupValue}, #{l.userId})</foreach>"
+            + " ON DUPLICATE KEY UPDATE user_id = VALUES(user_id)</script>")
+    int upsertBatch(@Param("lookups") Collection<UserLookup> lookups);
+
+    /**
+     * 修改邮箱后删除该用户的其他邮箱记录
+     */
+    @Delete("DELETE FROM user_lookup WHERE lookup_type = 2 AND user_id = #{userId} AND lookup_value <> #{email}")
+    int deleteOtherEmails(@Param("userId") Long userId, @Param("email") String email);
+
+    /**
+     * 删除一批用户的全部查找记录，回填前清理已不属于这些用户的旧记录
+     */
+    @Delete("<script>DELETE FROM user_lookup WHERE user_id IN "
+            + "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
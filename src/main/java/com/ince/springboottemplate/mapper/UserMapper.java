@@ -1,7 +1,22 @@
 package com.ince.springboottemplate.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserVO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 /**
 * @author HP
@@ -11,6 +26,163 @@ import com.ince.springboottemplate.model.entity.User;
 */
 public interface UserMapper extends BaseMapper<User> {
 
+    /**
+     * 认证投影列：登录、改密和刷新登录主体只需要这些列，不读取 address、bio 等 TEXT 列和 additional_info
+     */
+    String AUTH_COLUMNS = "id, username, display_name, password, status, role, update_time, version";
+
+    /**
+     * 资料投影列：与 {@link UserVO} 的字段一一对应
+     */
+    String PROFILE_COLUMNS = "id, username, display_name, email, phone, avatar, last_login_ip_location, "
+            + "status, bio, id_card, role, version";
+
+    /**
+     * 列表投影列：管理员用户列表不返回简介、身份证号等字段
+     */
+    String LIST_COLUMNS = "id, username, display_name, email, phone, avatar, last_login_ip_location, status, role";
+
+    /**
+     * 全部列，重新分片时整行复制和比对
+     */
+    String ALL_COLUMNS = "id, username, display_name, password, email, phone, address, avatar, last_login_ip, "
+            + "last_login_time, status, create_time, update_time, additional_info, bio, id_card, "
+            + "last_login_ip_location, role, version";
+
+    /**
+     * 按用户名查询认证投影，由覆盖索引 idx_username_auth 直接返回，不回表
+     */
+    @Select("SELECT " + AUTH_COLUMNS + " FROM users WHERE username = #{username}")
+    User selectAuthByUsername(@Param("username") String username);
+
+    /**
+     * 按ID查询认证投影
+     */
+    @Select("SELECT " + AUTH_COLUMNS + " FROM users WHERE id = #{id}")
+    User selectAuthById(@Param("id") Long id);
+
+    /**
+     * 按ID查询资料投影，供 /user/current 和用户缓存使用
+     */
+    @Select("SELECT " + PROFILE_COLUMNS + " FROM users WHERE id = #{id}")
+    UserVO selectProfileById(@Param("id") Long id);
+
+    /**
+     * 邮箱是否已被其他用户使用，只访问唯一索引 uk_email
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM users WHERE email = #{email} AND id <> #{excludeId})")
+    boolean existsByEmailExcludingId(@Param("email") String email, @Param("excludeId") Long excludeId);
+
+    /**
+     * 注册前的存在性校验：一次查询同时匹配用户名和邮箱，只返回这两列
+     * 两列都有唯一索引，最多返回两行
+     */
+    @Select("SELECT username, email FROM users WHERE username = #{username} OR email = #{email} LIMIT 2")
+    List<User> selectRegistrationConflicts(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * 批量导入前的存在性校验：一次查询一批用户名和邮箱中已被占用的，只返回这两列
+     */
+    @Select("<script>SELECT username, email FROM users WHERE username IN "
+            + "<foreach collection='usernames' item='u' open='(' separator=',' close=')'>#{u}</foreach>"
+            + " OR email IN "
+            + "<foreach collection='emails' item='e' open='(' separator=',' close=')'>#{e}</foreach></script>")
+    List<User> selectExistingIdentities(@Param("usernames") Collection<String> usernames,
+                                        @Param("emails") Collection<String> emails);
+
+    /**
+     * 带上限的计数：最多扫描 cap 行，用于列表的近似总数，避免大表上的全量 COUNT(*)
+     */
+    @Select("SELECT COUNT(*) FROM (SELECT 1 FROM users ${ew.customSqlSegment} LIMIT #{cap}) t")
+    long countCapped(@Param(Constants.WRAPPER) Wrapper<User> wrapper, @Param("cap") int cap);
+
+    /**
+     * 表行数估算值（InnoDB 统计信息），无筛选条件时作为近似总数
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table}")
+    Long selectEstimatedRowCount(@Param("table") String table);
+
+    /**
+     * 按ID顺序流式读取列表投影，用于导出；调用方需要在 SqlSession 关闭前读完并关闭游标
+     */
+    @Select("<script>SELECT " + LIST_COLUMNS + " FROM users"
+            + "<where><if test='status != null'>status = #{status}</if></where> ORDER BY id</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<UserVO> streamForExport(@Param("status") Integer status);
+
+    /**
+     * 流式读取全部用户名和邮箱，用于重建布隆过滤器
+     * fetchSize 为 Integer.MIN_VALUE 时 MySQL 驱动逐行返回结果，不会把整张表读入内存
+     */
+    @Select("SELECT username, email FROM users")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void scanIdentities(ResultHandler<User> handler);
+
+    /**
+     * 按ID顺序读取 afterId 之后的一批整行，用于重新分片时逐批复制
+     */
+    @Select("SELECT " + ALL_COLUMNS + " FROM users WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<User> selectBatchAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按ID批量读取整行，用于重新分片后的比对
+     */
+    @Select("<script>SELECT " + ALL_COLUMNS + " FROM users WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<User> selectAllColumnsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 整行多行写入，主键已存在时覆盖全部列；重新分片时重复执行不会产生重复数据
+     */
+    @Insert("<script>INSERT INTO users (" + ALL_COLUMNS + ") VALUES "
+            + "<foreach collection='users' item='u' separator=','>(#{u.id}, #{u.username}, #{u.displayName}, "
+            + "#{u.password}, #{u.email}, #{u.phone}, #{u.address}, #{u.avatar}, #{u.lastLoginIp}, "
+            + "#{u.lastLoginTime}, #{u.status}, #{u.createTime}, #{u.updateTime}, #{u.additionalInfo}, #{u.bio}, "
+            + "#{u.idCard}, #{u.lastLoginIpLocation}, #{u.role}, #{u.version})</foreach>"
+            + " ON DUPLICATE KEY UPDATE username = VALUES(username), display_name = VALUES(display_name), "
+            + "password = VALUES(password), email = VALUES(email), phone = VALUES(phone), address = VALUES(address), "
+            + "avatar = VALUES(avatar), last_login_ip = VALUES(last_login_ip), "
+            + "last_login_time = VALUES(last_login_time), status = VALUES(status), create_time = VALUES(create_time), "
+            + "update_time = VALUES(update_time), additional_info = VALUES(additional_info), bio = VALUES(bio), "
+            + "id_card = VALUES(id_card), last_login_ip_location = VALUES(last_login_ip_location), "
+            + "role = VALUES(role), version = VALUES(version)</script>")
+    int upsertBatch(@Param("users") Collection<User> users);
+
+    /**
+     * 以 source 为模板创建物理表（MySQL 语法），表名由调用方校验
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${table} LIKE ${source}")
+    int createTableLike(@Param("table") String table, @Param("source") String source);
+
+    /**
+     * 带版本校验地修改密码并递增版本号
+     * @return 影响行数，为 0 表示版本已变化（并发修改）或用户不存在
+     */
+    @Update("UPDATE users SET password = #{password}, update_time = #{updateTime}, version = version + 1 "
+            + "WHERE id = #{id} AND version = #{version}")
+    int updatePassword(@Param("id") Long id,
+                       @Param("password") String password,
+                       @Param("updateTime") Date updateTime,
+                       @Param("version") Integer version);
+
+    /**
+     * 登录时升级密码哈希：以旧哈希作为比较条件，只有哈希未被其他请求修改时才写入。
+     * 密码本身没有变化，不递增版本号，避免使已登录的会话失效
+     */
+    @Update("UPDATE users SET password = #{newPassword} WHERE id = #{id} AND password = #{oldPassword}")
+    int rehashPassword(@Param("id") Long id,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
+
+    /**
+     * 只更新最后登录信息，供写回缓冲批量刷新使用
+     */
+    @Update("UPDATE users SET last_login_time = #{lastLoginTime}, last_login_ip = #{lastLoginIp}, "
+            + "last_login_ip_location = #{lastLoginIpLocation} WHERE id = #{id}")
+    int updateLastLogin(@Param("id") Long id,
+                        @Param("lastLoginTime") Date lastLoginTime,
+                        @Param("lastLoginIp") String lastLoginIp,
+                        @Param("lastLoginIpLocation") String lastLoginIpLocation);
 }
 
 
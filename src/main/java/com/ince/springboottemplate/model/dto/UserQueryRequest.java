@@ -0,0 +1,30 @@
+package com.ince.springboottemplate.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 管理员用户列表查询请求
+ * 翻页时只需带上上一页返回的 nextCursor，筛选条件必须与第一页一致
+ */
+@Data
+public class UserQueryRequest {
+
+    @Schema(description = "账户状态码：0=非活跃, 1=活跃, 2=冻结, 3=封禁")
+    private Integer status;
+
+    @Schema(description = "角色码：0=系统管理员, 1=普通用户, 2=管理员")
+    private Integer role;
+
+    @Schema(description = "用户名前缀")
+    private String keyword;
+
+    @Schema(description = "上一页返回的游标，第一页不传")
+    private String cursor;
+
+    @Schema(description = "每页条数，1-100，默认 20")
+    private Integer pageSize;
+
+    @Schema(description = "是否返回近似总数（带缓存）")
+    private boolean withTotal;
+}
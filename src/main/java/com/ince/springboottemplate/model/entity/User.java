@@ -3,6 +3,9 @@ package com.ince.springboottemplate.model.entity;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
 import lombok.Data;
 
 import java.util.Date;
@@ -69,7 +72,7 @@ public class User {
     /**
      * User's account status: 0=inactive, 1=active, 2=frozen, 3=blocked
      */
-    private Integer status;
+    private UserStatus status;
 
     /**
      * Timestamp when the user account was created
@@ -104,5 +107,11 @@ public class User {
     /**
      * 用户角色(1=普通用户, 2= 管理员, 0= 系统管理员)
      */
-    private Integer role;
+    private UserRole role;
+
+    /**
+     * 乐观锁版本号，资料、密码等用户可见的修改会递增；最后登录信息的写回不递增
+     */
+    @Version
+    private Integer version;
 }
@@ -0,0 +1,54 @@
+package com.ince.springboottemplate.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用户名、邮箱到用户ID的全局查找表
+ * 用户表分片后，按用户名登录和注册时的唯一性校验通过该表定位用户，主键 (lookup_type, lookup_value) 保证全局唯一
+ *
+ * @TableName user_lookup
+ */
+@TableName(value = "user_lookup")
+@Data
+public class UserLookup {
+
+    public static final int TYPE_USERNAME = 1;
+
+    public static final int TYPE_EMAIL = 2;
+
+    /**
+     * 查找类型：1=用户名，2=邮箱
+     */
+    private Integer lookupType;
+
+    /**
+     * 用户名或邮箱
+     */
+    private String lookupValue;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    public static UserLookup of(int lookupType, String lookupValue, Long userId) {
+        UserLookup lookup = new UserLookup();
+        lookup.setLookupType(lookupType);
+        lookup.setLookupValue(lookupValue);
+        lookup.setUserId(userId);
+        return lookup;
+    }
+
+    /**
+     * 用户对应的查找记录：用户名一条，有邮箱时再加一条
+     */
+    public static void addAll(List<UserLookup> target, User user) {
+        target.add(of(TYPE_USERNAME, user.getUsername(), user.getId()));
+        if (user.getEmail() != null) {
+            target.add(of(TYPE_EMAIL, user.getEmail(), user.getId()));
+        }
+    }
+}
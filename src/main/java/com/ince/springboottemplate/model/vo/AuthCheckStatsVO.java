@@ -0,0 +1,36 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 权限校验统计视图对象
+ */
+@Data
+public class AuthCheckStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3378152046215596402L;
+
+    /**
+     * 通过校验的次数
+     */
+    private long passed;
+
+    /**
+     * 因未登录拒绝的次数
+     */
+    private long notLogin;
+
+    /**
+     * 因账户冻结或封禁拒绝的次数
+     */
+    private long deniedStatus;
+
+    /**
+     * 因角色不符拒绝的次数
+     */
+    private long deniedRole;
+}
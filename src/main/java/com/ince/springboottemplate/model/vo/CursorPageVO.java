@@ -0,0 +1,45 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 按主键定位下一页，翻页开销与页码无关；不提供页码和精确总数
+ *
+ * @param <T> 记录类型
+ */
+@Data
+public class CursorPageVO<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7712869240781573920L;
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 近似总数，未请求时为 null
+     */
+    private Long approximateTotal;
+
+    /**
+     * 近似总数是否达到统计上限（实际数量不少于 approximateTotal）
+     */
+    private boolean totalCapped;
+}
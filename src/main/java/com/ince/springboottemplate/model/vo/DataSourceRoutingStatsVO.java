@@ -0,0 +1,62 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 读写分离统计视图对象
+ */
+@Data
+public class DataSourceRoutingStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4425190873321675180L;
+
+    /**
+     * 是否启用读写分离数据源
+     */
+    private boolean enabled;
+
+    /**
+     * 进入 @ReadReplica 方法、允许读副本的次数
+     */
+    private long replicaReads;
+
+    /**
+     * 因会话刚写入数据而改读主库的次数
+     */
+    private long stickyReads;
+
+    /**
+     * 从主库获取的连接数
+     */
+    private long primaryConnections;
+
+    /**
+     * 从副本获取的连接数
+     */
+    private long replicaConnections;
+
+    /**
+     * 允许读副本但因副本不可用回退到主库的次数
+     */
+    private long fallbacks;
+
+    /**
+     * 副本名称 -> 是否健康
+     */
+    private Map<String, Boolean> replicaHealth;
+
+    /**
+     * 副本名称 -> 提供的连接数
+     */
+    private Map<String, Long> replicaServed;
+
+    /**
+     * 副本名称 -> 被标记为不健康的次数
+     */
+    private Map<String, Long> replicaFailures;
+}
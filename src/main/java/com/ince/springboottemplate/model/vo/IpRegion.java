@@ -0,0 +1,52 @@
+package com.ince.springboottemplate.model.vo;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * IP 归属地
+ * 由 ip2region 的区域字符串（国家|区域|省份|城市|ISP）解析而来，缺失的字段为 null
+ *
+ * @param country  国家
+ * @param area     区域
+ * @param province 省份
+ * @param city     城市
+ * @param isp      运营商
+ */
+public record IpRegion(String country, String area, String province, String city, String isp) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6108232714375047052L;
+
+    private static final String CHINA = "中国";
+    private static final String UNKNOWN = "未知";
+
+    /**
+     * 解析 ip2region 的区域字符串，字段值为 "0" 表示缺失
+     */
+    public static IpRegion parse(String region) {
+        String[] fields = new String[5];
+        int start = 0;
+        for (int i = 0; i < fields.length && start <= region.length(); i++) {
+            int end = region.indexOf('|', start);
+            if (end < 0) {
+                end = region.length();
+            }
+            if (end > start && !(end - start == 1 && region.charAt(start) == '0')) {
+                fields[i] = region.substring(start, end);
+            }
+            start = end + 1;
+        }
+        return new IpRegion(fields[0], fields[1], fields[2], fields[3], fields[4]);
+    }
+
+    /**
+     * 展示用的归属地：国内显示省份，国外显示国家
+     */
+    public String displayLocation() {
+        if (country == null || CHINA.equals(country)) {
+            return province != null ? province : UNKNOWN;
+        }
+        return country;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 登录副作用管道统计视图对象
+ * 包括事件队列和最后登录信息写回缓冲的运行情况
+ */
+@Data
+public class LoginPipelineStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5410272365920173318L;
+
+    /**
+     * 已提交的登录事件数
+     */
+    private long eventsSubmitted;
+
+    /**
+     * 已处理的登录事件数
+     */
+    private long eventsProcessed;
+
+    /**
+     * 因队列已满丢弃的登录事件数
+     */
+    private long eventsDropped;
+
+    /**
+     * 处理失败的登录事件数
+     */
+    private long eventsFailed;
+
+    /**
+     * 当前排队的登录事件数
+     */
+    private int queueSize;
+
+    /**
+     * 写回缓冲中待写入的用户数
+     */
+    private int pendingWrites;
+
+    /**
+     * 写入缓冲的记录数
+     */
+    private long writesRecorded;
+
+    /**
+     * 与缓冲中已有记录合并的次数
+     */
+    private long writesCoalesced;
+
+    /**
+     * 因缓冲已满丢弃的记录数
+     */
+    private long writesDropped;
+
+    /**
+     * 已落库的行数
+     */
+    private long rowsFlushed;
+
+    /**
+     * 批量写入次数
+     */
+    private long flushCount;
+
+    /**
+     * 批量写入失败次数
+     */
+    private long flushFailures;
+
+    /**
+     * 最近一次批量写入的行数
+     */
+    private long lastBatchSize;
+
+    /**
+     * 单次批量写入的最大行数
+     */
+    private long maxBatchSize;
+
+    /**
+     * 最近一次批量写入耗时（毫秒）
+     */
+    private long lastFlushMillis;
+
+    /**
+     * 批量写入最大耗时（毫秒）
+     */
+    private long maxFlushMillis;
+
+    /**
+     * 批量写入平均耗时（毫秒）
+     */
+    private double averageFlushMillis;
+}
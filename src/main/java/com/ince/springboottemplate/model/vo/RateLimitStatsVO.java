@@ -0,0 +1,41 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 限流统计视图对象
+ */
+@Data
+public class RateLimitStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4418253079102650735L;
+
+    /**
+     * 通过全部限流规则的请求数
+     */
+    private long passed;
+
+    /**
+     * 被本节点令牌桶拒绝的请求数
+     */
+    private long rejectedLocal;
+
+    /**
+     * 被 Redis 滑动窗口拒绝的请求数
+     */
+    private long rejectedRedis;
+
+    /**
+     * Redis 限流不可用、只经过本地限流的次数
+     */
+    private long redisErrors;
+
+    /**
+     * 本节点当前跟踪的令牌桶数
+     */
+    private long trackedKeys;
+}
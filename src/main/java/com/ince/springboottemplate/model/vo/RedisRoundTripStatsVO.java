@@ -0,0 +1,47 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Redis 往返次数统计视图对象
+ * 用于对比不同会话持久化模式下每个 HTTP 请求访问 Redis 的次数
+ */
+@Data
+public class RedisRoundTripStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6623104857291740385L;
+
+    /**
+     * 当前会话持久化模式（delta / full）
+     */
+    private String sessionPersistenceMode;
+
+    /**
+     * 统计的 HTTP 请求数
+     */
+    private long requests;
+
+    /**
+     * 请求内的 Redis 往返总数
+     */
+    private long requestRoundTrips;
+
+    /**
+     * 平均每个请求的 Redis 往返次数
+     */
+    private double roundTripsPerRequest;
+
+    /**
+     * 单个请求的最大 Redis 往返次数
+     */
+    private long maxPerRequest;
+
+    /**
+     * 请求之外（后台任务、订阅等）的 Redis 往返次数
+     */
+    private long backgroundRoundTrips;
+}
@@ -0,0 +1,107 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 用户名/邮箱布隆过滤器统计视图对象
+ * 估算误判率明显高于目标值时，应调大预期用户数后重建
+ */
+@Data
+public class UserBloomFilterStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6207311284530938846L;
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled;
+
+    /**
+     * 是否已完成首次构建，未就绪时不拦截任何请求
+     */
+    private boolean ready;
+
+    /**
+     * 是否正在重建
+     */
+    private boolean rebuilding;
+
+    /**
+     * 是否同步到 Redis 位图供所有节点共享
+     */
+    private boolean redisMirror;
+
+    /**
+     * 判定不存在时是否拦截请求（开启 Redis 镜像或声明单节点部署）
+     */
+    private boolean shortCircuit;
+
+    /**
+     * 预期用户数
+     */
+    private long expectedUsers;
+
+    /**
+     * 目标误判率
+     */
+    private double falsePositiveRate;
+
+    /**
+     * 位数组长度
+     */
+    private long bitSize;
+
+    /**
+     * 哈希函数个数
+     */
+    private int hashFunctions;
+
+    /**
+     * 已置位的比例
+     */
+    private double fillRatio;
+
+    /**
+     * 按置位比例估算的元素数（用户名和邮箱各算一个）
+     */
+    private long approximateElements;
+
+    /**
+     * 按置位比例估算的当前误判率
+     */
+    private double estimatedFalsePositiveRate;
+
+    /**
+     * 查询次数
+     */
+    private long checks;
+
+    /**
+     * 判定一定不存在、省去数据库查询的次数
+     */
+    private long definiteMisses;
+
+    /**
+     * 本地判定不存在后查询 Redis 位图的次数
+     */
+    private long redisChecks;
+
+    /**
+     * Redis 访问异常次数
+     */
+    private long redisErrors;
+
+    /**
+     * 最近一次重建扫描的用户数
+     */
+    private long lastRebuildRows;
+
+    /**
+     * 最近一次重建耗时（毫秒）
+     */
+    private long lastRebuildMillis;
+}
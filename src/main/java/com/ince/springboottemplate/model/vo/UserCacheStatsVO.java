@@ -0,0 +1,87 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 用户缓存统计视图对象
+ * 用于观察两级缓存的命中情况，辅助调整缓存容量
+ */
+@Data
+public class UserCacheStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3196409165385640127L;
+
+    /**
+     * 本地缓存当前条目数
+     */
+    private long localSize;
+
+    /**
+     * 本地缓存命中次数
+     */
+    private long localHits;
+
+    /**
+     * 本地缓存未命中次数
+     */
+    private long localMisses;
+
+    /**
+     * 本地缓存因容量淘汰的次数
+     */
+    private long localEvictions;
+
+    /**
+     * 本地缓存因过期剔除的次数
+     */
+    private long localExpirations;
+
+    /**
+     * 本地缓存命中率
+     */
+    private double localHitRate;
+
+    /**
+     * Redis 缓存命中次数
+     */
+    private long redisHits;
+
+    /**
+     * Redis 缓存未命中次数
+     */
+    private long redisMisses;
+
+    /**
+     * Redis 访问异常次数
+     */
+    private long redisErrors;
+
+    /**
+     * 回源数据库加载次数
+     */
+    private long loads;
+
+    /**
+     * 已发布的跨节点失效消息数
+     */
+    private long invalidationsPublished;
+
+    /**
+     * 已收到的跨节点失效消息数
+     */
+    private long invalidationsReceived;
+
+    /**
+     * 因乱序或重复被忽略的失效消息数
+     */
+    private long invalidationsIgnored;
+
+    /**
+     * 本地缓存全量清空次数（序号跳跃或订阅重连）
+     */
+    private long fullFlushes;
+}
@@ -0,0 +1,35 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 用户导入的单行错误
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3184460236815549217L;
+
+    /**
+     * 数据行号，从 1 开始，不含 CSV 表头
+     */
+    private long row;
+
+    /**
+     * 该行的用户名
+     */
+    private String username;
+
+    /**
+     * 错误原因
+     */
+    private String message;
+}
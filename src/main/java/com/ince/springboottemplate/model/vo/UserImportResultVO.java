@@ -0,0 +1,73 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 用户导入进度和结果
+ */
+@Data
+public class UserImportResultVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2450317764213895034L;
+
+    /**
+     * 导入任务ID，导入失败后使用同一ID重新提交同一文件即可从断点继续
+     */
+    private String importId;
+
+    /**
+     * 任务状态：running / completed / failed
+     */
+    private String state;
+
+    /**
+     * 已读取的数据行数
+     */
+    private long totalRows;
+
+    /**
+     * 按断点跳过的行数
+     */
+    private long skippedRows;
+
+    /**
+     * 成功导入的行数
+     */
+    private long importedRows;
+
+    /**
+     * 失败的行数
+     */
+    private long failedRows;
+
+    /**
+     * 逐行错误报告，最多返回 app.user-import.max-reported-errors 条
+     */
+    private List<UserImportErrorVO> errors;
+
+    /**
+     * 错误报告是否被截断
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * 任务失败的原因
+     */
+    private String message;
+
+    /**
+     * 开始时间
+     */
+    private Date startTime;
+
+    /**
+     * 结束时间，未结束时为 null
+     */
+    private Date finishTime;
+}
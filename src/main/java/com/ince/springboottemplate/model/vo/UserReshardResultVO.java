@@ -0,0 +1,76 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 用户表重新分片结果
+ */
+@Data
+public class UserReshardResultVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6183954207751348219L;
+
+    /**
+     * 当前布局，格式为 前缀[分片数]
+     */
+    private String sourceLayout;
+
+    /**
+     * 目标布局，格式为 前缀[分片数]
+     */
+    private String targetLayout;
+
+    /**
+     * 是否只校验不复制
+     */
+    private boolean verifyOnly;
+
+    /**
+     * 复制的行数
+     */
+    private long copiedRows;
+
+    /**
+     * 校验的行数
+     */
+    private long verifiedRows;
+
+    /**
+     * 目标表中缺失或与源表不一致的行数
+     */
+    private long mismatchedRows;
+
+    /**
+     * 查找表中缺失或不一致的用户数
+     */
+    private long mismatchedLookups;
+
+    /**
+     * 重新复制修复的用户数，只校验时为 0
+     */
+    private long repairedRows;
+
+    /**
+     * 源表总行数（校验时统计）
+     */
+    private long sourceRows;
+
+    /**
+     * 目标表总行数（校验完成后统计）
+     */
+    private long targetRows;
+
+    /**
+     * 目标布局是否与当前布局一致，可以切换
+     */
+    private boolean consistent;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+}
@@ -1,5 +1,7 @@
 package com.ince.springboottemplate.model.vo;
 
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import lombok.Data;
 
@@ -55,7 +57,7 @@ public class UserVO implements Serializable {
     /**
      * 用户账户状态: 0=inactive, 1=active, 2=suspended
      */
-    private Integer status;
+    private UserStatus status;
 
     /**
      * 个人简介
@@ -70,5 +72,10 @@ public class UserVO implements Serializable {
     /**
      * 角色: 0=普通用户, 1=管理员
      */
-    private Integer role;
+    private UserRole role;
+
+    /**
+     * 数据版本号，即 users.version，用于判断会话中的登录主体是否过期
+     */
+    private Integer version;
 }
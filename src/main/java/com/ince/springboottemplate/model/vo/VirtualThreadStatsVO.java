@@ -0,0 +1,53 @@
+package com.ince.springboottemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 虚拟线程运行统计视图对象
+ * 包括载体固定诊断结果和数据源并发限制的排队情况
+ */
+@Data
+public class VirtualThreadStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 8017446325301928764L;
+
+    /**
+     * 是否启用虚拟线程模式
+     */
+    private boolean virtualThreads;
+
+    /**
+     * 按组件（druid / jedis / other）统计的载体固定次数
+     */
+    private Map<String, Long> pinnedByComponent;
+
+    /**
+     * 按位置统计的载体固定次数
+     */
+    private Map<String, Long> pinnedBySite;
+
+    /**
+     * 载体固定累计时长（毫秒）
+     */
+    private long pinnedMillis;
+
+    /**
+     * 是否启用数据源并发限制
+     */
+    private boolean dataSourceLimited;
+
+    /**
+     * 数据源剩余许可数
+     */
+    private int dataSourceAvailablePermits;
+
+    /**
+     * 等待数据源许可的线程数
+     */
+    private int dataSourceQueueLength;
+}
@@ -0,0 +1,58 @@
+package com.ince.springboottemplate.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 按 HTTP 请求统计 Redis 往返次数
+ * 排在 Spring Session 过滤器之前，请求结束时的会话保存也计入本次请求；按接口记录到 app.request.redis.round.trips。
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.monitor.redis-round-trips.enabled", havingValue = "true")
+public class RedisRoundTripFilter extends OncePerRequestFilter implements Ordered {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private RequestMetrics roundTripsPerRequest;
+
+    @PostConstruct
+    public void init() {
+        roundTripsPerRequest = new RequestMetrics(meterRegistry, RequestMetrics.REDIS_ROUND_TRIPS,
+                "每个 HTTP 请求的 Redis 往返次数");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RedisRoundTrips.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long roundTrips = RedisRoundTrips.endRequest();
+            roundTripsPerRequest.record(request, roundTrips);
+            if (log.isTraceEnabled()) {
+                log.trace("Redis 往返次数: {} {} -> {}", request.getMethod(), request.getRequestURI(), roundTrips);
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return SessionRepositoryFilter.DEFAULT_ORDER - 1;
+    }
+}
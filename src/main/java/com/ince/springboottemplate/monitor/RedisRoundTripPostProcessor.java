@@ -0,0 +1,90 @@
+package com.ince.springboottemplate.monitor;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 为 Redis 连接工厂加上往返计数
+ * 非管道模式下每条命令计一次；管道和事务中的命令在 closePipeline/exec 时合计一次。
+ * 通过 xxxCommands() 访问器发出的命令按访问器调用计数。
+ */
+@Component
+@ConditionalOnProperty(name = "app.monitor.redis-round-trips.enabled", havingValue = "true")
+public class RedisRoundTripPostProcessor implements BeanPostProcessor {
+
+    /**
+     * 不与 Redis 交互的连接方法
+     */
+    private static final Set<String> LOCAL_METHODS = Set.of("close", "isClosed", "getNativeConnection",
+            "isQueueing", "isPipelined", "isSubscribed", "getSubscription", "getSentinelConnection",
+            "toString", "hashCode", "equals");
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof RedisConnectionFactory)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            if (result instanceof RedisConnection connection
+                    && "getConnection".equals(invocation.getMethod().getName())) {
+                ProxyFactory connectionProxy = new ProxyFactory(connection);
+                connectionProxy.addAdvice(new CountingInterceptor());
+                return connectionProxy.getProxy(connection.getClass().getClassLoader());
+            }
+            return result;
+        });
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    /**
+     * 单个连接上的计数器，连接不会跨线程使用，状态无需同步
+     */
+    private static final class CountingInterceptor implements MethodInterceptor {
+
+        private boolean pipelined;
+
+        private boolean queueing;
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String name = invocation.getMethod().getName();
+            switch (name) {
+                case "openPipeline" -> pipelined = true;
+                case "closePipeline" -> {
+                    pipelined = false;
+                    RedisRoundTrips.record();
+                }
+                case "multi" -> {
+                    queueing = true;
+                    countIfDirect();
+                }
+                case "exec", "discard" -> {
+                    queueing = false;
+                    countIfDirect();
+                }
+                default -> {
+                    if (!queueing && !LOCAL_METHODS.contains(name)) {
+                        countIfDirect();
+                    }
+                }
+            }
+            return invocation.proceed();
+        }
+
+        private void countIfDirect() {
+            if (!pipelined) {
+                RedisRoundTrips.record();
+            }
+        }
+    }
+}
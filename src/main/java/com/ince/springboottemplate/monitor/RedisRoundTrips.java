@@ -0,0 +1,83 @@
+package com.ince.springboottemplate.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis 往返次数统计
+ * 由 {@link RedisRoundTripPostProcessor} 在每次与 Redis 交互时记录，
+ * 由 {@link RedisRoundTripFilter} 划定 HTTP 请求的边界，请求之外的交互（后台任务、订阅等）单独统计。
+ */
+public final class RedisRoundTrips {
+
+    private static final ThreadLocal<long[]> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder requestRoundTrips = new LongAdder();
+    private static final LongAdder backgroundRoundTrips = new LongAdder();
+    private static final AtomicLong maxPerRequest = new AtomicLong();
+
+    private RedisRoundTrips() {
+    }
+
+    /**
+     * 记录一次往返
+     */
+    static void record() {
+        long[] current = CURRENT_REQUEST.get();
+        if (current == null) {
+            backgroundRoundTrips.increment();
+        } else {
+            current[0]++;
+        }
+    }
+
+    /**
+     * 开始统计当前线程上的请求
+     */
+    static void beginRequest() {
+        CURRENT_REQUEST.set(new long[1]);
+    }
+
+    /**
+     * 结束统计当前线程上的请求
+     * @return 本次请求的往返次数
+     */
+    static long endRequest() {
+        long[] current = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.remove();
+        if (current == null) {
+            return 0;
+        }
+        requests.increment();
+        requestRoundTrips.add(current[0]);
+        maxPerRequest.accumulateAndGet(current[0], Math::max);
+        return current[0];
+    }
+
+    public static long getRequests() {
+        return requests.sum();
+    }
+
+    public static long getRequestRoundTrips() {
+        return requestRoundTrips.sum();
+    }
+
+    public static long getBackgroundRoundTrips() {
+        return backgroundRoundTrips.sum();
+    }
+
+    public static long getMaxPerRequest() {
+        return maxPerRequest.get();
+    }
+
+    /**
+     * 清零统计，用于切换配置前后的对比
+     */
+    public static void reset() {
+        requests.reset();
+        requestRoundTrips.reset();
+        backgroundRoundTrips.reset();
+        maxPerRequest.set(0);
+    }
+}
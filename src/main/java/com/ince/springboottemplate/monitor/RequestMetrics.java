@@ -0,0 +1,56 @@
+package com.ince.springboottemplate.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按接口记录的每请求资源消耗分布
+ * 以接口路径模板和请求方法为标签（与 http.server.requests 一致），未匹配到接口的请求记为 UNKNOWN；
+ * 直方图桶由 management.metrics.distribution.slo 配置。
+ */
+final class RequestMetrics {
+
+    static final String SQL_STATEMENTS = "app.request.sql.statements";
+
+    static final String REDIS_ROUND_TRIPS = "app.request.redis.round.trips";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    private final String name;
+
+    private final String description;
+
+    /**
+     * 路径模板数量有限，按 "方法 模板" 缓存，避免每个请求重新查找
+     */
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RequestMetrics(MeterRegistry meterRegistry, String name, String description) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.description = description;
+    }
+
+    void record(HttpServletRequest request, long amount) {
+        String method = request.getMethod();
+        String uri = uri(request);
+        summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder(name)
+                        .description(description)
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(amount);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String uri ? uri : UNKNOWN_URI;
+    }
+}
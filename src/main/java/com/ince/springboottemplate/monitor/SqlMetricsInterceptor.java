@@ -0,0 +1,115 @@
+package com.ince.springboottemplate.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 语句耗时和每请求语句数统计
+ * <ul>
+ *     <li>按 Mapper 语句（如 UserMapper.selectAuthByUsername）记录 app.sql 计时器，游标查询只计打开游标的耗时</li>
+ *     <li>BATCH 执行器中逐行的 update 只是加入批次，不计数；显式 flushStatements 时每个 JDBC 批次计一条语句，
+ *     与 Redis 管道合计一次往返的口径一致</li>
+ * </ul>
+ * 排在 MybatisPlusInterceptor 内层，分页插件发出的 count 查询也会被统计。
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "app.monitor.sql.enabled", havingValue = "true", matchIfMissing = true)
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    static final String STATEMENT_TIMER = "app.sql";
+
+    private static final String BATCH_COMMAND = "batch";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 按 "命令:语句ID" 缓存计时器
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            record(invocation.getArgs(), result, System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void record(Object[] args, Object result, long elapsedNanos) {
+        if (args.length == 0) {
+            // flushStatements：批次之间无法区分耗时，按批次数平均
+            List<BatchResult> batches = (List<BatchResult>) result;
+            if (batches == null || batches.isEmpty()) {
+                return;
+            }
+            long perBatch = elapsedNanos / batches.size();
+            for (BatchResult batch : batches) {
+                timer(batch.getMappedStatement(), BATCH_COMMAND).record(perBatch, TimeUnit.NANOSECONDS);
+            }
+            SqlStatements.record(batches.size());
+            return;
+        }
+        if (result instanceof Integer rows && rows == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            return;
+        }
+        MappedStatement statement = (MappedStatement) args[0];
+        timer(statement, statement.getSqlCommandType().name().toLowerCase(Locale.ROOT))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        SqlStatements.record(1);
+    }
+
+    private Timer timer(MappedStatement statement, String command) {
+        return timers.computeIfAbsent(command + ":" + statement.getId(), key -> Timer.builder(STATEMENT_TIMER)
+                .description("MyBatis 语句执行耗时")
+                .tag("statement", shortId(statement.getId()))
+                .tag("command", command)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 去掉包名，只保留 Mapper 类名和方法名
+     */
+    static String shortId(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int mapper = method > 0 ? statementId.lastIndexOf('.', method - 1) : -1;
+        return statementId.substring(mapper + 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ince.springboottemplate.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 按 HTTP 请求统计 SQL 语句数，记录到 app.request.sql.statements
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.monitor.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementFilter extends OncePerRequestFilter implements Ordered {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private RequestMetrics statementsPerRequest;
+
+    @PostConstruct
+    public void init() {
+        statementsPerRequest = new RequestMetrics(meterRegistry, RequestMetrics.SQL_STATEMENTS,
+                "每个 HTTP 请求执行的 SQL 语句数");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatements.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = SqlStatements.endRequest();
+            statementsPerRequest.record(request, statements);
+            if (log.isTraceEnabled()) {
+                log.trace("SQL 语句数: {} {} -> {}", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return SessionRepositoryFilter.DEFAULT_ORDER - 1;
+    }
+}
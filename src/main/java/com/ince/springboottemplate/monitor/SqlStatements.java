@@ -0,0 +1,41 @@
+package com.ince.springboottemplate.monitor;
+
+/**
+ * 每个 HTTP 请求发往数据库的 SQL 语句数
+ * 由 {@link SqlMetricsInterceptor} 在每条语句执行时记录，由 {@link SqlStatementFilter} 划定 HTTP 请求的边界，
+ * 用于发现 N+1 查询：同一个接口的语句数随数据量增长时，说明存在逐行查询。
+ */
+public final class SqlStatements {
+
+    private static final ThreadLocal<long[]> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private SqlStatements() {
+    }
+
+    /**
+     * 记录若干条语句，请求之外的语句不计入
+     */
+    static void record(int statements) {
+        long[] current = CURRENT_REQUEST.get();
+        if (current != null) {
+            current[0] += statements;
+        }
+    }
+
+    /**
+     * 开始统计当前线程上的请求
+     */
+    static void beginRequest() {
+        CURRENT_REQUEST.set(new long[1]);
+    }
+
+    /**
+     * 结束统计当前线程上的请求
+     * @return 本次请求的语句数
+     */
+    static long endRequest() {
+        long[] current = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.remove();
+        return current == null ? 0 : current[0];
+    }
+}
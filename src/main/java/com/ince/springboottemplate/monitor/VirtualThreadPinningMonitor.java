@@ -0,0 +1,136 @@
+package com.ince.springboottemplate.monitor;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程载体固定（pinning）诊断
+ * 通过 JFR 事件流订阅 jdk.VirtualThreadPinned，按调用栈归类到 Druid、Jedis 或其他位置，
+ * 并记录首个相关栈帧作为固定发生的位置，便于定位在 synchronized 或本地方法中阻塞的代码。
+ * 仅在虚拟线程模式下启用。
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String DRUID = "druid";
+    private static final String JEDIS = "jedis";
+    private static final String OTHER = "other";
+    private static final int MAX_SITES = 100;
+
+    @Value("${app.virtual-threads.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.virtual-threads.pinning.threshold-millis:20}")
+    private long thresholdMillis;
+
+    private RecordingStream recordingStream;
+
+    private final Map<String, LongAdder> pinnedByComponent = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private final LongAdder pinnedNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("虚拟线程固定诊断已启动: threshold={}ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedNanos.add(event.getDuration().toNanos());
+        String component = OTHER;
+        String site = "unknown";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (RecordedFrame frame : frames) {
+                String type = frame.getMethod().getType().getName();
+                String frameComponent = componentOf(type);
+                if (frameComponent != null) {
+                    component = frameComponent;
+                    site = type + "." + frame.getMethod().getName();
+                    break;
+                }
+            }
+            if (OTHER.equals(component) && !frames.isEmpty()) {
+                RecordedFrame top = frames.get(0);
+                site = top.getMethod().getType().getName() + "." + top.getMethod().getName();
+            }
+        }
+        pinnedByComponent.computeIfAbsent(component, key -> new LongAdder()).increment();
+        if (pinnedBySite.size() < MAX_SITES || pinnedBySite.containsKey(site)) {
+            pinnedBySite.computeIfAbsent(site, key -> new LongAdder()).increment();
+        }
+        log.warn("虚拟线程载体被固定: component={}, site={}, duration={}ms",
+                component, site, event.getDuration().toMillis());
+    }
+
+    private static String componentOf(String type) {
+        if (type.startsWith("com.alibaba.druid.")) {
+            return DRUID;
+        }
+        if (type.startsWith("redis.clients.jedis.")
+                || type.startsWith("org.springframework.data.redis.connection.jedis.")) {
+            return JEDIS;
+        }
+        return null;
+    }
+
+    /**
+     * 按组件统计的固定次数
+     */
+    public Map<String, Long> getPinnedByComponent() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String component : List.of(DRUID, JEDIS, OTHER)) {
+            LongAdder count = pinnedByComponent.get(component);
+            result.put(component, count == null ? 0L : count.sum());
+        }
+        return result;
+    }
+
+    /**
+     * 按位置统计的固定次数，最多记录 100 个位置
+     */
+    public Map<String, Long> getPinnedBySite() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        pinnedBySite.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue().sum()));
+        return result;
+    }
+
+    /**
+     * 固定累计时长（毫秒）
+     */
+    public long getPinnedMillis() {
+        return pinnedNanos.sum() / 1_000_000L;
+    }
+}
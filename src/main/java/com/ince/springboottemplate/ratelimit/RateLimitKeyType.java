@@ -0,0 +1,17 @@
+package com.ince.springboottemplate.ratelimit;
+
+/**
+ * 限流维度
+ */
+public enum RateLimitKeyType {
+
+    /**
+     * 按客户端 IP（{@link com.ince.springboottemplate.utils.IpUtils#getIpAddress}）
+     */
+    IP,
+
+    /**
+     * 按方法参数，取值由 SpEL 表达式给出，如用户名
+     */
+    PARAMETER
+}
@@ -0,0 +1,63 @@
+package com.ince.springboottemplate.ratelimit;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 Redis 的集群滑动窗口限流
+ * 每个 key 是一个有序集合，成员的分值为请求时间（毫秒）；一次 Lua 脚本调用完成
+ * 清理窗口外记录、计数和写入，只有一次 Redis 往返。时间取 Redis 服务端时间，避免各节点时钟偏差。
+ */
+@Component
+public class RedisSlidingWindowLimiter {
+
+    private static final String KEY_PREFIX = "rate:limit:";
+
+    /**
+     * 返回 0 表示放行，否则返回需要等待的毫秒数
+     */
+    private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>("""
+            if redis.replicate_commands then redis.replicate_commands() end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            local permits = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, now - window)
+            if redis.call('ZCARD', KEYS[1]) < permits then
+                redis.call('ZADD', KEYS[1], now, ARGV[3])
+                redis.call('PEXPIRE', KEYS[1], window)
+                return 0
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            return math.max(1, tonumber(oldest[2]) + window - now)
+            """, Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 尝试在窗口内记录一次请求
+     * @param name          限流名称
+     * @param key           限流维度的取值
+     * @param permits       窗口内允许的请求数
+     * @param windowSeconds 窗口长度（秒）
+     * @return 0 表示放行，否则为建议的重试等待毫秒数
+     */
+    public long tryAcquire(String name, String key, int permits, long windowSeconds) {
+        // 成员需要唯一，同一毫秒内的多次请求才会分别计数
+        String member = nodeId + ':' + sequence.incrementAndGet();
+        Long waitMillis = stringRedisTemplate.execute(SCRIPT, List.of(KEY_PREFIX + name + ':' + key),
+                String.valueOf(windowSeconds * 1000), String.valueOf(permits), member);
+        return waitMillis == null ? 0 : waitMillis;
+    }
+}
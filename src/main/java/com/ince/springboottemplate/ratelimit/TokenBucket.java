@@ -0,0 +1,38 @@
+package com.ince.springboottemplate.ratelimit;
+
+/**
+ * 令牌桶
+ * 按时间差惰性补充令牌，容量等于窗口内的请求数，补充速率为 容量 / 窗口长度。
+ * 单个桶只对应一个 key，竞争很小，直接使用 synchronized。
+ */
+public class TokenBucket {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, long windowSeconds) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (windowSeconds * 1_000_000_000D);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 尝试获取一个令牌
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
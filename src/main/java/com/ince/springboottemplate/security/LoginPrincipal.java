@@ -0,0 +1,41 @@
+package com.ince.springboottemplate.security;
+
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserVO;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 会话中保存的登录主体
+ * 只包含鉴权需要的字段，不可变；完整的用户信息按ID从缓存或数据库读取。
+ * 每次取用时与缓存中的用户资料比对，版本号、状态或角色不一致时按资料重建，冻结、封禁和角色调整对已有会话立即生效。
+ *
+ * @param id      用户ID
+ * @param role    角色码，见 {@link com.ince.springboottemplate.enums.UserRole}
+ * @param status  状态码，见 {@link com.ince.springboottemplate.enums.UserStatus}
+ * @param version 用户数据版本，即 users.version 乐观锁版本号，与资料中的版本号不一致说明登录主体已过期
+ */
+public record LoginPrincipal(long id, int role, int status, long version) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2841536219478052714L;
+
+    /**
+     * 根据用户实体创建登录主体，版本取用户的乐观锁版本号
+     */
+    public static LoginPrincipal of(User user) {
+        long version = user.getVersion() == null ? 0L : user.getVersion();
+        return new LoginPrincipal(user.getId(), user.getRole().getCode(), user.getStatus().getCode(), version);
+    }
+
+    /**
+     * 根据用户资料创建登录主体
+     */
+    public static LoginPrincipal of(UserVO profile) {
+        long version = profile.getVersion() == null ? 0L : profile.getVersion();
+        int role = profile.getRole() == null ? -1 : profile.getRole().getCode();
+        int status = profile.getStatus() == null ? -1 : profile.getStatus().getCode();
+        return new LoginPrincipal(profile.getId(), role, status, version);
+    }
+}
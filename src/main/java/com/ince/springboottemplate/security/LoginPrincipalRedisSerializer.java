@@ -0,0 +1,56 @@
+package com.ince.springboottemplate.security;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Spring Session 属性序列化器
+ * {@link LoginPrincipal} 使用定长二进制编码（27 字节），其他属性交给委托的序列化器处理。
+ * <p>
+ * 二进制格式：2 字节魔数 + 1 字节格式版本 + id(8) + role(4) + status(4) + version(8)。
+ * 委托序列化器输出的是 JSON，首字节不会与魔数冲突，因此新旧数据可以共存，
+ * 旧会话中的 JSON 数据仍按原方式反序列化。
+ */
+public class LoginPrincipalRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC_0 = (byte) 0xCA;
+    private static final byte MAGIC_1 = (byte) 0x5E;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int ENCODED_LENGTH = 3 + Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final RedisSerializer<Object> delegate;
+
+    public LoginPrincipalRedisSerializer(RedisSerializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof LoginPrincipal principal) {
+            return ByteBuffer.allocate(ENCODED_LENGTH)
+                    .put(MAGIC_0)
+                    .put(MAGIC_1)
+                    .put(FORMAT_VERSION)
+                    .putLong(principal.id())
+                    .putInt(principal.role())
+                    .putInt(principal.status())
+                    .putLong(principal.version())
+                    .array();
+        }
+        return delegate.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes != null && bytes.length == ENCODED_LENGTH && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1) {
+            if (bytes[2] != FORMAT_VERSION) {
+                throw new SerializationException("不支持的登录主体编码版本: " + bytes[2]);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 3, ENCODED_LENGTH - 3);
+            return new LoginPrincipal(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+        }
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ince.springboottemplate.security;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 旧版 MD5 密码哈希（32 位十六进制，无盐）
+ * 仅用于校验存量密码，校验通过后应升级为新算法。
+ */
+public class Md5PasswordHasher implements PasswordHasher {
+
+    private static final int MD5_HEX_LENGTH = 32;
+
+    @Override
+    public String hash(CharSequence rawPassword) {
+        return DigestUtils.md5DigestAsHex(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (!supports(encodedPassword)) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash(rawPassword).getBytes(StandardCharsets.US_ASCII),
+                encodedPassword.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean supports(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() != MD5_HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < MD5_HEX_LENGTH; i++) {
+            if (Character.digit(encodedPassword.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return true;
+    }
+}
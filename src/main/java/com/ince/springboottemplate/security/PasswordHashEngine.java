@@ -0,0 +1,205 @@
+package com.ince.springboottemplate.security;
+
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希引擎
+ * <ul>
+ *     <li>新密码统一使用 PBKDF2，旧的 MD5 哈希仍可校验，并通过 {@link #needsRehash} 提示登录时升级</li>
+ *     <li>哈希计算在独立的有界线程池中执行，登录高峰时排队或快速失败，不会占满 Tomcat 请求线程</li>
+ *     <li>启动时按目标耗时校准 PBKDF2 迭代次数</li>
+ *     <li>用户不存在时用 {@link #matchesDummy} 付出同样的哈希代价，登录耗时不会暴露用户名是否存在</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class PasswordHashEngine {
+
+    @Value("${app.password.iterations:210000}")
+    private int iterations;
+
+    @Value("${app.password.calibration.enabled:true}")
+    private boolean calibrationEnabled;
+
+    @Value("${app.password.calibration.target-millis:50}")
+    private long calibrationTargetMillis;
+
+    @Value("${app.password.calibration.min-iterations:100000}")
+    private int minIterations;
+
+    @Value("${app.password.calibration.max-iterations:1000000}")
+    private int maxIterations;
+
+    @Value("${app.password.executor.threads:0}")
+    private int threads;
+
+    @Value("${app.password.executor.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password.executor.timeout-millis:3000}")
+    private long timeoutMillis;
+
+    private Pbkdf2PasswordHasher currentHasher;
+
+    private List<PasswordHasher> hashers;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 按当前迭代次数生成的占位哈希，用户不存在时参与校验
+     */
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        currentHasher = new Pbkdf2PasswordHasher(iterations);
+        hashers = List.of(currentHasher, new Md5PasswordHasher());
+        if (calibrationEnabled) {
+            calibrate();
+        }
+        dummyHash = currentHasher.hash(UUID.randomUUID().toString());
+
+        // 哈希是纯 CPU 计算，线程数默认与 CPU 核数一致
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希引擎已启动: iterations={}, threads={}, queueCapacity={}",
+                currentHasher.getIterations(), poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 使用当前算法计算密码哈希
+     */
+    public String hash(String rawPassword) {
+        return execute(() -> currentHasher.hash(rawPassword));
+    }
+
+    /**
+     * 在调用线程中直接计算哈希，不经过登录使用的哈希线程池
+     * 只用于自带有界线程池的批量任务（如用户导入），避免批量任务挤占登录和注册
+     */
+    public String hashOnCurrentThread(String rawPassword) {
+        return currentHasher.hash(rawPassword);
+    }
+
+    /**
+     * 校验密码，自动识别存储哈希使用的算法
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        PasswordHasher hasher = hasherFor(encodedPassword);
+        if (hasher == null) {
+            return false;
+        }
+        return execute(() -> hasher.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 用占位哈希校验一次密码，结果总是 false
+     * 用户不存在时调用，与用户存在时的校验走同一个线程池、付出同样的代价
+     */
+    public boolean matchesDummy(String rawPassword) {
+        execute(() -> currentHasher.matches(rawPassword, dummyHash));
+        return false;
+    }
+
+    /**
+     * 存储的哈希是否需要升级为当前算法和参数
+     */
+    public boolean needsRehash(String encodedPassword) {
+        PasswordHasher hasher = hasherFor(encodedPassword);
+        return hasher != currentHasher || currentHasher.needsRehash(encodedPassword);
+    }
+
+    /**
+     * 当前 PBKDF2 迭代次数
+     */
+    public int getIterations() {
+        return currentHasher.getIterations();
+    }
+
+    private PasswordHasher hasherFor(String encodedPassword) {
+        for (PasswordHasher hasher : hashers) {
+            if (hasher.supports(encodedPassword)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码哈希线程池已满: active={}, queued={}", executor.getActiveCount(), executor.getQueue().size());
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "系统繁忙，请稍后重试");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码哈希超时: timeout={}ms", timeoutMillis);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "系统繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码哈希失败", e.getCause());
+        }
+    }
+
+    /**
+     * 按目标耗时校准迭代次数：PBKDF2 耗时与迭代次数近似线性，
+     * 先预热，再用固定迭代次数测量单次耗时后按比例换算。
+     */
+    private void calibrate() {
+        int probeIterations = 10_000;
+        byte[] salt = new byte[16];
+        for (int i = 0; i < 5; i++) {
+            currentHasher.derive("calibration", salt, probeIterations);
+        }
+        int rounds = 5;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            currentHasher.derive("calibration", salt, probeIterations);
+        }
+        double nanosPerIteration = (double) (System.nanoTime() - start) / rounds / probeIterations;
+        long target = (long) (calibrationTargetMillis * 1_000_000D / nanosPerIteration);
+        // 取整到千位，便于在存储的哈希中识别
+        int calibrated = (int) Math.max(minIterations, Math.min(maxIterations, target / 1000 * 1000));
+        currentHasher.setIterations(calibrated);
+        log.info("密码哈希校准完成: targetMillis={}, iterations={}", calibrationTargetMillis, calibrated);
+    }
+}
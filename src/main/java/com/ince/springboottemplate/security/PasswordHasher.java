@@ -0,0 +1,37 @@
+package com.ince.springboottemplate.security;
+
+/**
+ * 密码哈希算法
+ * 存储的哈希值需自描述（算法、参数、盐），以便在不同算法和参数之间平滑升级。
+ */
+public interface PasswordHasher {
+
+    /**
+     * 计算密码哈希
+     * @param rawPassword 明文密码
+     * @return 自描述的哈希字符串
+     */
+    String hash(CharSequence rawPassword);
+
+    /**
+     * 校验密码
+     * @param rawPassword     明文密码
+     * @param encodedPassword 存储的哈希字符串
+     * @return 是否匹配
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * 是否能识别该哈希字符串
+     * @param encodedPassword 存储的哈希字符串
+     * @return 是否由本算法生成
+     */
+    boolean supports(String encodedPassword);
+
+    /**
+     * 是否需要用当前参数重新计算哈希（算法过时或代价因子偏低）
+     * @param encodedPassword 存储的哈希字符串
+     * @return 是否需要升级
+     */
+    boolean needsRehash(String encodedPassword);
+}
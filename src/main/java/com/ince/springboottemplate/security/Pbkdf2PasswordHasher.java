@@ -0,0 +1,117 @@
+package com.ince.springboottemplate.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 密码哈希
+ * 存储格式：{@code $pbkdf2-sha256$迭代次数$盐(Base64)$哈希(Base64)}
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * 当前迭代次数，启动校准后可能被调整
+     */
+    private volatile int iterations;
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        setIterations(iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String hash(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        secureRandom.nextBytes(salt);
+        int currentIterations = iterations;
+        byte[] hash = derive(rawPassword, salt, currentIterations);
+        return PREFIX + currentIterations + '$' + ENCODER.encodeToString(salt) + '$' + ENCODER.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Parsed parsed = parse(encodedPassword);
+        if (parsed == null) {
+            return false;
+        }
+        byte[] actual = derive(rawPassword, parsed.salt(), parsed.iterations());
+        return MessageDigest.isEqual(actual, parsed.hash());
+    }
+
+    @Override
+    public boolean supports(String encodedPassword) {
+        return encodedPassword != null && encodedPassword.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        Parsed parsed = parse(encodedPassword);
+        return parsed == null || parsed.iterations() < iterations;
+    }
+
+    /**
+     * 按指定迭代次数计算一次哈希，供启动校准测量耗时
+     */
+    byte[] derive(CharSequence rawPassword, byte[] salt, int iterationCount) {
+        char[] chars = new char[rawPassword.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = rawPassword.charAt(i);
+        }
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterationCount, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 不可用", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private Parsed parse(String encodedPassword) {
+        if (!supports(encodedPassword)) {
+            return null;
+        }
+        int iterationsEnd = encodedPassword.indexOf('$', PREFIX.length());
+        int saltEnd = iterationsEnd < 0 ? -1 : encodedPassword.indexOf('$', iterationsEnd + 1);
+        if (iterationsEnd < 0 || saltEnd < 0) {
+            return null;
+        }
+        try {
+            int parsedIterations = Integer.parseInt(encodedPassword, PREFIX.length(), iterationsEnd, 10);
+            byte[] salt = DECODER.decode(encodedPassword.substring(iterationsEnd + 1, saltEnd));
+            byte[] hash = DECODER.decode(encodedPassword.substring(saltEnd + 1));
+            return parsedIterations > 0 ? new Parsed(parsedIterations, salt, hash) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Parsed(int iterations, byte[] salt, byte[] hash) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.model.vo.IpRegion;
+import com.ince.springboottemplate.services.IpLocationService;
+import com.ince.springboottemplate.utils.ClientIpResolver;
+import com.ince.springboottemplate.utils.IpUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于内存映射的 ip2region（xdb 格式）查询服务
+ * <ul>
+ *     <li>xdb 文件以只读方式映射到堆外内存，查询只做绝对位置读取，多线程并发查询无需加锁</li>
+ *     <li>解析后的归属地按 IPv4 整数值缓存在有界 LRU 中</li>
+ *     <li>配置了文件路径时定期检查文件修改时间，变化后重新映射并原子切换；
+ *         更新文件时应先写临时文件再重命名覆盖，避免原地改写正在映射的文件</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class IpLocationServiceImpl implements IpLocationService {
+
+    private static final int HEADER_INFO_LENGTH = 256;
+    private static final int VECTOR_INDEX_COLS = 256;
+    private static final int VECTOR_INDEX_SIZE = 8;
+    private static final int SEGMENT_INDEX_SIZE = 14;
+    private static final int MIN_FILE_SIZE = HEADER_INFO_LENGTH + 256 * VECTOR_INDEX_COLS * VECTOR_INDEX_SIZE;
+    private static final String UNKNOWN = "未知";
+
+    /**
+     * xdb 文件路径，为空时使用 classpath 下的 ip2region.xdb
+     */
+    @Value("${app.ip.region.db-path:}")
+    private String dbPath;
+
+    @Value("${app.ip.region.cache-size:100000}")
+    private int cacheSize;
+
+    @Value("${app.ip.region.cache-ttl-seconds:86400}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.ip.region.reload-check-seconds:60}")
+    private long reloadCheckSeconds;
+
+    private volatile XdbIndex index;
+
+    private LocalCache<Long, IpRegion> cache;
+
+    private ScheduledExecutorService reloadScheduler;
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalCache<>(cacheSize, cacheTtlSeconds);
+        reload();
+        if (StringUtils.isNotBlank(dbPath) && reloadCheckSeconds > 0) {
+            reloadScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ip-region-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloadScheduler.scheduleWithFixedDelay(this::reloadIfChanged,
+                    reloadCheckSeconds, reloadCheckSeconds, TimeUnit.SECONDS);
+        }
+        IpUtils.setIpLocationService(this);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public IpRegion search(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        long address = ClientIpResolver.parseIpv4(ip, 0, ip.length());
+        XdbIndex current = index;
+        if (address < 0 || current == null) {
+            return null;
+        }
+        IpRegion region = cache.get(address);
+        if (region != null) {
+            return region;
+        }
+        String raw = current.search(address);
+        if (raw == null) {
+            return null;
+        }
+        region = IpRegion.parse(raw);
+        cache.put(address, region);
+        return region;
+    }
+
+    @Override
+    public String getLocation(String ip) {
+        IpRegion region = search(ip);
+        return region == null ? UNKNOWN : region.displayLocation();
+    }
+
+    @Override
+    public synchronized boolean reload() {
+        try {
+            Path path = StringUtils.isNotBlank(dbPath) ? Path.of(dbPath) : extractClasspathDb();
+            if (path == null) {
+                log.warn("未找到 ip2region.xdb，IP 归属地查询不可用");
+                return false;
+            }
+            index = XdbIndex.map(path);
+            cache.invalidateAll();
+            log.info("IP 库加载完成: path={}, size={}", path, index.size);
+            return true;
+        } catch (Exception e) {
+            log.error("IP 库加载失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public LocalCache.CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    private void reloadIfChanged() {
+        try {
+            XdbIndex current = index;
+            Path path = Path.of(dbPath);
+            if (!Files.exists(path)) {
+                return;
+            }
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long size = Files.size(path);
+            if (current == null || current.lastModified != lastModified || current.size != size) {
+                log.info("检测到 IP 库文件变化，重新加载: {}", path);
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("检查 IP 库文件失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * classpath 中的资源可能位于 jar 内，先复制到临时文件再映射
+     */
+    private Path extractClasspathDb() throws IOException {
+        ClassPathResource resource = new ClassPathResource("ip2region.xdb");
+        if (!resource.exists()) {
+            return null;
+        }
+        if (resource.isFile()) {
+            return resource.getFile().toPath();
+        }
+        Path tempFile = Files.createTempFile("ip2region", ".xdb");
+        tempFile.toFile().deleteOnExit();
+        try (InputStream inputStream = resource.getInputStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tempFile;
+    }
+
+    /**
+     * 已映射的 xdb 文件，只读且不可变，可被多线程共享
+     */
+    private static final class XdbIndex {
+
+        private final MappedByteBuffer buffer;
+        private final long size;
+        private final long lastModified;
+
+        private XdbIndex(MappedByteBuffer buffer, long size, long lastModified) {
+            this.buffer = buffer;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        static XdbIndex map(Path path) throws IOException {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < MIN_FILE_SIZE || size > Integer.MAX_VALUE) {
+                    throw new IOException("非法的 xdb 文件大小: " + size);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return new XdbIndex(buffer, size, lastModified);
+            }
+        }
+
+        /**
+         * 先按 IP 前两段定位向量索引，再在对应的段索引区间内二分查找
+         */
+        String search(long ip) {
+            int il0 = (int) (ip >>> 24) & 0xFF;
+            int il1 = (int) (ip >>> 16) & 0xFF;
+            int vectorOffset = HEADER_INFO_LENGTH + il0 * VECTOR_INDEX_COLS * VECTOR_INDEX_SIZE + il1 * VECTOR_INDEX_SIZE;
+            long startPtr = Integer.toUnsignedLong(buffer.getInt(vectorOffset));
+            long endPtr = Integer.toUnsignedLong(buffer.getInt(vectorOffset + 4));
+
+            long low = 0;
+            long high = (endPtr - startPtr) / SEGMENT_INDEX_SIZE;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                int position = (int) (startPtr + middle * SEGMENT_INDEX_SIZE);
+                long startIp = Integer.toUnsignedLong(buffer.getInt(position));
+                if (ip < startIp) {
+                    high = middle - 1;
+                    continue;
+                }
+                long endIp = Integer.toUnsignedLong(buffer.getInt(position + 4));
+                if (ip > endIp) {
+                    low = middle + 1;
+                    continue;
+                }
+                int dataLength = Short.toUnsignedInt(buffer.getShort(position + 8));
+                int dataPtr = buffer.getInt(position + 10);
+                byte[] data = new byte[dataLength];
+                buffer.get(dataPtr, data);
+                return new String(data, StandardCharsets.UTF_8);
+            }
+            return null;
+        }
+    }
+}
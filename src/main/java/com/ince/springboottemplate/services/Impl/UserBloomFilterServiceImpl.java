@@ -0,0 +1,382 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.cache.BloomFilter;
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserBloomFilterStatsVO;
+import com.ince.springboottemplate.services.UserBloomFilterService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import com.ince.springboottemplate.utils.UserValidationUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户名/邮箱布隆过滤器实现
+ * <ul>
+ *     <li>用户名和邮箱转为小写并去掉重音后分别加上 {@code u:}、{@code e:} 前缀写入同一个过滤器，与 MySQL 默认的大小写、重音不敏感排序规则一致</li>
+ *     <li>启动时在后台线程流式扫描用户表构建，构建完成前不拦截任何请求</li>
+ *     <li>开启 Redis 镜像时，新写入的位同时写入 Redis 位图；本地判定不存在时再用一条 BITFIELD 查询 Redis，
+ *     以便看到其他节点注册的用户。位图末尾额外有一个哨兵位，哨兵位为 0 说明位图丢失，此时放行并在后台重新上传</li>
+ *     <li>过滤器只会多报，不会漏报；已删除或改掉的用户名、邮箱仍会命中，直到下次重建</li>
+ *     <li>按固定间隔在后台重建，绕过应用写入的用户（直接执行 SQL、重新分片）最迟在下次重建后可见</li>
+ * </ul>
+ * 只有开启 Redis 镜像或显式声明单节点部署时才拦截判定为不存在的请求：
+ * 否则其他节点注册的用户在本节点会被误判为不存在，登录被拒绝，此时过滤器只统计、不拦截。
+ */
+@Service
+@Slf4j
+public class UserBloomFilterServiceImpl implements UserBloomFilterService {
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Value("${app.user-bloom-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-bloom-filter.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.user-bloom-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.user-bloom-filter.redis-mirror:true}")
+    private boolean redisMirror;
+
+    @Value("${app.user-bloom-filter.single-node:false}")
+    private boolean singleNode;
+
+    @Value("${app.user-bloom-filter.rebuild-interval-minutes:60}")
+    private long rebuildIntervalMinutes;
+
+    /**
+     * 判定不存在时是否拦截：需要开启 Redis 镜像或声明单节点部署
+     */
+    private boolean shortCircuit;
+
+    /**
+     * 当前使用的过滤器；大小只由配置决定，保证各节点的 Redis 位图 key 一致
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * 重建中的过滤器，重建期间新写入的 key 同时写入新旧两个过滤器
+     */
+    private volatile BloomFilter building;
+
+    /**
+     * 重建期间新写入的 key，位图上传后补写到 Redis
+     */
+    private final Queue<String> addedDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder redisChecks = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+    private volatile long lastRebuildRows;
+    private volatile long lastRebuildMillis;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        shortCircuit = redisMirror || singleNode;
+        if (!shortCircuit) {
+            log.warn("用户布隆过滤器未开启 Redis 镜像且未声明单节点部署，只统计不拦截；"
+                    + "多节点部署请开启 app.user-bloom-filter.redis-mirror，单节点部署请设置 app.user-bloom-filter.single-node");
+        }
+        // 用户名和邮箱各占一个元素
+        filter = BloomFilter.create(expectedUsers * 2, falsePositiveRate);
+        executor = Executors.newSingleThreadScheduledExecutor(appThreadFactory.newThreadFactory("user-bloom-filter"));
+        executor.execute(() -> doRebuild(false));
+        if (rebuildIntervalMinutes > 0) {
+            // 定期重建时覆盖 Redis 位图，把绕过应用写入的用户同步给所有节点
+            executor.scheduleWithFixedDelay(() -> doRebuild(true),
+                    rebuildIntervalMinutes, rebuildIntervalMinutes, TimeUnit.MINUTES);
+        }
+        log.info("用户布隆过滤器: expectedUsers={}, falsePositiveRate={}, bitSize={}, hashFunctions={}, redisMirror={}, "
+                        + "shortCircuit={}, rebuildIntervalMinutes={}",
+                expectedUsers, falsePositiveRate, filter.getBitSize(), filter.getHashFunctions(), redisMirror,
+                shortCircuit, rebuildIntervalMinutes);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean mightContainUsername(String username) {
+        return username == null || mightContain(USERNAME_PREFIX + UserValidationUtils.fold(username));
+    }
+
+    @Override
+    public boolean mightContainEmail(String email) {
+        return email == null || mightContain(EMAIL_PREFIX + UserValidationUtils.fold(email));
+    }
+
+    @Override
+    public void add(String username, String email) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(2);
+        if (username != null && !username.isBlank()) {
+            keys.add(USERNAME_PREFIX + UserValidationUtils.fold(username));
+        }
+        if (email != null && !email.isBlank()) {
+            keys.add(EMAIL_PREFIX + UserValidationUtils.fold(email));
+        }
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        List<long[]> indexes = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            current.put(key);
+            if (next != null) {
+                next.put(key);
+                if (redisMirror) {
+                    addedDuringRebuild.add(key);
+                }
+            }
+            indexes.add(current.indexes(key));
+        }
+        if (redisMirror && !indexes.isEmpty()) {
+            try {
+                setRemoteBits(current, indexes);
+            } catch (Exception e) {
+                // 其他节点看不到这次写入，重新上传完整位图
+                redisErrors.increment();
+                log.warn("写入用户布隆过滤器 Redis 位图失败，将重新上传: {}", e.getMessage());
+                scheduleRebuild();
+            }
+        }
+    }
+
+    @Override
+    public boolean rebuild() {
+        return enabled && doRebuild(true);
+    }
+
+    @Override
+    public UserBloomFilterStatsVO getStats() {
+        UserBloomFilterStatsVO stats = new UserBloomFilterStatsVO();
+        stats.setEnabled(enabled);
+        stats.setReady(ready);
+        stats.setRebuilding(rebuilding.get());
+        stats.setRedisMirror(redisMirror);
+        stats.setShortCircuit(shortCircuit);
+        stats.setExpectedUsers(expectedUsers);
+        stats.setFalsePositiveRate(falsePositiveRate);
+        BloomFilter current = filter;
+        if (current != null) {
+            stats.setBitSize(current.getBitSize());
+            stats.setHashFunctions(current.getHashFunctions());
+            stats.setFillRatio((double) current.getBitCount() / current.getBitSize());
+            stats.setApproximateElements(current.approximateElementCount());
+            stats.setEstimatedFalsePositiveRate(current.expectedFalsePositiveRate());
+        }
+        stats.setChecks(checks.sum());
+        stats.setDefiniteMisses(definiteMisses.sum());
+        stats.setRedisChecks(redisChecks.sum());
+        stats.setRedisErrors(redisErrors.sum());
+        stats.setLastRebuildRows(lastRebuildRows);
+        stats.setLastRebuildMillis(lastRebuildMillis);
+        return stats;
+    }
+
+    private boolean mightContain(String key) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        checks.increment();
+        BloomFilter current = filter;
+        if (current.mightContain(key)) {
+            return true;
+        }
+        if (redisMirror) {
+            long[] indexes = current.indexes(key);
+            if (mightContainRemote(current, indexes)) {
+                // 其他节点写入的 key，同步到本地后下次不再查询 Redis
+                current.setBits(indexes);
+                return true;
+            }
+        }
+        definiteMisses.increment();
+        return !shortCircuit;
+    }
+
+    /**
+     * 查询 Redis 位图，位图丢失或 Redis 不可用时按可能存在处理
+     */
+    private boolean mightContainRemote(BloomFilter current, long[] indexes) {
+        redisChecks.increment();
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long index : indexes) {
+            commands = commands.get(BitFieldType.unsigned(1)).valueAt(index);
+        }
+        // 最后一位是哨兵位
+        commands = commands.get(BitFieldType.unsigned(1)).valueAt(current.getBitSize());
+        List<Long> bits;
+        try {
+            bits = stringRedisTemplate.opsForValue().bitField(redisKey(current), commands);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("查询用户布隆过滤器 Redis 位图失败: {}", e.getMessage());
+            return true;
+        }
+        if (bits == null || bits.size() != indexes.length + 1) {
+            return true;
+        }
+        if (bits.get(indexes.length) == 0) {
+            log.warn("用户布隆过滤器 Redis 位图不存在，将重新上传");
+            scheduleRebuild();
+            return true;
+        }
+        for (int i = 0; i < indexes.length; i++) {
+            if (bits.get(i) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setRemoteBits(BloomFilter current, List<long[]> indexes) {
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long[] keyIndexes : indexes) {
+            for (long index : keyIndexes) {
+                commands = commands.set(BitFieldType.unsigned(1)).valueAt(index).to(1);
+            }
+        }
+        stringRedisTemplate.opsForValue().bitField(redisKey(current), commands);
+    }
+
+    private void scheduleRebuild() {
+        if (executor == null || rebuilding.get()) {
+            return;
+        }
+        try {
+            executor.execute(() -> doRebuild(true));
+        } catch (RejectedExecutionException e) {
+            // 应用正在关闭
+        }
+    }
+
+    /**
+     * 流式扫描用户表（分片后逐个物理表）构建新过滤器，完成后替换当前过滤器
+     * @param forceUpload 是否总是覆盖 Redis 位图；启动时只在位图不存在时上传
+     */
+    private boolean doRebuild(boolean forceUpload) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            BloomFilter next = BloomFilter.create(expectedUsers * 2, falsePositiveRate);
+            addedDuringRebuild.clear();
+            building = next;
+            long[] rows = new long[1];
+            userShardRouter.forEachTable(table -> userMapper.scanIdentities(context -> {
+                User user = context.getResultObject();
+                next.put(USERNAME_PREFIX + UserValidationUtils.fold(user.getUsername()));
+                if (user.getEmail() != null) {
+                    next.put(EMAIL_PREFIX + UserValidationUtils.fold(user.getEmail()));
+                }
+                rows[0]++;
+            }));
+            if (redisMirror) {
+                uploadIfNeeded(next, forceUpload);
+            }
+            filter = next;
+            ready = true;
+            lastRebuildRows = rows[0];
+            lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+            if (rows[0] > expectedUsers) {
+                log.warn("用户数 {} 已超过布隆过滤器的预期用户数 {}，误判率会升高，请调大 app.user-bloom-filter.expected-users",
+                        rows[0], expectedUsers);
+            }
+            log.info("用户布隆过滤器重建完成: rows={}, cost={}ms", rows[0], lastRebuildMillis);
+            return true;
+        } catch (Exception e) {
+            // 失败时保留旧过滤器；首次构建失败则保持未就绪，全部放行
+            log.error("用户布隆过滤器重建失败", e);
+            return false;
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 上传完整位图：写入临时 key、置哨兵位后重命名，替换过程对读取方是原子的；
+     * 之后补写重建期间新增的 key，避免它们在重命名时被覆盖
+     */
+    private void uploadIfNeeded(BloomFilter next, boolean force) {
+        String key = redisKey(next);
+        if (!force && Boolean.TRUE.equals(stringRedisTemplate.opsForValue().getBit(key, next.getBitSize()))) {
+            return;
+        }
+        String tempKey = key + ":rebuild";
+        byte[] bitmap = next.toRedisBitmap();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] rawTempKey = tempKey.getBytes(StandardCharsets.UTF_8);
+            connection.stringCommands().set(rawTempKey, bitmap);
+            connection.stringCommands().setBit(rawTempKey, next.getBitSize(), true);
+            connection.keyCommands().rename(rawTempKey, key.getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+        List<long[]> replay = new ArrayList<>();
+        String added;
+        while ((added = addedDuringRebuild.poll()) != null) {
+            replay.add(next.indexes(added));
+        }
+        if (!replay.isEmpty()) {
+            setRemoteBits(next, replay);
+        }
+        log.info("用户布隆过滤器位图已上传: key={}, bytes={}", key, bitmap.length);
+    }
+
+    private static String redisKey(BloomFilter filter) {
+        return UserConstant.USER_BLOOM_KEY_PREFIX + filter.getBitSize() + ":" + filter.getHashFunctions();
+    }
+}
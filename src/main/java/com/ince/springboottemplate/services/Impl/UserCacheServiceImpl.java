@@ -0,0 +1,171 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.cache.UserCacheInvalidationBus;
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.services.UserCacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 用户两级缓存实现
+ * L1 为进程内有界缓存，L2 为 Redis，Redis 不可用时直接回源数据库。
+ * 失效时除了本节点的两级缓存，还会通过失效总线通知其他节点剔除 L1。
+ */
+@Service
+@Slf4j
+public class UserCacheServiceImpl implements UserCacheService {
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private UserCacheInvalidationBus invalidationBus;
+
+    @Value("${app.user-cache.local.max-size:10000}")
+    private int localMaxSize;
+
+    @Value("${app.user-cache.local.ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${app.user-cache.redis.enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${app.user-cache.redis.ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    private LocalCache<Long, UserVO> localCache;
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localCache = new LocalCache<>(localMaxSize, localTtlSeconds);
+        invalidationBus.register(localCache::invalidate, localCache::invalidateAll);
+    }
+
+    @Override
+    public UserVO get(Long userId, Function<Long, UserVO> loader) {
+        if (userId == null) {
+            return null;
+        }
+        // 1. 本地缓存
+        UserVO user = localCache.get(userId);
+        if (user != null) {
+            return user;
+        }
+
+        // 2. Redis 缓存
+        String key = UserConstant.USER_CACHE_KEY_PREFIX + userId;
+        if (redisEnabled) {
+            try {
+                Object cached = redisTemplate.opsForValue().get(key);
+                if (cached instanceof UserVO redisUser) {
+                    redisHits.increment();
+                    localCache.put(userId, redisUser);
+                    return redisUser;
+                }
+                redisMisses.increment();
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("读取用户缓存失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+
+        // 3. 回源数据库
+        loads.increment();
+        user = loader.apply(userId);
+        if (user == null) {
+            return null;
+        }
+        localCache.put(userId, user);
+        if (redisEnabled) {
+            try {
+                redisTemplate.opsForValue().set(key, user, redisTtlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("写入用户缓存失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        localCache.invalidate(userId);
+        if (redisEnabled) {
+            try {
+                redisTemplate.delete(UserConstant.USER_CACHE_KEY_PREFIX + userId);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("删除用户缓存失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+        // 通知其他节点剔除本地缓存
+        invalidationBus.publish(userId);
+    }
+
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (userId != null) {
+                localCache.invalidate(userId);
+                keys.add(UserConstant.USER_CACHE_KEY_PREFIX + userId);
+            }
+        }
+        if (redisEnabled && !keys.isEmpty()) {
+            try {
+                // UNLINK 在后台释放内存，多个 key 一条命令
+                redisTemplate.unlink(keys);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("批量删除用户缓存失败: count={}, error={}", keys.size(), e.getMessage());
+            }
+        }
+        invalidationBus.publish(userIds);
+    }
+
+    @Override
+    public UserCacheStatsVO getStats() {
+        LocalCache.CacheStats stats = localCache.stats();
+        UserCacheStatsVO statsVO = new UserCacheStatsVO();
+        statsVO.setLocalSize(stats.size());
+        statsVO.setLocalHits(stats.hits());
+        statsVO.setLocalMisses(stats.misses());
+        statsVO.setLocalEvictions(stats.evictions());
+        statsVO.setLocalExpirations(stats.expirations());
+        statsVO.setLocalHitRate(stats.hitRate());
+        statsVO.setRedisHits(redisHits.sum());
+        statsVO.setRedisMisses(redisMisses.sum());
+        statsVO.setRedisErrors(redisErrors.sum());
+        statsVO.setLoads(loads.sum());
+        statsVO.setInvalidationsPublished(invalidationBus.getPublished());
+        statsVO.setInvalidationsReceived(invalidationBus.getReceived());
+        statsVO.setInvalidationsIgnored(invalidationBus.getIgnored());
+        statsVO.setFullFlushes(invalidationBus.getFullFlushes());
+        return statsVO;
+    }
+}
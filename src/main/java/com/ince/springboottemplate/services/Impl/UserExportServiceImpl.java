@@ -0,0 +1,145 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.export.UserExportWriter;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.services.UserExportService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 用户数据导出实现
+ * 每个导出任务独占一个 SqlSession，通过只进游标逐行读取并直接写入响应，
+ * 同时进行的导出数受信号量限制，每个任务只占用一个数据库连接，且按配置限速，不会占满 Druid 连接池。
+ * 用户表分片后逐个物理表读取，同一时间只打开一个游标，输出在每个分片内按ID有序。
+ */
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
+    @Value("${app.user-export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${app.user-export.max-rows-per-second:20000}")
+    private long maxRowsPerSecond;
+
+    @Value("${app.user-export.flush-rows:1000}")
+    private int flushRows;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public StreamingResponseBody exportUsers(ExportFormat format, Integer status) {
+        // 提前检查，响应头发出前就能返回明确的错误
+        if (permits.availablePermits() == 0) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST_ERROR, "已有导出任务在进行，请稍后再试");
+        }
+        UserExportWriter writer = new UserExportWriter(format, maxRowsPerSecond, flushRows);
+        return out -> {
+            // 许可在响应体内获取和释放，客户端提前断开时也不会泄漏
+            if (!permits.tryAcquire()) {
+                throw new IllegalStateException("已有导出任务在进行");
+            }
+            long start = System.currentTimeMillis();
+            try (SqlSession sqlSession = sqlSessionFactory.openSession();
+                 ShardCursors cursors = new ShardCursors(sqlSession.getMapper(UserMapper.class), status)) {
+                long rows = writer.write(cursors, out);
+                log.info("用户导出完成: format={}, status={}, rows={}, cost={}ms",
+                        format, status, rows, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.warn("用户导出中断: format={}, status={}, error={}", format, status, e.getMessage());
+                throw e;
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * 依次打开每个物理表的游标，前一个读完并关闭后再打开下一个
+     */
+    private class ShardCursors implements Iterator<UserVO>, Closeable {
+
+        private final UserMapper userMapper;
+
+        private final Integer status;
+
+        private final Iterator<String> tables = userShardRouter.tables().iterator();
+
+        private Cursor<UserVO> cursor;
+
+        private Iterator<UserVO> rows;
+
+        private ShardCursors(UserMapper userMapper, Integer status) {
+            this.userMapper = userMapper;
+            this.status = status;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (rows == null || !rows.hasNext()) {
+                closeCursor();
+                if (!tables.hasNext()) {
+                    return false;
+                }
+                cursor = userShardRouter.onTable(tables.next(), () -> userMapper.streamForExport(status));
+                rows = cursor.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public UserVO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return rows.next();
+        }
+
+        @Override
+        public void close() {
+            closeCursor();
+        }
+
+        private void closeCursor() {
+            if (cursor == null) {
+                return;
+            }
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                log.warn("关闭导出游标失败: {}", e.getMessage());
+            }
+            cursor = null;
+            rows = null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.ince.springboottemplate.mapper.UserLookupMapper;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.entity.UserLookup;
+import com.ince.springboottemplate.services.UserIdentityService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import jakarta.annotation.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户身份读写实现
+ * 分片后每个用户在 user_lookup 中有用户名、邮箱各一条记录，主键冲突即表示已被占用；
+ * 查找表与分片表在同一个数据库中，写入用本地事务保证不会留下只写了一半的用户。
+ */
+@Service
+public class UserIdentityServiceImpl implements UserIdentityService {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserLookupMapper userLookupMapper;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
+    @Resource
+    private IdentifierGenerator identifierGenerator;
+
+    @Override
+    public User selectAuthByUsername(String username) {
+        if (!userShardRouter.isSharded()) {
+            return userMapper.selectAuthByUsername(username);
+        }
+        Long userId = userLookupMapper.selectUserId(UserLookup.TYPE_USERNAME, username);
+        if (userId == null) {
+            return null;
+        }
+        // 仍按用户名查询分片表，走覆盖索引，同时排除查找表中残留的旧记录
+        return userShardRouter.onUser(userId, () -> userMapper.selectAuthByUsername(username));
+    }
+
+    @Override
+    public List<User> selectRegistrationConflicts(String username, String email) {
+        if (!userShardRouter.isSharded()) {
+            return userMapper.selectRegistrationConflicts(username, email);
+        }
+        return toIdentities(userLookupMapper.selectByValues(List.of(username), List.of(email)));
+    }
+
+    @Override
+    public List<User> selectExistingIdentities(Collection<String> usernames, Collection<String> emails) {
+        if (!userShardRouter.isSharded()) {
+            return userMapper.selectExistingIdentities(usernames, emails);
+        }
+        return toIdentities(userLookupMapper.selectByValues(usernames, emails));
+    }
+
+    @Override
+    public boolean existsByEmailExcludingId(String email, Long excludeId) {
+        if (!userShardRouter.isSharded()) {
+            return userMapper.existsByEmailExcludingId(email, excludeId);
+        }
+        Long owner = userLookupMapper.selectUserId(UserLookup.TYPE_EMAIL, email);
+        return owner != null && !owner.equals(excludeId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean insert(User user) {
+        assignId(user);
+        if (userShardRouter.isSharded()) {
+            claim(UserLookup.of(UserLookup.TYPE_USERNAME, user.getUsername(), user.getId()), "username");
+            if (user.getEmail() != null) {
+                claim(UserLookup.of(UserLookup.TYPE_EMAIL, user.getEmail(), user.getId()), "email");
+            }
+        }
+        return userShardRouter.onUser(user.getId(), () -> userMapper.insert(user)) > 0;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void insertBatch(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        for (User user : users) {
+            assignId(user);
+        }
+        if (userShardRouter.isSharded()) {
+            List<UserLookup> lookups = new ArrayList<>(users.size() * 2);
+            for (User user : users) {
+                UserLookup.addAll(lookups, user);
+            }
+            userLookupMapper.insertBatch(lookups);
+        }
+        // 按物理表分组，每组单独一个 JDBC 批次：
+        // 批处理执行器按改写前的 SQL 判断能否复用语句，不同表的行混在一起会写进同一个表
+        Map<String, List<User>> byTable = new LinkedHashMap<>();
+        for (User user : users) {
+            byTable.computeIfAbsent(userShardRouter.getLayout().tableOf(user.getId()), table -> new ArrayList<>())
+                    .add(user);
+        }
+        byTable.forEach((table, group) -> userShardRouter.onTable(table, () -> Db.saveBatch(group, group.size())));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean update(LambdaUpdateWrapper<User> updateWrapper, Long userId, String newEmail) {
+        int updated = userShardRouter.onUser(userId, () -> userMapper.update(null, updateWrapper));
+        if (updated == 0) {
+            return false;
+        }
+        if (userShardRouter.isSharded() && newEmail != null) {
+            // 先更新用户行再占用新邮箱，版本冲突时不需要撤销占用；占用失败时事务回滚用户行的修改
+            Long owner = userLookupMapper.selectUserId(UserLookup.TYPE_EMAIL, newEmail);
+            if (owner == null) {
+                claim(UserLookup.of(UserLookup.TYPE_EMAIL, newEmail, userId), "email");
+            } else if (!owner.equals(userId)) {
+                throw duplicate("email");
+            }
+            userLookupMapper.deleteOtherEmails(userId, newEmail);
+        }
+        return true;
+    }
+
+    private void assignId(User user) {
+        // 写入前确定ID才能确定分片
+        if (user.getId() == null) {
+            user.setId(identifierGenerator.nextId(user).longValue());
+        }
+    }
+
+    private void claim(UserLookup lookup, String field) {
+        try {
+            userLookupMapper.insert(lookup);
+        } catch (DuplicateKeyException e) {
+            throw duplicate(field);
+        }
+    }
+
+    /**
+     * 查找表只有一个主键，冲突信息里看不出是哪一列；按写入的记录重新构造异常，信息中只包含冲突的字段名
+     */
+    private static DuplicateKeyException duplicate(String field) {
+        return new DuplicateKeyException("Duplicate entry for key 'user_lookup." + field + "'");
+    }
+
+    /**
+     * 把查找记录转换为只填充用户名或邮箱的用户，与未分片时的查询结果形式一致
+     */
+    private static List<User> toIdentities(List<UserLookup> lookups) {
+        List<User> identities = new ArrayList<>(lookups.size());
+        for (UserLookup lookup : lookups) {
+            User identity = new User();
+            if (lookup.getLookupType() == UserLookup.TYPE_USERNAME) {
+                identity.setUsername(lookup.getLookupValue());
+            } else {
+                identity.setEmail(lookup.getLookupValue());
+            }
+            identities.add(identity);
+        }
+        return identities;
+    }
+}
@@ -0,0 +1,460 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.concurrent.AppThreadFactory;
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.importer.UserImportReader;
+import com.ince.springboottemplate.importer.UserImportRow;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserImportErrorVO;
+import com.ince.springboottemplate.model.vo.UserImportResultVO;
+import com.ince.springboottemplate.security.PasswordHashEngine;
+import com.ince.springboottemplate.services.UserBloomFilterService;
+import com.ince.springboottemplate.services.UserIdentityService;
+import com.ince.springboottemplate.services.UserImportService;
+import com.ince.springboottemplate.utils.DuplicateKeyUtils;
+import com.ince.springboottemplate.utils.UserValidationUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 用户批量导入实现
+ * <ul>
+ *     <li>逐行读取文件，按 batch-size 分批处理，内存占用只与批大小和本次导入的去重集合有关</li>
+ *     <li>校验规则与注册接口一致（{@link UserValidationUtils}）</li>
+ *     <li>去重按批进行：先在本次导入已处理的用户名/邮箱中查找，再用一次 IN 查询与数据库比对，不逐行查询</li>
+ *     <li>密码哈希在独立的有界线程池中并行计算，默认只用一半 CPU，不占用登录使用的哈希线程池</li>
+ *     <li>每批在一个事务中以 JDBC 批处理写入（连接串开启 rewriteBatchedStatements 后合并为多行 INSERT），
+ *     分片后按物理表分组并同时写入查找表；整批失败时回滚并逐行重试，定位冲突行</li>
+ *     <li>每批提交后记录断点；断点写入前中断的批次重新导入时会被判定为已存在，不会重复写入</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Pattern IMPORT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Resource
+    private UserIdentityService userIdentityService;
+
+    @Resource
+    private PasswordHashEngine passwordHashEngine;
+
+    @Resource
+    private UserBloomFilterService userBloomFilterService;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private AppThreadFactory appThreadFactory;
+
+    @Value("${app.user-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.user-import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${app.user-import.checkpoint-ttl-hours:168}")
+    private long checkpointTtlHours;
+
+    @Value("${app.user-import.max-reported-errors:10000}")
+    private int maxReportedErrors;
+
+    /**
+     * 导入ID -> 任务，只保留最近一天
+     */
+    private final LocalCache<String, ImportJob> jobs = new LocalCache<>(100, 24 * 3600);
+
+    private final AtomicBoolean importing = new AtomicBoolean();
+
+    private ThreadPoolExecutor hashExecutor;
+
+    private ExecutorService jobExecutor;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // 队列满时由导入线程自己计算，形成背压
+        hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, batchSize)),
+                Thread.ofPlatform().name("user-import-hash-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        jobExecutor = Executors.newSingleThreadExecutor(appThreadFactory.newThreadFactory("user-import"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        jobExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResultVO importUsers(InputStream in, ExportFormat format, String importId) {
+        ImportJob job = startJob(importId);
+        try {
+            runJob(job, in, format);
+        } finally {
+            importing.set(false);
+        }
+        return job.toVO();
+    }
+
+    @Override
+    public UserImportResultVO submitImport(MultipartFile file, ExportFormat format, String importId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "导入文件为空");
+        }
+        ImportJob job = startJob(importId);
+        Path tempFile;
+        try {
+            // 上传的临时文件在请求结束后会被删除，后台任务读取自己的副本
+            tempFile = Files.createTempFile("user-import-", "." + format.getExtension());
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            importing.set(false);
+            log.error("保存导入文件失败: importId={}", job.importId, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "保存导入文件失败");
+        }
+        jobExecutor.execute(() -> {
+            try (InputStream in = Files.newInputStream(tempFile)) {
+                runJob(job, in, format);
+            } catch (IOException e) {
+                job.fail("读取导入文件失败");
+            } finally {
+                importing.set(false);
+                deleteQuietly(tempFile);
+            }
+        });
+        return job.toVO();
+    }
+
+    @Override
+    public UserImportResultVO getImport(String importId) {
+        ImportJob job = importId == null ? null : jobs.get(importId);
+        if (job == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "导入任务不存在或已过期");
+        }
+        return job.toVO();
+    }
+
+    private ImportJob startJob(String importId) {
+        if (importId != null && !IMPORT_ID_PATTERN.matcher(importId).matches()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "导入ID只能包含字母、数字、下划线和短横线，最长64位");
+        }
+        if (!importing.compareAndSet(false, true)) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST_ERROR, "已有导入任务在进行，请稍后再试");
+        }
+        ImportJob job = new ImportJob(importId != null ? importId : UUID.randomUUID().toString().replace("-", ""));
+        jobs.put(job.importId, job);
+        return job;
+    }
+
+    private void runJob(ImportJob job, InputStream in, ExportFormat format) {
+        long start = System.currentTimeMillis();
+        long checkpoint = readCheckpoint(job.importId);
+        // 本次导入已处理的用户名和邮箱（小写），用于发现文件内的重复行
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportRow> batch = new ArrayList<>(batchSize);
+        try (UserImportReader reader = new UserImportReader(in, format)) {
+            while (reader.hasNext()) {
+                UserImportRow row = reader.next();
+                job.totalRows.incrementAndGet();
+                if (row.getRowNumber() <= checkpoint) {
+                    job.skippedRows.incrementAndGet();
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    processBatch(job, batch, seenUsernames, seenEmails);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(job, batch, seenUsernames, seenEmails);
+            }
+            job.complete();
+            stringRedisTemplate.delete(UserConstant.USER_IMPORT_CHECKPOINT_PREFIX + job.importId);
+            log.info("用户导入完成: importId={}, total={}, skipped={}, imported={}, failed={}, cost={}ms",
+                    job.importId, job.totalRows, job.skippedRows, job.importedRows, job.failedRows,
+                    System.currentTimeMillis() - start);
+        } catch (IllegalArgumentException e) {
+            job.fail(e.getMessage());
+        } catch (Exception e) {
+            log.error("用户导入中断: importId={}, total={}, imported={}", job.importId, job.totalRows, job.importedRows, e);
+            job.fail("导入中断，可使用同一导入ID重新导入以继续: " + e.getMessage());
+        }
+    }
+
+    private void processBatch(ImportJob job, List<UserImportRow> batch,
+                              Set<String> seenUsernames, Set<String> seenEmails) {
+        long lastRowNumber = batch.get(batch.size() - 1).getRowNumber();
+
+        // 1. 校验，并排除文件内重复的用户名和邮箱
+        List<UserImportRow> rows = new ArrayList<>(batch.size());
+        for (UserImportRow row : batch) {
+            String error = row.getError() != null ? row.getError()
+                    : UserValidationUtils.checkRegistration(row.getUsername(), row.getPassword(), row.getEmail());
+            if (error == null) {
+                String username = UserValidationUtils.fold(row.getUsername());
+                String email = UserValidationUtils.fold(row.getEmail());
+                if (seenUsernames.contains(username)) {
+                    error = "用户名在导入文件中重复";
+                } else if (seenEmails.contains(email)) {
+                    error = "邮箱在导入文件中重复";
+                } else {
+                    seenUsernames.add(username);
+                    seenEmails.add(email);
+                }
+            }
+            if (error != null) {
+                job.reject(row, error);
+            } else {
+                rows.add(row);
+            }
+        }
+
+        // 2. 一次查询排除数据库中已存在的用户名和邮箱
+        if (!rows.isEmpty()) {
+            rows = excludeExisting(job, rows);
+        }
+
+        // 3. 并行计算密码哈希并写入
+        if (!rows.isEmpty()) {
+            List<PendingUser> users = hashPasswords(job, rows);
+            insertBatch(job, users);
+        }
+        saveCheckpoint(job.importId, lastRowNumber);
+    }
+
+    private List<UserImportRow> excludeExisting(ImportJob job, List<UserImportRow> rows) {
+        List<String> usernames = new ArrayList<>(rows.size());
+        List<String> emails = new ArrayList<>(rows.size());
+        for (UserImportRow row : rows) {
+            usernames.add(row.getUsername());
+            emails.add(row.getEmail());
+        }
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        for (User existing : userIdentityService.selectExistingIdentities(usernames, emails)) {
+            if (existing.getUsername() != null) {
+                existingUsernames.add(UserValidationUtils.fold(existing.getUsername()));
+            }
+            if (existing.getEmail() != null) {
+                existingEmails.add(UserValidationUtils.fold(existing.getEmail()));
+            }
+        }
+        if (existingUsernames.isEmpty() && existingEmails.isEmpty()) {
+            return rows;
+        }
+        List<UserImportRow> remaining = new ArrayList<>(rows.size());
+        for (UserImportRow row : rows) {
+            if (existingUsernames.contains(UserValidationUtils.fold(row.getUsername()))) {
+                job.reject(row, "用户名已存在");
+            } else if (existingEmails.contains(UserValidationUtils.fold(row.getEmail()))) {
+                job.reject(row, "该邮箱已被注册");
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private List<PendingUser> hashPasswords(ImportJob job, List<UserImportRow> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (UserImportRow row : rows) {
+            String password = row.getPassword();
+            hashes.add(hashExecutor.submit(() -> passwordHashEngine.hashOnCurrentThread(password)));
+        }
+        Date now = new Date();
+        List<PendingUser> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRow row = rows.get(i);
+            String encryptPassword;
+            try {
+                encryptPassword = hashes.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("导入被中断", e);
+            } catch (ExecutionException e) {
+                log.warn("导入密码哈希失败: row={}", row.getRowNumber(), e.getCause());
+                job.reject(row, "密码加密失败");
+                continue;
+            }
+            User user = new User();
+            user.setUsername(row.getUsername());
+            user.setPassword(encryptPassword);
+            user.setEmail(row.getEmail());
+            user.setDisplayName(row.getDisplayName());
+            user.setPhone(row.getPhone());
+            user.setStatus(UserStatus.ACTIVE);
+            user.setRole(UserRole.REGULAR_USER);
+            user.setCreateTime(now);
+            user.setUpdateTime(now);
+            users.add(new PendingUser(row, user));
+        }
+        return users;
+    }
+
+    private void insertBatch(ImportJob job, List<PendingUser> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            userIdentityService.insertBatch(users.stream().map(PendingUser::user).toList());
+            for (PendingUser pending : users) {
+                imported(job, pending.user());
+            }
+            return;
+        } catch (RuntimeException e) {
+            // 整批已回滚，多为检查之后并发注册造成的唯一索引冲突，逐行重试以定位冲突行
+            log.warn("批量写入失败，改为逐行写入: importId={}, rows={}, error={}", job.importId, users.size(), e.getMessage());
+        }
+        for (PendingUser pending : users) {
+            try {
+                userIdentityService.insert(pending.user());
+                imported(job, pending.user());
+            } catch (DuplicateKeyException e) {
+                // 按冲突的索引名区分，异常信息中的 SQL 和重复值都可能包含 email 字样
+                String field = DuplicateKeyUtils.conflictField(e);
+                String message = DuplicateKeyUtils.EMAIL.equals(field) ? "该邮箱已被注册"
+                        : DuplicateKeyUtils.USERNAME.equals(field) ? "用户名已存在" : "用户信息已存在";
+                job.reject(pending.row(), message);
+            }
+        }
+    }
+
+    private void imported(ImportJob job, User user) {
+        job.importedRows.incrementAndGet();
+        userBloomFilterService.add(user.getUsername(), user.getEmail());
+    }
+
+    private long readCheckpoint(String importId) {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(UserConstant.USER_IMPORT_CHECKPOINT_PREFIX + importId);
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (Exception e) {
+            // 读不到断点时从头导入，已导入的行会被判定为已存在
+            log.warn("读取导入断点失败，从头开始: importId={}, error={}", importId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void saveCheckpoint(String importId, long rowNumber) {
+        try {
+            stringRedisTemplate.opsForValue().set(UserConstant.USER_IMPORT_CHECKPOINT_PREFIX + importId,
+                    Long.toString(rowNumber), Duration.ofHours(checkpointTtlHours));
+        } catch (Exception e) {
+            log.warn("保存导入断点失败: importId={}, row={}, error={}", importId, rowNumber, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", path);
+        }
+    }
+
+    /**
+     * 已计算密码哈希、等待写入的行
+     */
+    private record PendingUser(UserImportRow row, User user) {
+    }
+
+    /**
+     * 导入任务的进度，计数器由导入线程写入、查询接口读取
+     */
+    private class ImportJob {
+
+        private final String importId;
+        private final Date startTime = new Date();
+        private final AtomicLong totalRows = new AtomicLong();
+        private final AtomicLong skippedRows = new AtomicLong();
+        private final AtomicLong importedRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+        private final List<UserImportErrorVO> errors = new ArrayList<>();
+        private volatile String state = "running";
+        private volatile String message;
+        private volatile Date finishTime;
+
+        ImportJob(String importId) {
+            this.importId = importId;
+        }
+
+        void reject(UserImportRow row, String error) {
+            failedRows.incrementAndGet();
+            report(new UserImportErrorVO(row.getRowNumber(), row.getUsername(), error));
+        }
+
+        private synchronized void report(UserImportErrorVO error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+
+        void complete() {
+            finishTime = new Date();
+            state = "completed";
+        }
+
+        void fail(String reason) {
+            message = reason;
+            finishTime = new Date();
+            state = "failed";
+        }
+
+        synchronized UserImportResultVO toVO() {
+            UserImportResultVO vo = new UserImportResultVO();
+            vo.setImportId(importId);
+            vo.setState(state);
+            vo.setTotalRows(totalRows.get());
+            vo.setSkippedRows(skippedRows.get());
+            vo.setImportedRows(importedRows.get());
+            vo.setFailedRows(failedRows.get());
+            vo.setErrors(new ArrayList<>(errors));
+            vo.setErrorsTruncated(failedRows.get() > errors.size());
+            vo.setMessage(message);
+            vo.setStartTime(startTime);
+            vo.setFinishTime(finishTime);
+            return vo;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.mapper.UserLookupMapper;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.entity.UserLookup;
+import com.ince.springboottemplate.model.vo.UserReshardResultVO;
+import com.ince.springboottemplate.services.UserReshardService;
+import com.ince.springboottemplate.shard.UserShardLayout;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户表重新分片实现
+ * <ul>
+ *     <li>按ID顺序逐批读取当前布局的每个物理表，按目标布局分组后整行 upsert，重复执行不会产生重复数据</li>
+ *     <li>当前布局未分片时应用不维护查找表，复制时同时重建这批用户的查找记录</li>
+ *     <li>校验时逐批比对源表和目标表的整行以及查找记录，不一致的用户按源表重新复制</li>
+ *     <li>复制和校验共用一个限速，避免占满主库的 IO</li>
+ * </ul>
+ * 运行期间写入的修改由后续的校验修复；最后一次在停写期间执行，校验一致后再切换布局。
+ */
+@Service
+@Slf4j
+public class UserReshardServiceImpl implements UserReshardService {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserLookupMapper userLookupMapper;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.user-shard.reshard.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.user-shard.reshard.max-rows-per-second:5000}")
+    private long maxRowsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public UserReshardResultVO reshard(String targetPrefix, int targetCount, boolean verifyOnly) {
+        UserShardLayout source = userShardRouter.getLayout();
+        UserShardLayout target;
+        try {
+            target = new UserShardLayout(targetPrefix, targetCount);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, e.getMessage());
+        }
+        for (String table : target.tables()) {
+            if (source.tables().contains(table)) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "目标布局的物理表 " + table + " 与当前布局重名");
+            }
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "已有重新分片任务在进行");
+        }
+
+        Progress progress = new Progress(source, target, verifyOnly);
+        try {
+            if (!verifyOnly) {
+                for (String table : target.tables()) {
+                    userMapper.createTableLike(table, source.table(0));
+                }
+                for (String table : source.tables()) {
+                    copyTable(table, progress);
+                }
+            }
+            for (String table : source.tables()) {
+                verifyTable(table, progress);
+            }
+            return progress.finish(countRows(source), countRows(target));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void copyTable(String sourceTable, Progress progress) {
+        long afterId = Long.MIN_VALUE;
+        long copied = 0;
+        List<User> batch;
+        do {
+            batch = readBatch(sourceTable, afterId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            writeTarget(batch, progress.target, !progress.source.isSharded());
+            copied += batch.size();
+            progress.result.setCopiedRows(progress.result.getCopiedRows() + batch.size());
+            afterId = batch.get(batch.size() - 1).getId();
+            progress.pace(batch.size());
+        } while (batch.size() == batchSize);
+        log.info("重新分片复制完成: source={}, rows={}", sourceTable, copied);
+    }
+
+    private void verifyTable(String sourceTable, Progress progress) {
+        UserReshardResultVO result = progress.result;
+        long afterId = Long.MIN_VALUE;
+        List<User> batch;
+        do {
+            batch = readBatch(sourceTable, afterId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            // 1. 比对目标表中的整行
+            Map<Long, User> copies = new HashMap<>(batch.size() * 2);
+            groupByTable(batch, progress.target).forEach((table, rows) -> {
+                List<Long> ids = rows.stream().map(User::getId).toList();
+                for (User copy : userShardRouter.onTable(table, () -> userMapper.selectAllColumnsByIds(ids))) {
+                    copies.put(copy.getId(), copy);
+                }
+            });
+            Set<Long> broken = new HashSet<>();
+            List<User> toRepair = new ArrayList<>();
+            for (User row : batch) {
+                if (!row.equals(copies.get(row.getId()))) {
+                    result.setMismatchedRows(result.getMismatchedRows() + 1);
+                    broken.add(row.getId());
+                    toRepair.add(row);
+                }
+            }
+
+            // 2. 比对查找记录
+            Map<Long, Set<String>> lookups = new HashMap<>(batch.size() * 2);
+            for (UserLookup lookup : userLookupMapper.selectByUserIds(batch.stream().map(User::getId).toList())) {
+                lookups.computeIfAbsent(lookup.getUserId(), id -> new HashSet<>()).add(lookupKey(lookup));
+            }
+            for (User row : batch) {
+                List<UserLookup> expected = new ArrayList<>(2);
+                UserLookup.addAll(expected, row);
+                Set<String> expectedKeys = new HashSet<>();
+                expected.forEach(lookup -> expectedKeys.add(lookupKey(lookup)));
+                if (!expectedKeys.equals(lookups.get(row.getId()))) {
+                    result.setMismatchedLookups(result.getMismatchedLookups() + 1);
+                    if (broken.add(row.getId())) {
+                        toRepair.add(row);
+                    }
+                }
+            }
+
+            // 3. 按源表重新复制不一致的用户
+            if (!progress.verifyOnly && !toRepair.isEmpty()) {
+                writeTarget(toRepair, progress.target, true);
+                result.setRepairedRows(result.getRepairedRows() + toRepair.size());
+            }
+            result.setVerifiedRows(result.getVerifiedRows() + batch.size());
+            afterId = batch.get(batch.size() - 1).getId();
+            progress.pace(batch.size());
+        } while (batch.size() == batchSize);
+        log.info("重新分片校验完成: source={}, verified={}, mismatchedRows={}, mismatchedLookups={}",
+                sourceTable, result.getVerifiedRows(), result.getMismatchedRows(), result.getMismatchedLookups());
+    }
+
+    private List<User> readBatch(String sourceTable, long afterId) {
+        return userShardRouter.onTable(sourceTable, () -> userMapper.selectBatchAfter(afterId, batchSize));
+    }
+
+    /**
+     * 整行写入目标布局，可选地重建这批用户的查找记录，在一个事务中提交
+     * @param replaceLookups 是否先删除这批用户的查找记录再写入，清理修改邮箱后遗留的旧记录
+     */
+    private void writeTarget(List<User> rows, UserShardLayout target, boolean replaceLookups) {
+        transactionTemplate.executeWithoutResult(status -> {
+            groupByTable(rows, target).forEach((table, group) ->
+                    userShardRouter.onTable(table, () -> userMapper.upsertBatch(group)));
+            if (replaceLookups) {
+                List<UserLookup> lookups = new ArrayList<>(rows.size() * 2);
+                for (User row : rows) {
+                    UserLookup.addAll(lookups, row);
+                }
+                userLookupMapper.deleteByUserIds(rows.stream().map(User::getId).toList());
+                userLookupMapper.upsertBatch(lookups);
+            }
+        });
+    }
+
+    private static Map<String, List<User>> groupByTable(List<User> rows, UserShardLayout layout) {
+        Map<String, List<User>> byTable = new LinkedHashMap<>();
+        for (User row : rows) {
+            byTable.computeIfAbsent(layout.tableOf(row.getId()), table -> new ArrayList<>()).add(row);
+        }
+        return byTable;
+    }
+
+    private long countRows(UserShardLayout layout) {
+        long rows = 0;
+        for (String table : layout.tables()) {
+            Long count = userShardRouter.onTable(table, () -> userMapper.selectCount(null));
+            rows += count == null ? 0 : count;
+        }
+        return rows;
+    }
+
+    private static String lookupKey(UserLookup lookup) {
+        return lookup.getLookupType() + ":" + lookup.getLookupValue();
+    }
+
+    /**
+     * 一次重新分片的进度和限速状态
+     */
+    private final class Progress {
+
+        private final UserShardLayout source;
+        private final UserShardLayout target;
+        private final boolean verifyOnly;
+        private final UserReshardResultVO result = new UserReshardResultVO();
+        private final long startNanos = System.nanoTime();
+        private long processedRows;
+
+        private Progress(UserShardLayout source, UserShardLayout target, boolean verifyOnly) {
+            this.source = source;
+            this.target = target;
+            this.verifyOnly = verifyOnly;
+            result.setSourceLayout(source.toString());
+            result.setTargetLayout(target.toString());
+            result.setVerifyOnly(verifyOnly);
+        }
+
+        /**
+         * 处理速度超过 max-rows-per-second 时休眠
+         */
+        private void pace(int rows) {
+            processedRows += rows;
+            if (maxRowsPerSecond <= 0) {
+                return;
+            }
+            long aheadNanos = processedRows * 1_000_000_000L / maxRowsPerSecond - (System.nanoTime() - startNanos);
+            if (aheadNanos <= 0) {
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("重新分片被中断", e);
+            }
+        }
+
+        private UserReshardResultVO finish(long sourceRows, long targetRows) {
+            result.setSourceRows(sourceRows);
+            result.setTargetRows(targetRows);
+            long unrepaired = verifyOnly ? result.getMismatchedRows() + result.getMismatchedLookups() : 0;
+            result.setConsistent(unrepaired == 0 && sourceRows == targetRows);
+            result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return result;
+        }
+    }
+}
@@ -1,33 +1,52 @@
 package com.ince.springboottemplate.services.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ince.springboottemplate.annotation.ReadReplica;
+import com.ince.springboottemplate.annotation.ReadYourWrites;
+import com.ince.springboottemplate.cache.LocalCache;
 import com.ince.springboottemplate.constant.UserConstant;
 import com.ince.springboottemplate.enums.ErrorCode;
 import com.ince.springboottemplate.enums.UserRole;
 import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.event.LoginEvent;
+import com.ince.springboottemplate.event.LoginEventPipeline;
 import com.ince.springboottemplate.exception.BusinessException;
 import com.ince.springboottemplate.mapper.UserMapper;
 import com.ince.springboottemplate.model.dto.UserLoginRequest;
+import com.ince.springboottemplate.model.dto.UserQueryRequest;
 import com.ince.springboottemplate.model.dto.UserRegisterRequest;
 import com.ince.springboottemplate.model.dto.UserUpdatePasswordRequest;
 import com.ince.springboottemplate.model.dto.UserUpdateRequest;
 import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.CursorPageVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.security.LoginPrincipal;
+import com.ince.springboottemplate.security.PasswordHashEngine;
+import com.ince.springboottemplate.services.UserBloomFilterService;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.services.UserIdentityService;
 import com.ince.springboottemplate.services.UserService;
-import com.ince.springboottemplate.utils.DeviceUtils;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import com.ince.springboottemplate.utils.CursorUtils;
+import com.ince.springboottemplate.utils.DuplicateKeyUtils;
+import com.ince.springboottemplate.utils.UserValidationUtils;
+import com.ince.springboottemplate.utils.IpUtils;
+import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * @author HP
@@ -38,6 +57,38 @@ import java.util.Map;
 @Slf4j
 public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         implements UserService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 带筛选条件时近似总数最多统计的行数
+     */
+    private static final int TOTAL_COUNT_CAP = 10_000;
+
+    /**
+     * 筛选条件 -> 近似总数，短时间内翻页和刷新共用一次统计
+     */
+    private final LocalCache<String, ApproximateTotal> approximateTotals = new LocalCache<>(1024, 60);
+
+    @Resource
+    private UserCacheService userCacheService;
+
+    @Resource
+    private PasswordHashEngine passwordHashEngine;
+
+    @Resource
+    private LoginEventPipeline loginEventPipeline;
+
+    @Resource
+    private UserBloomFilterService userBloomFilterService;
+
+    @Resource
+    private UserIdentityService userIdentityService;
+
+    @Resource
+    private UserShardRouter userShardRouter;
+
     @Override
     public User userLogin(UserLoginRequest userLoginRequest, HttpServletRequest request) {
         String username = userLoginRequest.getUsername();
@@ -57,36 +108,37 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
 //            throw new BusinessException(ErrorCode.CAPTCHA_ERROR);
 //        }
 
-        // 3. 加密密码
-        String encryptPassword = DigestUtils.md5DigestAsHex(password.getBytes(StandardCharsets.UTF_8));
-
-        // 4. 查询用户是否存在
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("username", username);
-        queryWrapper.eq("password", encryptPassword);
-        User user = this.getOne(queryWrapper);
+        // 3. 查询用户是否存在，布隆过滤器判定一定不存在的用户名不查询数据库
+        User user = userBloomFilterService.mightContainUsername(username)
+                ? userIdentityService.selectAuthByUsername(username)
+                : null;
 
-        // 5. 用户不存在或密码错误
-        if (user == null) {
+        // 4. 用户不存在或密码错误；用户不存在时同样计算一次哈希，避免通过耗时探测用户名
+        boolean matched = user == null
+                ? passwordHashEngine.matchesDummy(password)
+                : passwordHashEngine.matches(password, user.getPassword());
+        if (!matched) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户名或密码错误");
         }
 
-        // 6. 获取IP地址和归属地
-//        String ipAddress = IpUtils.getIpAddress(request);
-//        String ipLocation = IpUtils.getIpLocation(ipAddress);
-
-        // 7. 更新用户信息
-        user.setLastLoginTime(new Date());
-//        user.setLastLoginIp(ipAddress);
-//        user.setLastLoginIpLocation(ipLocation);
-
-        // 8. 记录用户的登录状态
-        request.getSession().setAttribute(UserConstant.LOGIN_USER, user);
+        // 5. 旧算法或低代价的哈希在登录时透明升级，哈希已被并发修改时放弃本次升级
+        if (passwordHashEngine.needsRehash(user.getPassword())) {
+            String rehashed = passwordHashEngine.hash(password);
+            String oldHash = user.getPassword();
+            if (userShardRouter.onUser(user.getId(),
+                    () -> this.baseMapper.rehashPassword(user.getId(), oldHash, rehashed)) > 0) {
+                user.setPassword(rehashed);
+            }
+        }
 
-        this.updateById(user);
+        // 6. 记录用户的登录状态（会话中只保存精简的登录主体）
+        long loginTime = System.currentTimeMillis();
+        user.setLastLoginTime(new Date(loginTime));
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, LoginPrincipal.of(user));
 
-        // 9. 发送登录成功通知
-        sendLoginSuccessNotification(user, request);
+        // 7. IP 归属地解析、最后登录信息更新和登录通知异步处理
+        loginEventPipeline.submit(new LoginEvent(user.getId(), user.getUsername(), user.getDisplayName(),
+                IpUtils.getIpAddress(request), request.getHeader("User-Agent"), loginTime));
 
         return user;
     }
@@ -117,68 +169,109 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
 //        if (!emailCodeValid) {
 //            throw new BusinessException(ErrorCode.CAPTCHA_ERROR, "邮箱验证码错误");
 //        }
-        // 4. 校验其他参数
-        if (username.length() < 4 || username.length() > 20) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户名长度必须在4-20个字符之间");
-        }
-        if (password.length() < 5 || password.length() > 20) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "密码长度必须在5-20个字符之间");
+        // 4. 校验其他参数，规则与批量导入共用
+        String invalidReason = UserValidationUtils.checkRegistration(username, password, email);
+        if (invalidReason != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidReason);
         }
         if (!password.equals(confirmPassword)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "两次输入的密码不一致");
         }
 
-        // 5. 校验用户名是否重复
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("username", username);
-        long count = this.count(queryWrapper);
-        if (count > 0) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户名已存在");
+        // 5. 一次查询同时校验用户名和邮箱是否已被使用，并发注册由唯一索引兜底；
+        //    布隆过滤器判定两者都一定不存在时省去这次查询
+        List<User> conflicts = userBloomFilterService.mightContainUsername(username)
+                || userBloomFilterService.mightContainEmail(email)
+                ? userIdentityService.selectRegistrationConflicts(username, email)
+                : List.of();
+        // 按数据库排序规则（大小写、重音不敏感）比较，jose 与 josé 同样算用户名冲突
+        String foldedUsername = UserValidationUtils.fold(username);
+        for (User existing : conflicts) {
+            if (existing.getUsername() != null && foldedUsername.equals(UserValidationUtils.fold(existing.getUsername()))) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户名已存在");
+            }
         }
 
-        // 6. 校验邮箱是否已被使用
-        QueryWrapper<User> emailQueryWrapper = new QueryWrapper<>();
-        emailQueryWrapper.eq("email", email);
-        long emailCount = this.count(emailQueryWrapper);
-        if (emailCount > 0) {
+        // 6. 其余冲突只可能来自邮箱
+        if (!conflicts.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "该邮箱已被注册");
         }
 
         // 7. 加密密码
-        String encryptPassword = DigestUtils.md5DigestAsHex(password.getBytes(StandardCharsets.UTF_8));
+        String encryptPassword = passwordHashEngine.hash(password);
 
         // 8. 创建用户
         User user = new User();
         user.setUsername(username);
         user.setPassword(encryptPassword);
         user.setEmail(email);
-        user.setStatus(UserStatus.ACTIVE.getCode());
-        user.setRole(UserRole.REGULAR_USER.getCode());
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRole(UserRole.REGULAR_USER);
         user.setCreateTime(new Date());
         user.setUpdateTime(new Date());
 
-        // 9. 保存用户
-        boolean saveResult = this.save(user);
+        // 9. 保存用户，检查之后并发注册的重复数据由唯一索引（分片后由查找表主键）拦截
+        boolean saveResult;
+        try {
+            saveResult = userIdentityService.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw duplicateKeyError(e, "该邮箱已被注册");
+        }
         if (!saveResult) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "注册失败，数据库错误");
         }
+        userBloomFilterService.add(username, email);
 
         return user;
     }
 
+    /**
+     * 会话中的登录主体是登录时的快照，每次取用时与缓存中的用户资料比对：
+     * 资料的版本号、状态或角色与快照不一致时按资料重建并写回会话，用户已被删除时视为未登录。
+     * 资料走两级缓存，通常不访问数据库；通过本服务的修改会立即使缓存失效，直接改库的修改在缓存过期后生效。
+     */
     @Override
-    public User getLoginUser(HttpServletRequest request) {
-        Object userObj = request.getSession().getAttribute(UserConstant.LOGIN_USER);
-        if (userObj == null) {
+    public LoginPrincipal getLoginUser(HttpServletRequest request) {
+        HttpSession session = request.getSession();
+        Object userObj = session.getAttribute(UserConstant.LOGIN_USER);
+        LoginPrincipal principal;
+        if (userObj instanceof LoginPrincipal sessionPrincipal) {
+            principal = sessionPrincipal;
+        } else if (userObj instanceof User legacyUser) {
+            // 兼容升级前写入的完整用户对象，下面比对后替换为登录主体
+            principal = LoginPrincipal.of(legacyUser);
+        } else {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
-        return (User) userObj;
+
+        UserVO profile = getUserProfile(principal.id());
+        if (profile == null) {
+            session.removeAttribute(UserConstant.LOGIN_USER);
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        }
+        LoginPrincipal current = LoginPrincipal.of(profile);
+        if (current.equals(principal) && userObj == principal) {
+            return principal;
+        }
+        session.setAttribute(UserConstant.LOGIN_USER, current);
+        return current;
     }
 
+    /**
+     * 不走只读副本：未命中时回源的结果会写入共享的本地缓存和 Redis 缓存，
+     * 从副本读到的旧资料会在修改后被所有会话（包括粘滞期结束后的修改者本人）看到，直到缓存过期
+     */
     @Override
+    public UserVO getUserProfile(Long userId) {
+        return userCacheService.get(userId,
+                id -> userShardRouter.onUser(id, () -> this.baseMapper.selectProfileById(id)));
+    }
+
+    @Override
+    @ReadYourWrites
     public User updatePassword(UserUpdatePasswordRequest updatePasswordRequest, HttpServletRequest request) {
         // 1. 获取当前登录用户
-        User loginUser = this.getLoginUser(request);
+        LoginPrincipal principal = this.getLoginUser(request);
 
         // 2. 校验参数
         String oldPassword = updatePasswordRequest.getOldPassword();
@@ -200,112 +293,210 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         }
 
         // 5. 校验原密码是否正确
-        String encryptOldPassword = DigestUtils.md5DigestAsHex(oldPassword.getBytes(StandardCharsets.UTF_8));
-        if (!encryptOldPassword.equals(loginUser.getPassword())) {
+        User loginUser = userShardRouter.onUser(principal.id(), () -> this.baseMapper.selectAuthById(principal.id()));
+        if (loginUser == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "用户不存在");
+        }
+        if (!passwordHashEngine.matches(oldPassword, loginUser.getPassword())) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "原密码错误");
         }
 
-        // 6. 更新密码
-        String encryptNewPassword = DigestUtils.md5DigestAsHex(newPassword.getBytes(StandardCharsets.UTF_8));
-        loginUser.setPassword(encryptNewPassword);
-        loginUser.setUpdateTime(new Date());
-
-        boolean updateResult = this.updateById(loginUser);
-        if (!updateResult) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "修改密码失败");
+        // 6. 更新密码，只写入密码和更新时间，版本号不一致说明期间有其他修改
+        String encryptNewPassword = passwordHashEngine.hash(newPassword);
+        Date updateTime = new Date();
+        int updated = userShardRouter.onUser(loginUser.getId(), () -> this.baseMapper.updatePassword(
+                loginUser.getId(), encryptNewPassword, updateTime, loginUser.getVersion()));
+        if (updated == 0) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "用户信息已被修改，请重试");
         }
+        loginUser.setPassword(encryptNewPassword);
+        loginUser.setUpdateTime(updateTime);
+        loginUser.setVersion(loginUser.getVersion() + 1);
+        userCacheService.invalidate(loginUser.getId());
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, LoginPrincipal.of(loginUser));
 
         return loginUser;
     }
 
     @Override
+    @ReadYourWrites
     public User updateUserInfo(UserUpdateRequest updateRequest, HttpServletRequest request) {
         // 1. 获取当前登录用户
-        User loginUser = this.getLoginUser(request);
+        LoginPrincipal principal = this.getLoginUser(request);
+        User loginUser = userShardRouter.onUser(principal.id(), () -> this.baseMapper.selectAuthById(principal.id()));
+        if (loginUser == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "用户不存在");
+        }
 
         // 2. 校验邮箱是否已被其他用户使用
         String newEmail = updateRequest.getEmail();
-        if (StringUtils.isNotBlank(newEmail)) {
-            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-            queryWrapper.eq("email", newEmail);
-            queryWrapper.ne("id", loginUser.getId());
-            long count = this.count(queryWrapper);
-            if (count > 0) {
+        if (StringUtils.isNotBlank(newEmail) && userBloomFilterService.mightContainEmail(newEmail)) {
+            if (userIdentityService.existsByEmailExcludingId(newEmail, loginUser.getId())) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "该邮箱已被其他用户使用");
             }
         }
 
-        // 3. 更新用户信息
-        BeanUtils.copyProperties(updateRequest, loginUser);
-        loginUser.setUpdateTime(new Date());
-
-        boolean updateResult = this.updateById(loginUser);
+        // 3. 更新用户信息，只写入请求中给出的列，并按读取时的版本号校验
+        Date updateTime = new Date();
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<User>()
+                .set(updateRequest.getDisplayName() != null, User::getDisplayName, updateRequest.getDisplayName())
+                .set(updateRequest.getAvatarUrl() != null, User::getAvatar, updateRequest.getAvatarUrl())
+                .set(updateRequest.getBio() != null, User::getBio, updateRequest.getBio())
+                .set(newEmail != null, User::getEmail, newEmail)
+                .set(User::getUpdateTime, updateTime)
+                .setSql("version = version + 1")
+                .eq(User::getId, loginUser.getId())
+                .eq(User::getVersion, loginUser.getVersion());
+
+        boolean updateResult;
+        try {
+            updateResult = userIdentityService.update(updateWrapper, loginUser.getId(), newEmail);
+        } catch (DuplicateKeyException e) {
+            throw duplicateKeyError(e, "该邮箱已被其他用户使用");
+        }
         if (!updateResult) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新用户信息失败");
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "用户信息已被修改，请刷新后重试");
+        }
+        if (updateRequest.getDisplayName() != null) {
+            loginUser.setDisplayName(updateRequest.getDisplayName());
         }
+        if (updateRequest.getAvatarUrl() != null) {
+            loginUser.setAvatar(updateRequest.getAvatarUrl());
+        }
+        if (updateRequest.getBio() != null) {
+            loginUser.setBio(updateRequest.getBio());
+        }
+        if (newEmail != null) {
+            loginUser.setEmail(newEmail);
+        }
+        loginUser.setUpdateTime(updateTime);
+        loginUser.setVersion(loginUser.getVersion() + 1);
+        userBloomFilterService.add(null, newEmail);
+        userCacheService.invalidate(loginUser.getId());
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, LoginPrincipal.of(loginUser));
 
         return loginUser;
     }
 
+    @Override
+    @ReadReplica
+    public CursorPageVO<UserVO> listUsers(UserQueryRequest queryRequest) {
+        // 1. 校验参数
+        Integer status = queryRequest.getStatus();
+        if (status != null && UserStatus.fromCode(status).isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的用户状态");
+        }
+        Integer role = queryRequest.getRole();
+        if (role != null && UserRole.fromCode(role).isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的用户角色");
+        }
+        String keyword = StringUtils.trimToNull(queryRequest.getKeyword());
+        int pageSize = queryRequest.getPageSize() == null ? DEFAULT_PAGE_SIZE : queryRequest.getPageSize();
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "每页条数必须在1-" + MAX_PAGE_SIZE + "之间");
+        }
+
+        // 2. 游标中记录了上一页最后一条的ID和筛选条件指纹
+        int fingerprint = Objects.hash(status, role, keyword);
+        Long lastId = StringUtils.isBlank(queryRequest.getCursor())
+                ? null : CursorUtils.decode(queryRequest.getCursor(), fingerprint);
+
+        // 3. 按ID倒序向后定位（状态筛选走 idx_status，索引内天然按ID有序），多取一条判断是否还有下一页；
+        //    分片后每个物理表各取一页，合并后按ID倒序取前 pageSize + 1 条，ID全局唯一，游标对所有分片通用
+        List<User> rows = new ArrayList<>();
+        userShardRouter.forEachTable(table -> rows.addAll(this.baseMapper.selectList(
+                userListFilter(status, role, keyword)
+                        .select(UserMapper.LIST_COLUMNS)
+                        .lt(lastId != null, "id", lastId)
+                        .orderByDesc("id")
+                        .last("LIMIT " + (pageSize + 1)))));
+        if (userShardRouter.isSharded()) {
+            rows.sort(Comparator.comparing(User::getId).reversed());
+        }
+        boolean hasMore = rows.size() > pageSize;
+        List<UserVO> records = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (int i = 0; i < rows.size() && i < pageSize; i++) {
+            UserVO userVO = new UserVO();
+            BeanUtils.copyProperties(rows.get(i), userVO);
+            records.add(userVO);
+        }
+
+        CursorPageVO<UserVO> page = new CursorPageVO<>();
+        page.setRecords(records);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? CursorUtils.encode(records.get(records.size() - 1).getId(), fingerprint) : null);
+
+        // 4. 近似总数：无筛选条件时取表统计信息，否则做带上限的计数，结果短暂缓存
+        if (queryRequest.isWithTotal()) {
+            String totalKey = status + ":" + role + ":" + keyword;
+            ApproximateTotal total = approximateTotals.get(totalKey);
+            if (total == null) {
+                total = countApproximateTotal(status, role, keyword);
+                approximateTotals.put(totalKey, total);
+            }
+            page.setApproximateTotal(total.count());
+            page.setTotalCapped(total.capped());
+        }
+        return page;
+    }
+
     /**
-     * 发送登录成功通知
+     * 各物理表分别统计后相加；带上限计数时累计达到上限即停止
      */
-    private void sendLoginSuccessNotification(User user, HttpServletRequest request) {
-        try {
-            // 获取登录时间（格式化）
-            LocalDateTime loginTime = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String loginTimeStr = loginTime.format(formatter);
-
-            // 获取登录地点
-            String loginLocation = user.getLastLoginIpLocation();
-
-            // 获取设备信息
-            String deviceInfo = DeviceUtils.getDeviceInfo(request);
-
-            // 构建通知内容
-            String displayName = StringUtils.isNotBlank(user.getDisplayName()) ? user.getDisplayName() : user.getUsername();
-            String notificationContent = String.format(
-                    "欢迎回来，%s！您已成功登录 GigaLike 🎉\n登录时间：%s\n登录地点：%s\n设备信息：%s",
-                    displayName, loginTimeStr, loginLocation, deviceInfo
-            );
-
-            // 准备额外数据
-            Map<String, Object> extraData = new HashMap<>();
-            extraData.put("content", notificationContent);
-            extraData.put("loginTime", loginTimeStr);
-            extraData.put("loginLocation", loginLocation);
-            extraData.put("deviceInfo", deviceInfo);
-
-            // 创建通知事件
-//            NotificationEvent notificationEvent = NotificationEvent.builder()
-//                    .userId(user.getId())
-//                    .senderId(null) // 系统通知，没有发送者
-//                    .type(NotificationTypeEnum.SYSTEM.getCode())
-//                    .relatedId(null) // 系统通知不关联具体资源
-//                    .relatedType(null)
-//                    .extraData(extraData)
-//                    .eventTime(loginTime)
-//                    .build();
-
-            // 发送通知事件
-//            notificationPulsarTemplate.sendAsync("notification-topic", notificationEvent)
-//                    .exceptionally(ex -> {
-//                        log.error("发送登录成功通知失败: userId={}, username={}",
-//                                user.getId(), user.getUsername(), ex);
-//                        return null;
-//                    });
-
-            log.debug("发送登录成功通知: userId={}, username={}, location={}, device={}",
-                    user.getId(), user.getUsername(), loginLocation, deviceInfo);
-
-        } catch (Exception e) {
-            log.error("发送登录成功通知异常: userId={}, username={}",
-                    user.getId(), user.getUsername(), e);
+    private ApproximateTotal countApproximateTotal(Integer status, Integer role, String keyword) {
+        long count = 0;
+        for (String table : userShardRouter.tables()) {
+            if (status == null && role == null && keyword == null) {
+                Long estimated = this.baseMapper.selectEstimatedRowCount(table);
+                count += estimated == null ? 0L : estimated;
+                continue;
+            }
+            long remaining = TOTAL_COUNT_CAP - count;
+            count += userShardRouter.onTable(table, () -> this.baseMapper.countCapped(
+                    userListFilter(status, role, keyword), (int) remaining));
+            if (count >= TOTAL_COUNT_CAP) {
+                return new ApproximateTotal(count, true);
+            }
         }
+        return new ApproximateTotal(count, false);
     }
-}
 
+    /**
+     * 用户列表的筛选条件（不含游标），用户名按前缀匹配
+     */
+    private static QueryWrapper<User> userListFilter(Integer status, Integer role, String keyword) {
+        return new QueryWrapper<User>()
+                .eq(status != null, "status", status)
+                .eq(role != null, "role", role)
+                .likeRight(keyword != null, "username", keyword == null ? null : escapeLike(keyword));
+    }
 
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
+    /**
+     * 近似总数
+     * @param count  数量
+     * @param capped 是否达到统计上限
+     */
+    private record ApproximateTotal(long count, boolean capped) {
+    }
 
+    /**
+     * 把唯一索引冲突转换为参数错误，按冲突的索引名区分用户名和邮箱
+     * @param e            唯一索引冲突异常
+     * @param emailMessage 邮箱冲突时的提示
+     */
+    private static BusinessException duplicateKeyError(DuplicateKeyException e, String emailMessage) {
+        String field = DuplicateKeyUtils.conflictField(e);
+        if (DuplicateKeyUtils.EMAIL.equals(field)) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, emailMessage);
+        }
+        if (DuplicateKeyUtils.USERNAME.equals(field)) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, "用户名已存在");
+        }
+        log.warn("唯一索引冲突: {}", e.getMostSpecificCause().getMessage());
+        return new BusinessException(ErrorCode.PARAMS_ERROR, "用户信息已存在");
+    }
+}
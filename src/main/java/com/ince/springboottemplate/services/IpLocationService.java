@@ -0,0 +1,36 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.cache.LocalCache;
+import com.ince.springboottemplate.model.vo.IpRegion;
+
+/**
+ * IP 归属地查询服务
+ */
+public interface IpLocationService {
+
+    /**
+     * 查询 IP 归属地
+     * @param ip IPv4 地址
+     * @return 归属地，IP 非法、库未加载或未收录时返回 null
+     */
+    IpRegion search(String ip);
+
+    /**
+     * 查询展示用的归属地：国内显示省份，国外显示国家
+     * @param ip IPv4 地址
+     * @return 归属地，无法确定时返回"未知"
+     */
+    String getLocation(String ip);
+
+    /**
+     * 立即重新加载 IP 库
+     * @return 是否加载成功
+     */
+    boolean reload();
+
+    /**
+     * 获取查询结果缓存统计
+     * @return 缓存统计
+     */
+    LocalCache.CacheStats getCacheStats();
+}
@@ -0,0 +1,43 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.model.vo.UserBloomFilterStatsVO;
+
+/**
+ * 用户名和邮箱的布隆过滤器
+ * 用于在查询数据库之前排除一定不存在的用户名和邮箱，过滤器未就绪或关闭时一律视为可能存在。
+ */
+public interface UserBloomFilterService {
+
+    /**
+     * 用户名是否可能已存在（忽略大小写）
+     * @param username 用户名
+     * @return false 表示一定不存在
+     */
+    boolean mightContainUsername(String username);
+
+    /**
+     * 邮箱是否可能已存在（忽略大小写）
+     * @param email 邮箱
+     * @return false 表示一定不存在
+     */
+    boolean mightContainEmail(String email);
+
+    /**
+     * 记录新写入的用户名和邮箱
+     * @param username 用户名，为空时忽略
+     * @param email    邮箱，为空时忽略
+     */
+    void add(String username, String email);
+
+    /**
+     * 流式扫描用户表重建过滤器，重建期间继续使用旧过滤器
+     * @return 是否执行了重建，已有重建在进行时返回 false
+     */
+    boolean rebuild();
+
+    /**
+     * 获取过滤器统计
+     * @return 统计信息
+     */
+    UserBloomFilterStatsVO getStats();
+}
@@ -0,0 +1,40 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 用户两级缓存（本地缓存 + Redis）
+ * 缓存的是资料投影 {@link UserVO}，不包含密码等敏感字段和大文本列
+ */
+public interface UserCacheService {
+
+    /**
+     * 读穿缓存获取用户资料，两级缓存都未命中时通过 loader 回源
+     * @param userId 用户ID
+     * @param loader 回源加载函数
+     * @return 用户资料，不存在时返回 null
+     */
+    UserVO get(Long userId, Function<Long, UserVO> loader);
+
+    /**
+     * 使两级缓存中的用户失效
+     * @param userId 用户ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * 批量使两级缓存中的用户失效，Redis 中只执行一次多 key 删除、只发布一条失效消息
+     * @param userIds 用户ID
+     */
+    void invalidate(Collection<Long> userIds);
+
+    /**
+     * 获取缓存统计
+     * @return 缓存统计信息
+     */
+    UserCacheStatsVO getStats();
+}
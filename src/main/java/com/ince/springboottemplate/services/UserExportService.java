@@ -0,0 +1,18 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.enums.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 用户数据导出服务
+ */
+public interface UserExportService {
+
+    /**
+     * 创建流式导出的响应体，响应体执行时才打开数据库游标
+     * @param format 导出格式
+     * @param status 按账户状态筛选，为 null 时导出全部
+     * @return 流式响应体
+     */
+    StreamingResponseBody exportUsers(ExportFormat format, Integer status);
+}
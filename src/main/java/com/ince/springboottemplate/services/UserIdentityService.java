@@ -0,0 +1,69 @@
+package com.ince.springboottemplate.services;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.ince.springboottemplate.model.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户身份（用户名、邮箱）相关的读写
+ * 未分片时直接访问 users 表，依靠其唯一索引保证唯一；用户表分片后通过全局查找表 user_lookup 定位用户，
+ * 写入时先占用查找记录再写分片表，两者在同一个事务中提交。
+ */
+public interface UserIdentityService {
+
+    /**
+     * 按用户名查询认证投影
+     * @param username 用户名
+     * @return 用户，不存在时返回 null
+     */
+    User selectAuthByUsername(String username);
+
+    /**
+     * 注册前的存在性校验
+     * @param username 用户名
+     * @param email    邮箱
+     * @return 已被占用的用户名或邮箱，只填充这两个字段，最多两条
+     */
+    List<User> selectRegistrationConflicts(String username, String email);
+
+    /**
+     * 批量导入前的存在性校验
+     * @param usernames 用户名，不能为空
+     * @param emails    邮箱，不能为空
+     * @return 已被占用的用户名或邮箱，只填充这两个字段
+     */
+    List<User> selectExistingIdentities(Collection<String> usernames, Collection<String> emails);
+
+    /**
+     * 邮箱是否已被其他用户使用
+     * @param email     邮箱
+     * @param excludeId 排除的用户ID
+     */
+    boolean existsByEmailExcludingId(String email, Long excludeId);
+
+    /**
+     * 写入新用户，未设置ID时先生成ID
+     * @param user 用户
+     * @return 是否写入成功
+     * @throws org.springframework.dao.DuplicateKeyException 用户名或邮箱已被占用，异常信息中包含 username 或 email
+     */
+    boolean insert(User user);
+
+    /**
+     * 在一个事务中批量写入新用户，任意一行冲突时整批回滚
+     * @param users 用户
+     */
+    void insertBatch(List<User> users);
+
+    /**
+     * 按条件更新用户，邮箱变化时同步查找表
+     * @param updateWrapper 更新条件，需包含ID和版本号条件
+     * @param userId        用户ID
+     * @param newEmail      新邮箱，未修改时为 null
+     * @return 是否更新成功，版本号不一致时返回 false
+     * @throws org.springframework.dao.DuplicateKeyException 新邮箱已被其他用户占用
+     */
+    boolean update(LambdaUpdateWrapper<User> updateWrapper, Long userId, String newEmail);
+}
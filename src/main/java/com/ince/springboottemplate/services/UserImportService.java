@@ -0,0 +1,39 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.model.vo.UserImportResultVO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+
+/**
+ * 用户批量导入服务
+ * 同一时间只允许一个导入任务；每批写入后在 Redis 中记录断点，使用同一导入ID重新导入同一文件时跳过已处理的行。
+ */
+public interface UserImportService {
+
+    /**
+     * 同步导入，用于命令行
+     * @param in       导入文件内容
+     * @param format   文件格式
+     * @param importId 导入ID，为空时生成新ID（不续传）
+     * @return 导入结果
+     */
+    UserImportResultVO importUsers(InputStream in, ExportFormat format, String importId);
+
+    /**
+     * 保存上传文件后在后台导入，立即返回任务状态
+     * @param file     上传的文件
+     * @param format   文件格式
+     * @param importId 导入ID，为空时生成新ID（不续传）
+     * @return 任务状态
+     */
+    UserImportResultVO submitImport(MultipartFile file, ExportFormat format, String importId);
+
+    /**
+     * 查询导入任务的进度和结果，只保留最近一天的任务
+     * @param importId 导入ID
+     * @return 任务状态
+     */
+    UserImportResultVO getImport(String importId);
+}
@@ -0,0 +1,20 @@
+package com.ince.springboottemplate.services;
+
+import com.ince.springboottemplate.model.vo.UserReshardResultVO;
+
+/**
+ * 用户表重新分片
+ * 把当前布局的用户复制到新布局（新的物理表前缀和分片数），并逐行比对、修复；应用可以照常读写，
+ * 最后一次在停写期间执行，确认一致后把 app.user-shard 切换为新布局。
+ */
+public interface UserReshardService {
+
+    /**
+     * 复制并校验，或只校验
+     * @param targetPrefix 目标布局的物理表前缀，物理表不能与当前布局重名
+     * @param targetCount  目标布局的分片数
+     * @param verifyOnly   只校验不复制、不修复
+     * @return 复制和校验结果
+     */
+    UserReshardResultVO reshard(String targetPrefix, int targetCount, boolean verifyOnly);
+}
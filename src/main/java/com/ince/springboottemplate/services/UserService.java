@@ -2,10 +2,14 @@ package com.ince.springboottemplate.services;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.ince.springboottemplate.model.dto.UserLoginRequest;
+import com.ince.springboottemplate.model.dto.UserQueryRequest;
 import com.ince.springboottemplate.model.dto.UserRegisterRequest;
 import com.ince.springboottemplate.model.dto.UserUpdatePasswordRequest;
 import com.ince.springboottemplate.model.dto.UserUpdateRequest;
 import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.CursorPageVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.security.LoginPrincipal;
 import jakarta.servlet.http.HttpServletRequest;
 
 
@@ -33,9 +37,16 @@ public interface UserService extends IService<User> {
     /**
      * 获取当前登录用户
      * @param request HTTP请求
-     * @return 当前登录用户信息
+     * @return 当前登录主体（只包含ID、角色、状态和版本）
      */
-    User getLoginUser(HttpServletRequest request);
+    LoginPrincipal getLoginUser(HttpServletRequest request);
+
+    /**
+     * 根据ID获取用户资料（优先读取缓存）
+     * @param userId 用户ID
+     * @return 用户资料，不存在时返回 null
+     */
+    UserVO getUserProfile(Long userId);
 
     /**
      * 修改密码
@@ -52,4 +63,11 @@ public interface UserService extends IService<User> {
      * @return 更新后的用户信息
      */
     User updateUserInfo(UserUpdateRequest updateRequest, HttpServletRequest request);
+
+    /**
+     * 管理员分页查询用户列表，按ID倒序，使用游标翻页
+     * @param queryRequest 查询条件
+     * @return 当前页用户和下一页游标
+     */
+    CursorPageVO<UserVO> listUsers(UserQueryRequest queryRequest);
 }
@@ -0,0 +1,294 @@
+package com.ince.springboottemplate.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 增量写入的 Redis 会话仓库
+ * 与 Spring Session 的 RedisSessionRepository 使用相同的键和哈希字段，两种模式可以直接切换：
+ * {@code 命名空间:sessions:会话ID}，字段为 creationTime、lastAccessedTime、maxInactiveInterval 和 sessionAttr:属性名。
+ * <ul>
+ *     <li>请求结束时只写入发生变化的属性，值与原值相等的 setAttribute 不会写入</li>
+ *     <li>最后访问时间按 touch-granularity 节流：距上次写入不足该间隔且没有属性变化时，不访问 Redis</li>
+ *     <li>一次保存产生的 HSET/HDEL/EXPIRE 通过管道一次发出</li>
+ * </ul>
+ * 由于访问时间节流，Redis 中的过期时间额外延长一个节流间隔；
+ * 会话最多会比配置的超时时间早一个节流间隔失效。
+ * 会话属性应当是不可变对象，修改属性时请重新 setAttribute 一个新对象。
+ */
+@Slf4j
+public class DeltaRedisSessionRepository implements SessionRepository<DeltaRedisSessionRepository.DeltaSession> {
+
+    private static final String CREATION_TIME_KEY = "creationTime";
+    private static final String LAST_ACCESSED_TIME_KEY = "lastAccessedTime";
+    private static final String MAX_INACTIVE_INTERVAL_KEY = "maxInactiveInterval";
+    private static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+
+    private final RedisOperations<String, Object> redisOperations;
+
+    private final String keyPrefix;
+
+    private final Duration defaultMaxInactiveInterval;
+
+    private final Duration touchGranularity;
+
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder skippedSaves = new LongAdder();
+
+    /**
+     * @param redisOperations            会话使用的 Redis 操作模板，哈希值序列化器需与 Spring Session 一致
+     * @param namespace                  键命名空间，如 spring:session
+     * @param defaultMaxInactiveInterval 新会话的超时时间
+     * @param touchGranularity           最后访问时间的最小写入间隔
+     */
+    public DeltaRedisSessionRepository(RedisOperations<String, Object> redisOperations, String namespace,
+                                       Duration defaultMaxInactiveInterval, Duration touchGranularity) {
+        this.redisOperations = redisOperations;
+        this.keyPrefix = namespace + ":sessions:";
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchGranularity = touchGranularity;
+    }
+
+    @Override
+    public DeltaSession createSession() {
+        MapSession cached = new MapSession();
+        cached.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new DeltaSession(cached, true);
+    }
+
+    @Override
+    public void save(DeltaSession session) {
+        session.save();
+    }
+
+    @Override
+    public DeltaSession findById(String id) {
+        HashOperations<String, String, Object> hashOperations = redisOperations.opsForHash();
+        Map<String, Object> entries = hashOperations.entries(key(id));
+        if (entries.isEmpty()) {
+            return null;
+        }
+        MapSession loaded = new MapSession(id);
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            switch (field) {
+                case CREATION_TIME_KEY -> loaded.setCreationTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                case LAST_ACCESSED_TIME_KEY ->
+                        loaded.setLastAccessedTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                case MAX_INACTIVE_INTERVAL_KEY ->
+                        loaded.setMaxInactiveInterval(Duration.ofSeconds(((Number) value).longValue()));
+                default -> {
+                    if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                        loaded.setAttribute(field.substring(ATTRIBUTE_PREFIX.length()), value);
+                    }
+                }
+            }
+        }
+        if (loaded.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new DeltaSession(loaded, false);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        redisOperations.delete(key(id));
+    }
+
+    /**
+     * 实际写入 Redis 的保存次数
+     */
+    public long getSaves() {
+        return saves.sum();
+    }
+
+    /**
+     * 因没有变化而跳过的保存次数
+     */
+    public long getSkippedSaves() {
+        return skippedSaves.sum();
+    }
+
+    private String key(String sessionId) {
+        return keyPrefix + sessionId;
+    }
+
+    /**
+     * 记录变更的会话
+     */
+    public final class DeltaSession implements Session {
+
+        private final MapSession cached;
+
+        /**
+         * 待写入的字段，值为 null 表示删除
+         */
+        private final Map<String, Object> delta = new HashMap<>();
+
+        private boolean isNew;
+
+        private String originalId;
+
+        private Instant persistedLastAccessedTime;
+
+        private DeltaSession(MapSession cached, boolean isNew) {
+            this.cached = cached;
+            this.isNew = isNew;
+            this.originalId = cached.getId();
+            this.persistedLastAccessedTime = cached.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return cached.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return cached.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return cached.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return cached.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            Object oldValue = cached.getAttribute(attributeName);
+            cached.setAttribute(attributeName, attributeValue);
+            if (!Objects.equals(oldValue, attributeValue)) {
+                delta.put(ATTRIBUTE_PREFIX + attributeName, attributeValue);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            setAttribute(attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return cached.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            cached.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return cached.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            cached.setMaxInactiveInterval(interval);
+            delta.put(MAX_INACTIVE_INTERVAL_KEY, (int) interval.getSeconds());
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return cached.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return cached.isExpired();
+        }
+
+        private void save() {
+            String sessionKey = key(getId());
+            if (!isNew && !originalId.equals(getId())) {
+                rename(key(originalId), sessionKey);
+            }
+            originalId = getId();
+
+            boolean touchDue = Duration.between(persistedLastAccessedTime, cached.getLastAccessedTime())
+                    .compareTo(touchGranularity) >= 0;
+            if (!isNew && delta.isEmpty() && !touchDue) {
+                skippedSaves.increment();
+                return;
+            }
+
+            Map<String, Object> puts = new HashMap<>();
+            List<Object> deletes = new ArrayList<>();
+            if (isNew) {
+                puts.put(CREATION_TIME_KEY, cached.getCreationTime().toEpochMilli());
+                puts.put(MAX_INACTIVE_INTERVAL_KEY, (int) cached.getMaxInactiveInterval().getSeconds());
+                for (String attributeName : cached.getAttributeNames()) {
+                    puts.put(ATTRIBUTE_PREFIX + attributeName, cached.getAttribute(attributeName));
+                }
+            }
+            for (Map.Entry<String, Object> entry : delta.entrySet()) {
+                if (entry.getValue() == null) {
+                    deletes.add(entry.getKey());
+                } else {
+                    puts.put(entry.getKey(), entry.getValue());
+                }
+            }
+            // 有其他字段要写入时顺带刷新访问时间，不增加往返次数
+            puts.put(LAST_ACCESSED_TIME_KEY, cached.getLastAccessedTime().toEpochMilli());
+            Duration maxInactiveInterval = cached.getMaxInactiveInterval();
+
+            redisOperations.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> pipeline = (RedisOperations<String, Object>) operations;
+                    HashOperations<String, String, Object> hashOperations = pipeline.opsForHash();
+                    if (!deletes.isEmpty()) {
+                        hashOperations.delete(sessionKey, deletes.toArray());
+                    }
+                    hashOperations.putAll(sessionKey, puts);
+                    if (maxInactiveInterval.isNegative()) {
+                        pipeline.persist(sessionKey);
+                    } else {
+                        pipeline.expire(sessionKey, maxInactiveInterval.plus(touchGranularity));
+                    }
+                    return null;
+                }
+            });
+
+            saves.increment();
+            isNew = false;
+            delta.clear();
+            persistedLastAccessedTime = cached.getLastAccessedTime();
+        }
+
+        private void rename(String oldKey, String newKey) {
+            try {
+                redisOperations.rename(oldKey, newKey);
+            } catch (NonTransientDataAccessException e) {
+                // 旧会话已过期，按新会话完整写入
+                log.debug("重命名会话失败，旧会话可能已过期: {}", e.getMessage());
+                isNew = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ince.springboottemplate.shard;
+
+import com.ince.springboottemplate.model.vo.UserReshardResultVO;
+import com.ince.springboottemplate.services.UserReshardService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 命令行重新分片用户表
+ * <pre>
+ * java -jar app.jar --reshard-target-prefix=users_v2 --reshard-target-count=8 [--reshard-verify-only]
+ * </pre>
+ * 复制当前布局（app.user-shard）的全部用户到目标布局并校验修复；--reshard-verify-only 只校验。
+ * 完成后应用退出，目标布局一致时退出码为 0。未传 --reshard-target-prefix 时不做任何事。
+ */
+@Component
+@Slf4j
+public class UserReshardRunner implements ApplicationRunner {
+
+    private static final String PREFIX_OPTION = "reshard-target-prefix";
+    private static final String COUNT_OPTION = "reshard-target-count";
+    private static final String VERIFY_ONLY_OPTION = "reshard-verify-only";
+
+    @Resource
+    private UserReshardService userReshardService;
+
+    @Resource
+    private ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String prefix = firstOption(args, PREFIX_OPTION);
+        if (prefix == null) {
+            return;
+        }
+        String count = firstOption(args, COUNT_OPTION);
+        if (count == null) {
+            throw new IllegalArgumentException("缺少参数 --" + COUNT_OPTION);
+        }
+        boolean verifyOnly = args.containsOption(VERIFY_ONLY_OPTION);
+
+        UserReshardResultVO result = userReshardService.reshard(prefix, Integer.parseInt(count), verifyOnly);
+        log.info("重新分片结束: source={}, target={}, verifyOnly={}, copied={}, verified={}, mismatchedRows={}, "
+                        + "mismatchedLookups={}, repaired={}, sourceRows={}, targetRows={}, consistent={}, cost={}ms",
+                result.getSourceLayout(), result.getTargetLayout(), result.isVerifyOnly(), result.getCopiedRows(),
+                result.getVerifiedRows(), result.getMismatchedRows(), result.getMismatchedLookups(),
+                result.getRepairedRows(), result.getSourceRows(), result.getTargetRows(), result.isConsistent(),
+                result.getElapsedMillis());
+
+        int exitCode = result.isConsistent() ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+
+    private static String firstOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
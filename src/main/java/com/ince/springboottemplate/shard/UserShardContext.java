@@ -0,0 +1,38 @@
+package com.ince.springboottemplate.shard;
+
+/**
+ * 当前线程访问的用户物理表
+ * 由 {@link UserShardRouter} 在执行 SQL 前设置，MyBatis-Plus 动态表名插件把 SQL 中的 users 替换为该表
+ */
+public class UserShardContext {
+
+    private static final ThreadLocal<String> TABLE = new ThreadLocal<>();
+
+    /**
+     * 当前线程指定的物理表，未指定时返回 null
+     */
+    public static String currentTable() {
+        return TABLE.get();
+    }
+
+    /**
+     * 指定物理表
+     * @return 指定前的物理表，退出时传给 {@link #restore}
+     */
+    public static String enter(String table) {
+        String previous = TABLE.get();
+        TABLE.set(table);
+        return previous;
+    }
+
+    /**
+     * 恢复指定前的物理表，支持嵌套调用
+     */
+    public static void restore(String previous) {
+        if (previous == null) {
+            TABLE.remove();
+        } else {
+            TABLE.set(previous);
+        }
+    }
+}
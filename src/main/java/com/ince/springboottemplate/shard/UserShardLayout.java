@@ -0,0 +1,90 @@
+package com.ince.springboottemplate.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 用户表分片布局：物理表名前缀 + 分片数
+ * <ul>
+ *     <li>分片数为 1 时物理表就是前缀本身（默认 users，即未分片）</li>
+ *     <li>分片数大于 1 时物理表为 {@code <前缀>_0} ~ {@code <前缀>_<n-1>}，按用户ID的哈希取模路由</li>
+ * </ul>
+ * 重新分片时新布局使用不同的前缀（如 users_v2），与当前布局的表同时存在，切换配置后生效。
+ */
+public final class UserShardLayout {
+
+    private final String prefix;
+
+    private final int count;
+
+    private final List<String> tables;
+
+    public UserShardLayout(String prefix, int count) {
+        if (prefix == null || !prefix.matches("[A-Za-z][A-Za-z0-9_]{0,50}")) {
+            throw new IllegalArgumentException("非法的用户表前缀: " + prefix);
+        }
+        if (count < 1 || count > 1024) {
+            throw new IllegalArgumentException("用户表分片数必须在 1-1024 之间: " + count);
+        }
+        this.prefix = prefix;
+        this.count = count;
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(count == 1 ? prefix : prefix + "_" + i);
+        }
+        this.tables = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * 用户ID所在的分片序号
+     * 雪花ID的低位是序列号和 worker id，先做一次 64 位混合再取模，避免分布随序列号偏斜
+     */
+    public int shardOf(long userId) {
+        if (count == 1) {
+            return 0;
+        }
+        long h = userId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) count);
+    }
+
+    /**
+     * 用户ID所在的物理表
+     */
+    public String tableOf(long userId) {
+        return tables.get(shardOf(userId));
+    }
+
+    public String table(int shard) {
+        return tables.get(shard);
+    }
+
+    /**
+     * 全部物理表，按分片序号排列
+     */
+    public List<String> tables() {
+        return tables;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    @Override
+    public String toString() {
+        return prefix + "[" + count + "]";
+    }
+}
@@ -0,0 +1,105 @@
+package com.ince.springboottemplate.shard;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 用户表分片路由
+ * <ul>
+ *     <li>按用户ID访问的 SQL 通过 {@link #onUser} 执行，SQL 中的 users 被替换为该用户所在的物理表</li>
+ *     <li>不带用户ID的查询（列表、导出、布隆过滤器重建）通过 {@link #onTable} / {@link #forEachTable} 逐表执行</li>
+ *     <li>分片后未指定物理表就访问 users 会抛出异常，而不是静默地访问错误的表</li>
+ * </ul>
+ * 按用户名、邮箱的查找先通过全局查找表 user_lookup 得到用户ID，见 UserIdentityService。
+ */
+@Component
+@Slf4j
+public class UserShardRouter {
+
+    /**
+     * SQL 中使用的逻辑表名
+     */
+    public static final String LOGICAL_TABLE = "users";
+
+    @Value("${app.user-shard.table-prefix:users}")
+    private String tablePrefix;
+
+    @Value("${app.user-shard.shard-count:1}")
+    private int shardCount;
+
+    private UserShardLayout layout;
+
+    @PostConstruct
+    public void init() {
+        layout = new UserShardLayout(tablePrefix, shardCount);
+        if (layout.isSharded()) {
+            log.info("用户表已分片: layout={}", layout);
+        }
+    }
+
+    /**
+     * 在用户所在的物理表上执行
+     */
+    public <T> T onUser(long userId, Supplier<T> action) {
+        return onTable(layout.tableOf(userId), action);
+    }
+
+    /**
+     * 在指定物理表上执行，重新分片时也用于访问目标布局的表
+     */
+    public <T> T onTable(String table, Supplier<T> action) {
+        String previous = UserShardContext.enter(table);
+        try {
+            return action.get();
+        } finally {
+            UserShardContext.restore(previous);
+        }
+    }
+
+    /**
+     * 依次在当前布局的每个物理表上执行
+     */
+    public void forEachTable(Consumer<String> action) {
+        for (String table : layout.tables()) {
+            onTable(table, () -> {
+                action.accept(table);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 动态表名插件的回调：把 SQL 中的逻辑表名替换为物理表名，其他表原样返回
+     */
+    public String resolveTableName(String tableName) {
+        if (!LOGICAL_TABLE.equalsIgnoreCase(tableName)) {
+            return tableName;
+        }
+        String table = UserShardContext.currentTable();
+        if (table != null) {
+            return table;
+        }
+        if (!layout.isSharded()) {
+            return layout.table(0);
+        }
+        throw new IllegalStateException("用户表已分片，访问 users 前必须通过 UserShardRouter 指定物理表");
+    }
+
+    public UserShardLayout getLayout() {
+        return layout;
+    }
+
+    public List<String> tables() {
+        return layout.tables();
+    }
+
+    public boolean isSharded() {
+        return layout.isSharded();
+    }
+}
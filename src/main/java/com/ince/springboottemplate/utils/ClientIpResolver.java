@@ -0,0 +1,283 @@
+package com.ince.springboottemplate.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 客户端 IP 解析器
+ * <ul>
+ *     <li>只有直连地址属于可信代理时才读取代理请求头，防止客户端伪造</li>
+ *     <li>请求头按配置的优先级读取；多级转发链（如 X-Forwarded-For）从右向左跳过可信代理，取第一个不可信地址</li>
+ *     <li>只接受 IPv4/IPv6 字面量，转发链中出现其他值时放弃请求头、使用直连地址</li>
+ *     <li>解析过程不使用正则和中间数组，本机地址在创建时解析一次并缓存</li>
+ *     <li>请求头调试日志按采样率输出，默认关闭</li>
+ * </ul>
+ * 可信代理支持 IPv4 CIDR（如 10.0.0.0/8）和精确的 IPv4/IPv6 地址。
+ */
+@Slf4j
+public class ClientIpResolver {
+
+    public static final String LOCALHOST = "127.0.0.1";
+    private static final String LOCALHOST_IPV6 = "0:0:0:0:0:0:0:1";
+    private static final String LOCALHOST_IPV6_SHORT = "::1";
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * 默认只读取 X-Forwarded-For：nginx、ELB 等代理会在右侧追加直连地址，其他请求头（X-Natapp-IP、
+     * Proxy-Client-IP 等）代理通常原样透传，客户端可以自行伪造。X-Real-IP 需确认代理会覆盖后再显式配置。
+     */
+    public static final List<String> DEFAULT_HEADERS = List.of("X-Forwarded-For");
+
+    /**
+     * 默认可信代理：回环地址和私有网段
+     */
+    public static final List<String> DEFAULT_TRUSTED_PROXIES = List.of("127.0.0.0/8", "10.0.0.0/8",
+            "172.16.0.0/12", "192.168.0.0/16", LOCALHOST_IPV6_SHORT);
+
+    private final String[] headers;
+    private final int[] trustedNetworks;
+    private final int[] trustedMasks;
+    private final Set<String> trustedExact;
+    private final double debugSampleRate;
+    private final String localHostAddress;
+
+    public ClientIpResolver(List<String> headers, List<String> trustedProxies, double debugSampleRate) {
+        this.headers = headers.stream().map(String::trim).filter(h -> !h.isEmpty()).toArray(String[]::new);
+        List<int[]> networks = new ArrayList<>();
+        Set<String> exact = new HashSet<>();
+        for (String proxy : trustedProxies) {
+            String entry = proxy.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int slash = entry.indexOf('/');
+            String address = slash < 0 ? entry : entry.substring(0, slash);
+            long ipv4 = parseIpv4(address, 0, address.length());
+            if (ipv4 < 0) {
+                if (slash >= 0) {
+                    throw new IllegalArgumentException("仅支持 IPv4 网段: " + entry);
+                }
+                exact.add(entry);
+                if (LOCALHOST_IPV6_SHORT.equals(entry) || LOCALHOST_IPV6.equals(entry)) {
+                    exact.add(LOCALHOST_IPV6_SHORT);
+                    exact.add(LOCALHOST_IPV6);
+                }
+                continue;
+            }
+            int prefix = slash < 0 ? 32 : Integer.parseInt(entry.substring(slash + 1));
+            if (prefix < 0 || prefix > 32) {
+                throw new IllegalArgumentException("非法的网段前缀: " + entry);
+            }
+            int mask = prefix == 0 ? 0 : -1 << (32 - prefix);
+            networks.add(new int[]{(int) ipv4 & mask, mask});
+        }
+        this.trustedNetworks = new int[networks.size()];
+        this.trustedMasks = new int[networks.size()];
+        for (int i = 0; i < networks.size(); i++) {
+            trustedNetworks[i] = networks.get(i)[0];
+            trustedMasks[i] = networks.get(i)[1];
+        }
+        this.trustedExact = Set.copyOf(exact);
+        this.debugSampleRate = debugSampleRate;
+        this.localHostAddress = resolveLocalHostAddress();
+    }
+
+    /**
+     * 使用默认配置创建解析器
+     */
+    public static ClientIpResolver defaults() {
+        return new ClientIpResolver(DEFAULT_HEADERS, DEFAULT_TRUSTED_PROXIES, 0D);
+    }
+
+    /**
+     * 解析客户端 IP
+     */
+    public String resolve(HttpServletRequest request) {
+        if (debugSampleRate > 0 && log.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < debugSampleRate) {
+            dumpHeaders(request);
+        }
+
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr != null && isTrustedProxy(remoteAddr, 0, remoteAddr.length())) {
+            for (String header : headers) {
+                String value = request.getHeader(header);
+                String ip = value == null ? null : clientFromChain(value);
+                if (ip != null) {
+                    return normalize(ip);
+                }
+            }
+        }
+
+        // 没有可用的代理请求头时使用直连地址，本地访问则使用本机地址
+        if (isBlankOrUnknown(remoteAddr, 0, remoteAddr == null ? 0 : remoteAddr.length())) {
+            return LOCALHOST;
+        }
+        if (isLoopback(remoteAddr)) {
+            return localHostAddress;
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * 是否为可信代理地址
+     */
+    public boolean isTrustedProxy(String ip) {
+        return ip != null && isTrustedProxy(ip, 0, ip.length());
+    }
+
+    /**
+     * 从单个值或逗号分隔的转发链中取客户端地址：从右向左跳过可信代理；全部可信时取最左侧地址。
+     * 遇到不是 IP 字面量的值时返回 null：其左侧的内容都不可信，随机值也不能当作限流和登录记录的 IP。
+     */
+    private String clientFromChain(String value) {
+        int end = value.length();
+        int leftmostStart = -1;
+        int leftmostEnd = -1;
+        while (end > 0) {
+            int comma = value.lastIndexOf(',', end - 1);
+            int start = comma + 1;
+            int tokenStart = start;
+            int tokenEnd = end;
+            while (tokenStart < tokenEnd && value.charAt(tokenStart) <= ' ') {
+                tokenStart++;
+            }
+            while (tokenEnd > tokenStart && value.charAt(tokenEnd - 1) <= ' ') {
+                tokenEnd--;
+            }
+            if (!isBlankOrUnknown(value, tokenStart, tokenEnd)) {
+                if (!isIpLiteral(value, tokenStart, tokenEnd)) {
+                    return null;
+                }
+                if (!isTrustedProxy(value, tokenStart, tokenEnd)) {
+                    return value.substring(tokenStart, tokenEnd);
+                }
+                leftmostStart = tokenStart;
+                leftmostEnd = tokenEnd;
+            }
+            end = comma < 0 ? 0 : comma;
+        }
+        return leftmostStart < 0 ? null : value.substring(leftmostStart, leftmostEnd);
+    }
+
+    private boolean isTrustedProxy(String ip, int start, int end) {
+        long ipv4 = parseIpv4(ip, start, end);
+        if (ipv4 >= 0) {
+            int address = (int) ipv4;
+            for (int i = 0; i < trustedNetworks.length; i++) {
+                if ((address & trustedMasks[i]) == trustedNetworks[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (trustedExact.isEmpty()) {
+            return false;
+        }
+        return trustedExact.contains(start == 0 && end == ip.length() ? ip : ip.substring(start, end));
+    }
+
+    private String normalize(String ip) {
+        return isLoopback(ip) ? LOCALHOST : ip;
+    }
+
+    private static boolean isLoopback(String ip) {
+        return LOCALHOST.equals(ip) || LOCALHOST_IPV6.equals(ip) || LOCALHOST_IPV6_SHORT.equals(ip);
+    }
+
+    private static boolean isBlankOrUnknown(String value, int start, int end) {
+        if (value == null || start >= end) {
+            return true;
+        }
+        return end - start == UNKNOWN.length() && value.regionMatches(true, start, UNKNOWN, 0, UNKNOWN.length());
+    }
+
+    /**
+     * 是否为 IPv4 或 IPv6 字面量，不做 DNS 解析
+     */
+    static boolean isIpLiteral(String value, int start, int end) {
+        if (parseIpv4(value, start, end) >= 0) {
+            return true;
+        }
+        // IPv6 最长 45 个字符（含内嵌 IPv4）；只含十六进制数字、冒号和点，且以十六进制数字或冒号开头，
+        // InetAddress 会按字面量解析，非法时直接抛出异常而不会查询 DNS
+        if (end - start < 2 || end - start > 45) {
+            return false;
+        }
+        boolean colon = false;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == ':') {
+                colon = true;
+            } else if (c != '.' && Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        char first = value.charAt(start);
+        if (!colon || (first != ':' && Character.digit(first, 16) < 0)) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(value.substring(start, end)) instanceof Inet6Address;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析点分十进制 IPv4 地址（按无符号整数），非法时返回 -1
+     */
+    public static long parseIpv4(String value, int start, int end) {
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                result = (result << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1;
+        }
+        return (result << 8) | octet;
+    }
+
+    private static String resolveLocalHostAddress() {
+        try {
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (Exception e) {
+            log.warn("获取本机地址失败，使用回环地址: {}", e.getMessage());
+            return LOCALHOST;
+        }
+    }
+
+    private static void dumpHeaders(HttpServletRequest request) {
+        StringBuilder builder = new StringBuilder("Request headers: remoteAddr=").append(request.getRemoteAddr());
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            builder.append(", ").append(headerName).append('=').append(request.getHeader(headerName));
+        }
+        log.debug(builder.toString());
+    }
+}
@@ -0,0 +1,52 @@
+package com.ince.springboottemplate.utils;
+
+import com.ince.springboottemplate.enums.ErrorCode;
+import com.ince.springboottemplate.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 游标分页的不透明游标编解码
+ * 格式：1 字节格式版本 + 8 字节上一页最后一条记录的ID + 4 字节筛选条件指纹，整体做 URL 安全的 Base64。
+ * 指纹用于拒绝在不同筛选条件下复用的游标。
+ */
+public class CursorUtils {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES + Integer.BYTES;
+
+    /**
+     * 编码游标
+     * @param lastId      上一页最后一条记录的ID
+     * @param fingerprint 筛选条件指纹
+     */
+    public static String encode(long lastId, int fingerprint) {
+        byte[] bytes = ByteBuffer.allocate(LENGTH).put(FORMAT_VERSION).putLong(lastId).putInt(fingerprint).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 解码游标，格式错误或筛选条件不一致时抛出参数错误
+     * @param cursor      游标
+     * @param fingerprint 当前请求的筛选条件指纹
+     * @return 上一页最后一条记录的ID
+     */
+    public static long decode(String cursor, int fingerprint) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的分页游标");
+        }
+        if (bytes.length != LENGTH || bytes[0] != FORMAT_VERSION) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的分页游标");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+        long lastId = buffer.getLong();
+        if (buffer.getInt() != fingerprint) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分页游标与筛选条件不一致");
+        }
+        return lastId;
+    }
+}
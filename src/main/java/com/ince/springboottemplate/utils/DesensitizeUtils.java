@@ -0,0 +1,48 @@
+package com.ince.springboottemplate.utils;
+
+/**
+ * 敏感信息脱敏工具
+ * 规则与 {@link com.ince.springboottemplate.model.vo.UserVO} 字段注释中约定的展示格式一致
+ */
+public class DesensitizeUtils {
+
+    /**
+     * 邮箱只保留首字符和域名，如 'u***@example.com'
+     */
+    public static String maskEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return email;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    /**
+     * 手机号保留前 3 位和后 4 位，如 '138****1234'
+     */
+    public static String maskPhone(String phone) {
+        if (phone == null || phone.isEmpty()) {
+            return phone;
+        }
+        if (phone.length() < 7) {
+            return "****";
+        }
+        return phone.substring(0, 3) + "****" + phone.substring(phone.length() - 4);
+    }
+
+    /**
+     * 身份证号只保留后 2 位，如 '****************XX'
+     */
+    public static String maskIdCard(String idCard) {
+        if (idCard == null || idCard.isEmpty()) {
+            return idCard;
+        }
+        if (idCard.length() <= 2) {
+            return "**";
+        }
+        return "*".repeat(idCard.length() - 2) + idCard.substring(idCard.length() - 2);
+    }
+}
@@ -12,7 +12,13 @@ public class DeviceUtils {
      * 获取设备信息
      */
     public static String getDeviceInfo(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
+        return getDeviceInfo(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 根据 User-Agent 获取设备信息，便于在请求结束后异步解析
+     */
+    public static String getDeviceInfo(String userAgent) {
         if (StringUtils.isBlank(userAgent)) {
             return "未知设备";
         }
@@ -0,0 +1,56 @@
+package com.ince.springboottemplate.utils;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Locale;
+
+/**
+ * 唯一索引冲突解析
+ * 注册、修改资料和批量导入共用：按 MySQL 信息中 for key '...' 的索引名判断冲突的字段。
+ * 不能在整段信息里找 "email"、"username"：MyBatis 翻译后的信息包含整条 INSERT 语句，驱动信息包含重复的值本身。
+ */
+public class DuplicateKeyUtils {
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+
+    private static final String KEY_MARKER = "for key '";
+
+    /**
+     * 冲突的用户字段
+     * @return {@link #USERNAME}、{@link #EMAIL}，无法识别的索引返回 null
+     */
+    public static String conflictField(DuplicateKeyException e) {
+        String key = violatedKey(e.getMostSpecificCause().getMessage());
+        if (key == null) {
+            return null;
+        }
+        return switch (key.toLowerCase(Locale.ROOT)) {
+            // users 表的唯一约束 username、uk_email；分片后 user_lookup 冲突按字段名报告（见 UserIdentityServiceImpl）
+            case "username" -> USERNAME;
+            case "uk_email", "email" -> EMAIL;
+            default -> null;
+        };
+    }
+
+    /**
+     * 取出 "Duplicate entry '...' for key '...'" 中的索引名，去掉 MySQL 8.0.19 起附带的表名前缀（如 users_3.uk_email）
+     */
+    static String violatedKey(String message) {
+        if (message == null) {
+            return null;
+        }
+        // 重复的值在索引名之前，取最后一个标记，值中包含标记文本也不会误判
+        int start = message.lastIndexOf(KEY_MARKER);
+        if (start < 0) {
+            return null;
+        }
+        start += KEY_MARKER.length();
+        int end = message.indexOf('\'', start);
+        if (end < 0) {
+            return null;
+        }
+        String key = message.substring(start, end);
+        return key.substring(key.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ince.springboottemplate.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 用户注册字段校验
+ * 注册接口和批量导入共用同一套规则
+ */
+public class UserValidationUtils {
+
+    public static final int USERNAME_MIN_LENGTH = 4;
+    public static final int USERNAME_MAX_LENGTH = 20;
+    public static final int PASSWORD_MIN_LENGTH = 5;
+    public static final int PASSWORD_MAX_LENGTH = 20;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * 校验用户名、密码、邮箱
+     * @return 校验失败的原因，通过时返回 null
+     */
+    public static String checkRegistration(String username, String password, String email) {
+        if (StringUtils.isAnyBlank(username, password, email)) {
+            return "参数为空";
+        }
+        if (username.length() < USERNAME_MIN_LENGTH || username.length() > USERNAME_MAX_LENGTH) {
+            return "用户名长度必须在4-20个字符之间";
+        }
+        if (password.length() < PASSWORD_MIN_LENGTH || password.length() > PASSWORD_MAX_LENGTH) {
+            return "密码长度必须在5-20个字符之间";
+        }
+        return null;
+    }
+
+    /**
+     * 与 MySQL 大小写、重音不敏感的比较保持一致：数据库中相等的两个值折叠后一定相同
+     */
+    public static String fold(String value) {
+        String folded = value.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) >= 0x80) {
+                return COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return folded;
+    }
+}
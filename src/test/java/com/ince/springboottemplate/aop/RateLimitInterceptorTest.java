@@ -0,0 +1,74 @@
+package com.ince.springboottemplate.aop;
+
+import com.ince.springboottemplate.annotation.RateLimit;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.ratelimit.RateLimitKeyType;
+import com.ince.springboottemplate.ratelimit.TokenBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地令牌桶限流测试：持续访问的 key 每个窗口放行的请求数不超过 permits（加上第一个窗口的突发）
+ */
+class RateLimitInterceptorTest {
+
+    private static final int PERMITS = 5;
+
+    private LimitedService service;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+        ReflectionTestUtils.setField(interceptor, "redisEnabled", false);
+        ReflectionTestUtils.setField(interceptor, "localMaxKeys", 100);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LimitedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(interceptor);
+        service = factory.getProxy();
+    }
+
+    @Test
+    void bucketAllowsBurstOfCapacityOnly() {
+        TokenBucket bucket = new TokenBucket(PERMITS, 60);
+        for (int i = 0; i < PERMITS; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void steadyClientIsNotGivenAFreshBucketEveryWindow() throws InterruptedException {
+        long start = System.nanoTime();
+        long durationNanos = TimeUnit.MILLISECONDS.toNanos(3500);
+        int passed = 0;
+        while (System.nanoTime() - start < durationNanos) {
+            try {
+                service.call("alice");
+                passed++;
+            } catch (BusinessException e) {
+                // 被限流
+            }
+            Thread.sleep(10);
+        }
+        double windows = (System.nanoTime() - start) / 1e9;
+        // 初始突发 PERMITS 个，之后每秒补充 PERMITS 个；按写入过期时每个窗口还会多出一个满桶（约 37 个）
+        assertTrue(passed <= PERMITS + PERMITS * windows + 1, "放行过多: " + passed);
+        assertTrue(passed >= PERMITS * 3, "放行过少: " + passed);
+    }
+
+    static class LimitedService {
+
+        @RateLimit(name = "test", type = RateLimitKeyType.PARAMETER, key = "#p0", permits = PERMITS, windowSeconds = 1)
+        public void call(String user) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ince.springboottemplate.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据源并发限制测试：读写分离时主库和每个副本各自按 max-active 限制，而不是共用一个信号量
+ */
+class ConcurrencyLimitSettingsTest {
+
+    @Test
+    void followsVirtualThreadSwitchUnlessConfigured() {
+        assertFalse(ConcurrencyLimitSettings.from(new MockEnvironment()).enabled());
+        assertTrue(ConcurrencyLimitSettings.from(new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")).enabled());
+        assertFalse(ConcurrencyLimitSettings.from(new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")
+                .withProperty("app.datasource.limiter.enabled", "false")).enabled());
+    }
+
+    @Test
+    void sizesEachPoolByItsOwnMaxActive() {
+        ConcurrencyLimitSettings settings = new ConcurrencyLimitSettings(true, 0, 100L);
+        DruidDataSource pool = druid(35);
+        ConcurrencyLimitedDataSource limited = assertInstanceOf(ConcurrencyLimitedDataSource.class,
+                settings.limit(pool, "dataSource"));
+        assertEquals(35, limited.getAvailablePermits());
+        assertSame(limited, settings.limit(limited, "dataSource"));
+
+        ConcurrencyLimitSettings fixed = new ConcurrencyLimitSettings(true, 8, 100L);
+        assertEquals(8, ((ConcurrencyLimitedDataSource) fixed.limit(pool, "dataSource")).getAvailablePermits());
+
+        ConcurrencyLimitSettings disabled = new ConcurrencyLimitSettings(false, 0, 100L);
+        assertSame(pool, disabled.limit(pool, "dataSource"));
+    }
+
+    @Test
+    void routingLimitsPrimaryAndEveryReplicaSeparately() throws Exception {
+        DruidDataSource primary = druid(20);
+        primary.setUrl("jdbc:h2:mem:limit_primary;DB_CLOSE_DELAY=-1");
+        ReplicaProperties replicaProperties = new ReplicaProperties();
+        replicaProperties.setUrl("jdbc:h2:mem:limit_replica;DB_CLOSE_DELAY=-1");
+        ReplicaRoutingPostProcessor postProcessor = new ReplicaRoutingPostProcessor(
+                List.of(replicaProperties, replicaProperties), 0, 1, 1000L,
+                new ConcurrencyLimitSettings(true, 0, 100L));
+        try {
+            ReplicaRoutingDataSource routing = assertInstanceOf(ReplicaRoutingDataSource.class,
+                    postProcessor.postProcessAfterInitialization(primary, "dataSource"));
+            ConcurrencyLimitedDataSource limitedPrimary = assertInstanceOf(ConcurrencyLimitedDataSource.class,
+                    routing.getPrimary());
+            assertEquals(20, limitedPrimary.getAvailablePermits());
+
+            @SuppressWarnings("unchecked")
+            List<Object> replicas = (List<Object>) ReflectionTestUtils.getField(routing, "replicas");
+            assertEquals(2, replicas.size());
+            for (Object replica : replicas) {
+                DataSource replicaDataSource = (DataSource) ReflectionTestUtils.getField(replica, "dataSource");
+                assertEquals(20, assertInstanceOf(ConcurrencyLimitedDataSource.class, replicaDataSource)
+                        .getAvailablePermits());
+            }
+        } finally {
+            postProcessor.destroy();
+            primary.close();
+        }
+    }
+
+    private static DruidDataSource druid(int maxActive) {
+        DruidDataSource pool = new DruidDataSource();
+        pool.setMaxActive(maxActive);
+        return pool;
+    }
+}
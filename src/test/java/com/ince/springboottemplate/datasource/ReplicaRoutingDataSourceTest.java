@@ -0,0 +1,163 @@
+package com.ince.springboottemplate.datasource;
+
+import com.ince.springboottemplate.annotation.ReadReplica;
+import com.ince.springboottemplate.annotation.ReadYourWrites;
+import com.ince.springboottemplate.aop.ReadReplicaInterceptor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 读写分离测试：两个 H2 内存库分别代替主库和副本，各自在 node 表中记录自己的名称
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private FlakyDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private NodeService service;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        replica = new FlakyDataSource(h2("replica"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica);
+        routing = new ReplicaRoutingDataSource(primary, replicas, 0, 1);
+
+        ReadReplicaInterceptor interceptor = new ReadReplicaInterceptor();
+        ReflectionTestUtils.setField(interceptor, "stickySeconds", 5L);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new NodeService(new JdbcTemplate(routing)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(interceptor);
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        routing.close();
+    }
+
+    @Test
+    void readsGoToReplicaOnlyInsideReadReplicaMethods() {
+        assertEquals("primary", service.currentNode());
+        assertEquals("replica", service.currentNodeFromReplica());
+        assertEquals("primary", service.currentNode());
+        assertEquals(1, routing.getReplicaConnections());
+    }
+
+    @Test
+    void sessionSticksToPrimaryAfterOwnWrite() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("replica", service.currentNodeFromReplica());
+        service.update();
+        assertEquals("primary", service.currentNodeFromReplica());
+
+        // 其他会话不受影响
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(other));
+        assertEquals("replica", service.currentNodeFromReplica());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDownAndRecovers() {
+        replica.down = true;
+        assertEquals("primary", service.currentNodeFromReplica());
+        assertFalse(routing.getReplicaHealth().get("replica-0"));
+        assertEquals(1, routing.getFallbacks());
+
+        // 恢复前不再尝试副本
+        replica.down = false;
+        assertEquals("primary", service.currentNodeFromReplica());
+
+        routing.checkHealth();
+        assertTrue(routing.getReplicaHealth().get("replica-0"));
+        assertEquals("replica", service.currentNodeFromReplica());
+    }
+
+    @Test
+    void writeTransactionStaysOnPrimary() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("primary", service.currentNodeFromReplica());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private static DataSource h2(String node) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + node + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", node);
+        return dataSource;
+    }
+
+    /**
+     * 可以模拟宕机的数据源
+     */
+    private static class FlakyDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        FlakyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica is down");
+            }
+            return super.getConnection();
+        }
+    }
+
+    public static class NodeService {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        public NodeService(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public String currentNode() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        @ReadReplica
+        public String currentNodeFromReplica() {
+            return currentNode();
+        }
+
+        @ReadYourWrites
+        public void update() {
+            jdbcTemplate.update("UPDATE node SET name = name");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ince.springboottemplate.event;
+
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 最后登录信息写回缓冲测试：合并计数、按最新登录时间写入、每批一次批量失效
+ */
+class LastLoginWriteBehindBufferTest {
+
+    private final Map<Long, Date> written = new HashMap<>();
+    private final List<List<Long>> invalidations = new ArrayList<>();
+
+    private LastLoginWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        UserMapper userMapper = (UserMapper) Proxy.newProxyInstance(UserMapper.class.getClassLoader(),
+                new Class<?>[]{UserMapper.class}, (proxy, method, args) -> {
+                    if (!"updateLastLogin".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    written.put((Long) args[0], (Date) args[1]);
+                    return 1;
+                });
+        SqlSession sqlSession = (SqlSession) Proxy.newProxyInstance(SqlSession.class.getClassLoader(),
+                new Class<?>[]{SqlSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getMapper" -> userMapper;
+                    case "flushStatements" -> List.of();
+                    default -> null;
+                });
+        SqlSessionFactory sqlSessionFactory = (SqlSessionFactory) Proxy.newProxyInstance(
+                SqlSessionFactory.class.getClassLoader(), new Class<?>[]{SqlSessionFactory.class},
+                (proxy, method, args) -> sqlSession);
+
+        UserShardRouter userShardRouter = new UserShardRouter();
+        ReflectionTestUtils.setField(userShardRouter, "tablePrefix", "users");
+        ReflectionTestUtils.setField(userShardRouter, "shardCount", 1);
+        userShardRouter.init();
+
+        buffer = new LastLoginWriteBehindBuffer();
+        ReflectionTestUtils.setField(buffer, "sqlSessionFactory", sqlSessionFactory);
+        ReflectionTestUtils.setField(buffer, "userCacheService", new RecordingUserCacheService());
+        ReflectionTestUtils.setField(buffer, "userShardRouter", userShardRouter);
+        ReflectionTestUtils.setField(buffer, "batchSize", 500);
+        ReflectionTestUtils.setField(buffer, "maxPending", 20_000);
+    }
+
+    @Test
+    void countsEveryLoginMergedIntoAnExistingRecord() {
+        buffer.record(1L, new Date(1_000), "203.0.113.1", "a");
+        buffer.record(1L, new Date(2_000), "203.0.113.2", "b");
+        buffer.record(1L, new Date(3_000), "203.0.113.3", "c");
+        // 乱序到达的旧登录同样被合并
+        buffer.record(1L, new Date(1_500), "203.0.113.4", "d");
+        buffer.record(2L, new Date(1_000), "203.0.113.5", "e");
+
+        assertEquals(5, buffer.getRecorded());
+        assertEquals(3, buffer.getCoalesced());
+        assertEquals(2, buffer.getPendingSize());
+    }
+
+    @Test
+    void flushWritesLatestLoginAndInvalidatesOncePerBatch() {
+        for (long userId = 1; userId <= 1200; userId++) {
+            buffer.record(userId, new Date(1_000), "203.0.113.1", "a");
+        }
+        buffer.record(7L, new Date(2_000), "203.0.113.2", "b");
+        buffer.flush();
+
+        assertEquals(1200, written.size());
+        assertEquals(new Date(2_000), written.get(7L));
+        // 500 + 500 + 200，每批一次批量失效
+        assertEquals(3, invalidations.size());
+        assertEquals(1200, invalidations.stream().mapToInt(List::size).sum());
+        assertEquals(0, buffer.getPendingSize());
+    }
+
+    private final class RecordingUserCacheService implements UserCacheService {
+
+        @Override
+        public UserVO get(Long userId, Function<Long, UserVO> loader) {
+            return loader.apply(userId);
+        }
+
+        @Override
+        public void invalidate(Long userId) {
+            invalidations.add(List.of(userId));
+        }
+
+        @Override
+        public void invalidate(Collection<Long> userIds) {
+            invalidations.add(List.copyOf(userIds));
+        }
+
+        @Override
+        public UserCacheStatsVO getStats() {
+            return new UserCacheStatsVO();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ince.springboottemplate.export;
+
+import com.ince.springboottemplate.enums.ExportFormat;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.model.vo.UserVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导出写出器测试，不启动 Spring 上下文
+ */
+class UserExportWriterTest {
+
+    private static final int ROWS = 1_000_000;
+
+    /**
+     * 10 万行和 100 万行时各采样一次堆占用，增长不应超过该值
+     */
+    private static final long MAX_HEAP_GROWTH = 16L * 1024 * 1024;
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    void heapStaysFlatForMillionRows(ExportFormat format) throws IOException {
+        long[] heapAt = new long[2];
+        Iterator<UserVO> rows = new SyntheticRows(ROWS, index -> {
+            if (index == ROWS / 10) {
+                heapAt[0] = usedHeap();
+            } else if (index == ROWS - 1) {
+                heapAt[1] = usedHeap();
+            }
+        });
+        CountingOutputStream out = new CountingOutputStream();
+
+        long written = new UserExportWriter(format, 0, 1000).write(rows, out);
+
+        assertEquals(ROWS, written);
+        assertTrue(out.count > ROWS * 50L, "输出字节数异常: " + out.count);
+        long growth = heapAt[1] - heapAt[0];
+        assertTrue(growth < MAX_HEAP_GROWTH, "导出过程中堆占用增长 " + growth / 1024 + "KB");
+    }
+
+    @Test
+    void csvMasksAndEscapes() throws IOException {
+        UserVO user = user(1);
+        user.setDisplayName("=HYPERLINK(\"x\")");
+        user.setAvatar("a,b");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new UserExportWriter(ExportFormat.CSV, 0, 1).write(List.of(user).iterator(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("\uFEFFid,username,displayName,email,phone,avatar,lastLoginIpLocation,status,role", lines[0]);
+        assertEquals("1,user1,\"'=HYPERLINK(\"\"x\"\")\",u***@example.com,138****0001,\"a,b\",浙江省杭州市,1,1", lines[1]);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new UserExportWriter(ExportFormat.NDJSON, 0, 2).write(List.of(user(1), user(2), user(3)).iterator(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":2,\"username\":\"user2\",\"displayName\":\"用户2\",\"email\":\"u***@example.com\","
+                + "\"phone\":\"138****0002\",\"avatar\":null,\"lastLoginIpLocation\":\"浙江省杭州市\",\"status\":1,\"role\":1}", lines[1]);
+        assertTrue(lines[2].startsWith("{\"id\":3,"));
+    }
+
+    private static UserVO user(long id) {
+        UserVO user = new UserVO();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setDisplayName("用户" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPhone(String.format("138%08d", id));
+        user.setLastLoginIpLocation("浙江省杭州市");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRole(UserRole.REGULAR_USER);
+        return user;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 按需生成行，模拟数据库游标
+     */
+    private static class SyntheticRows implements Iterator<UserVO> {
+
+        private final int total;
+
+        private final IntConsumer onRow;
+
+        private int next;
+
+        SyntheticRows(int total, IntConsumer onRow) {
+            this.total = total;
+            this.onRow = onRow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < total;
+        }
+
+        @Override
+        public UserVO next() {
+            if (next >= total) {
+                throw new NoSuchElementException();
+            }
+            onRow.accept(next);
+            return user(++next);
+        }
+    }
+
+    /**
+     * 丢弃写入内容，只计数
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ince.springboottemplate.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 雪花算法主键生成器测试，不启动 Spring 上下文
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 86_400_000L;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        int threads = 16;
+        int perThread = 200_000;
+        // 生成速度超过每毫秒 4096 个时会借用后面的毫秒，放宽允许领先的时间
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(16, 10_000, System::currentTimeMillis);
+        generator.assignWorker(7, 0, Long.MAX_VALUE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+
+        long[] all = new long[threads * perThread];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "同一线程内的ID应单调递增");
+            }
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+        executor.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] != all[i - 1], "ID重复: " + all[i]);
+        }
+        assertTrue(all[0] > 0);
+        assertEquals(7, SnowflakeIdGenerator.workerIdOf(all[all.length - 1]));
+    }
+
+    @Test
+    void sequenceExhaustionBorrowsNextMillisecond() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1, clock::get);
+        generator.assignWorker(1, 0, Long.MAX_VALUE);
+
+        long previous = 0;
+        for (int i = 0; i < 8192; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        // 两个毫秒的序列号都已用完，再借用就超过了允许的 1ms
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(previous));
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        clock.set(NOW + 2);
+        assertEquals(NOW + 2, SnowflakeIdGenerator.timestampOf(generator.nextId()));
+    }
+
+    @Test
+    void smallClockRollbackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 50, clock::get);
+        generator.assignWorker(1, 0, Long.MAX_VALUE);
+        long before = generator.nextId();
+
+        clock.set(NOW - 20);
+        long during = generator.nextId();
+        assertTrue(during > before);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(during));
+        assertEquals(1, generator.getAheadOfClock());
+
+        clock.set(NOW - 100);
+        assertThrows(IllegalStateException.class, generator::nextId);
+        assertEquals(1, generator.getRejected());
+    }
+
+    @Test
+    void reassignedWorkerStartsAfterPreviousHighWater() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(16, 1000, clock::get);
+        generator.assignWorker(3, NOW + 10, Long.MAX_VALUE);
+
+        long id = generator.nextId();
+        assertEquals(NOW + 11, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(3, SnowflakeIdGenerator.workerIdOf(id));
+    }
+
+    @Test
+    void refusesWithoutValidLease() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(16, 1000, clock::get);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        generator.assignWorker(2, 0, NOW + 1000);
+        generator.nextId();
+        clock.set(NOW + 1000);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        generator.extendLease(NOW + 2000);
+        assertEquals(2, SnowflakeIdGenerator.workerIdOf(generator.nextId()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.ince.springboottemplate.mapper;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.handler.CodeEnumTypeHandler;
+import com.ince.springboottemplate.model.vo.UserVO;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导出游标测试：UserMapper.streamForExport 在 H2 内存库上按 ID 顺序逐行映射，
+ * 并以 FORWARD_ONLY、fetchSize = Integer.MIN_VALUE 创建语句。
+ * H2 不接受负的 fetchSize，该值只记录不下发；MySQL 驱动据此逐行返回结果的行为不在这里验证。
+ */
+class UserMapperExportCursorTest {
+
+    private final List<Integer> resultSetTypes = new ArrayList<>();
+    private final List<Integer> fetchSizes = new ArrayList<>();
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:user_export_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(64), display_name VARCHAR(64), "
+                + "email VARCHAR(128), phone VARCHAR(32), avatar VARCHAR(256), last_login_ip_location VARCHAR(64), "
+                + "status INT, role INT)");
+        // 乱序插入，验证 ORDER BY id
+        for (long id : new long[]{3, 1, 5, 2, 4}) {
+            jdbcTemplate.update("INSERT INTO users VALUES (?, ?, ?, ?, ?, NULL, ?, ?, ?)", id, "user" + id, "用户" + id,
+                    "user" + id + "@example.com", "1380000000" + id, "浙江省杭州市",
+                    id % 2 == 0 ? UserStatus.FROZEN.getCode() : UserStatus.ACTIVE.getCode(), UserRole.REGULAR_USER.getCode());
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("test", new JdbcTransactionFactory(), new StatementRecordingDataSource(h2)));
+        configuration.setDefaultEnumTypeHandler(CodeEnumTypeHandler.class);
+        configuration.addMapper(UserMapper.class);
+        sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @Test
+    void streamsAllRowsInIdOrderWithStreamingHints() throws IOException {
+        List<UserVO> rows = new ArrayList<>();
+        try (SqlSession session = sqlSessionFactory.openSession();
+             Cursor<UserVO> cursor = session.getMapper(UserMapper.class).streamForExport(null)) {
+            assertEquals(List.of(ResultSet.TYPE_FORWARD_ONLY), resultSetTypes);
+            assertEquals(List.of(Integer.MIN_VALUE), fetchSizes);
+            cursor.forEach(rows::add);
+            assertTrue(cursor.isConsumed());
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), rows.stream().map(UserVO::getId).toList());
+        UserVO first = rows.get(0);
+        assertEquals("user1", first.getUsername());
+        assertEquals("用户1", first.getDisplayName());
+        assertEquals("user1@example.com", first.getEmail());
+        assertEquals("浙江省杭州市", first.getLastLoginIpLocation());
+        assertEquals(UserStatus.ACTIVE, first.getStatus());
+        assertEquals(UserRole.REGULAR_USER, first.getRole());
+    }
+
+    @Test
+    void filtersByStatus() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (SqlSession session = sqlSessionFactory.openSession();
+             Cursor<UserVO> cursor = session.getMapper(UserMapper.class).streamForExport(UserStatus.FROZEN.getCode())) {
+            cursor.forEach(user -> ids.add(user.getId()));
+        }
+        assertEquals(List.of(2L, 4L), ids);
+    }
+
+    @Test
+    void cursorIsReadRowByRowWhileSessionIsOpen() throws IOException {
+        try (SqlSession session = sqlSessionFactory.openSession();
+             Cursor<UserVO> cursor = session.getMapper(UserMapper.class).streamForExport(null)) {
+            Iterator<UserVO> iterator = cursor.iterator();
+            assertEquals(1L, iterator.next().getId());
+            assertEquals(0, cursor.getCurrentIndex());
+            assertTrue(cursor.isOpen());
+            assertFalse(cursor.isConsumed());
+        }
+    }
+
+    /**
+     * 记录语句的结果集类型和 fetchSize；H2 拒绝负的 fetchSize，Integer.MIN_VALUE 不下发给驱动
+     */
+    private class StatementRecordingDataSource extends DelegatingDataSource {
+
+        StatementRecordingDataSource(JdbcDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        if ("prepareStatement".equals(method.getName()) && args != null && args.length == 3) {
+                            resultSetTypes.add((Integer) args[1]);
+                            return recording((PreparedStatement) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recording(PreparedStatement target) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if ("setFetchSize".equals(method.getName())) {
+                            fetchSizes.add((Integer) args[0]);
+                            if ((Integer) args[0] < 0) {
+                                return null;
+                            }
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
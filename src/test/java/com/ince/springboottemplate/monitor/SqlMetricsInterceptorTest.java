@@ -0,0 +1,124 @@
+package com.ince.springboottemplate.monitor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * SQL 语句计时和每请求语句数测试，使用 H2 内存库和不依赖 Spring 的 MyBatis 配置
+ */
+class SqlMetricsInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sql_metrics_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+
+        meterRegistry = new SimpleMeterRegistry();
+        SqlMetricsInterceptor interceptor = new SqlMetricsInterceptor();
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(ItemMapper.class);
+        configuration.addInterceptor(interceptor);
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+            session.getMapper(ItemMapper.class).createTable();
+        }
+    }
+
+    @Test
+    void countsStatementsPerRequestAndTimesEachMapperMethod() {
+        SqlStatements.beginRequest();
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            for (long id = 1; id <= 3; id++) {
+                mapper.insert(id, "item-" + id);
+            }
+            for (long id = 1; id <= 3; id++) {
+                mapper.selectName(id);
+            }
+        }
+        assertEquals(6, SqlStatements.endRequest());
+
+        Timer selects = meterRegistry.find(SqlMetricsInterceptor.STATEMENT_TIMER)
+                .tag("statement", "SqlMetricsInterceptorTest$ItemMapper.selectName")
+                .tag("command", "select")
+                .timer();
+        assertNotNull(selects);
+        assertEquals(3, selects.count());
+    }
+
+    @Test
+    void countsEachJdbcBatchOnceInsteadOfEachRow() {
+        SqlStatements.beginRequest();
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            for (long id = 1; id <= 100; id++) {
+                mapper.insert(id, "item-" + id);
+            }
+            session.flushStatements();
+            session.commit();
+        }
+        assertEquals(1, SqlStatements.endRequest());
+
+        Timer batches = meterRegistry.find(SqlMetricsInterceptor.STATEMENT_TIMER)
+                .tag("statement", "SqlMetricsInterceptorTest$ItemMapper.insert")
+                .tag("command", "batch")
+                .timer();
+        assertNotNull(batches);
+        assertEquals(1, batches.count());
+        assertNull(meterRegistry.find(SqlMetricsInterceptor.STATEMENT_TIMER).tag("command", "insert").timer());
+    }
+
+    @Test
+    void statementsOutsideRequestsAreNotCounted() {
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+            session.getMapper(ItemMapper.class).selectName(1L);
+        }
+        SqlStatements.beginRequest();
+        assertEquals(0, SqlStatements.endRequest());
+    }
+
+    @Test
+    void shortensStatementIds() {
+        assertEquals("UserMapper.selectById",
+                SqlMetricsInterceptor.shortId("com.ince.springboottemplate.mapper.UserMapper.selectById"));
+        assertEquals("selectById", SqlMetricsInterceptor.shortId("selectById"));
+    }
+
+    interface ItemMapper {
+
+        @Update("CREATE TABLE item (id BIGINT PRIMARY KEY, name VARCHAR(50))")
+        void createTable();
+
+        @Insert("INSERT INTO item (id, name) VALUES (#{id}, #{name})")
+        int insert(@Param("id") long id, @Param("name") String name);
+
+        @Select("SELECT name FROM item WHERE id = #{id}")
+        String selectName(@Param("id") long id);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ince.springboottemplate.security;
+
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 会话属性序列化测试：登录主体的二进制编码、其他属性委托 JSON、升级前写入的 User 会话值
+ */
+class LoginPrincipalRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final LoginPrincipalRedisSerializer serializer = new LoginPrincipalRedisSerializer(json);
+
+    @Test
+    void principalRoundTripsThroughFixedLengthEncoding() {
+        LoginPrincipal principal = new LoginPrincipal(Long.MAX_VALUE - 7, UserRole.ADMIN.getCode(),
+                UserStatus.FROZEN.getCode(), 1L << 40);
+        byte[] bytes = serializer.serialize(principal);
+        assertEquals(27, bytes.length);
+        assertEquals((byte) 0xCA, bytes[0]);
+        assertEquals((byte) 0x5E, bytes[1]);
+        assertEquals(1, bytes[2]);
+        assertEquals(principal, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void otherAttributesAreDelegatedToJackson() {
+        Map<String, Object> attribute = new HashMap<>();
+        attribute.put("k", new ArrayList<>(List.of(1, 2)));
+        byte[] bytes = serializer.serialize(attribute);
+        assertArrayEquals(json.serialize(attribute), bytes);
+        assertEquals(attribute, serializer.deserialize(bytes));
+
+        // 与编码等长的 JSON 值不会被误认为登录主体
+        String sameLength = "x".repeat(25);
+        byte[] quoted = serializer.serialize(sameLength);
+        assertEquals(27, quoted.length);
+        assertEquals(sameLength, serializer.deserialize(quoted));
+
+        assertEquals(12L, serializer.deserialize(serializer.serialize(12L)));
+        assertNull(serializer.deserialize(null));
+    }
+
+    @Test
+    void legacyUserSessionValueIsStillReadable() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+        user.setRole(UserRole.REGULAR_USER);
+        user.setStatus(UserStatus.ACTIVE);
+        user.setVersion(3);
+        // 升级前的会话由 GenericJackson2JsonRedisSerializer 直接写入完整的 User
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(user);
+
+        User restored = assertInstanceOf(User.class, serializer.deserialize(legacy));
+        assertEquals(LoginPrincipal.of(user), LoginPrincipal.of(restored));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        byte[] bytes = serializer.serialize(new LoginPrincipal(1L, 0, 1, 0L));
+        bytes[2] = 2;
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+}
@@ -0,0 +1,130 @@
+package com.ince.springboottemplate.security;
+
+import com.ince.springboottemplate.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 密码哈希引擎测试：算法识别、升级判断、占位校验和线程池满/超时的快速失败
+ */
+class PasswordHashEngineTest {
+
+    private PasswordHashEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.destroy();
+        }
+    }
+
+    @Test
+    void verifiesCurrentAndLegacyHashes() {
+        engine = engine(1, 16, 5000L);
+        String encoded = engine.hash("secret");
+        assertTrue(encoded.startsWith("$pbkdf2-sha256$1000$"));
+        assertTrue(engine.matches("secret", encoded));
+        assertFalse(engine.matches("wrong", encoded));
+        assertFalse(engine.needsRehash(encoded));
+
+        // md5("password")，旧算法校验通过后需要升级
+        String legacy = "5f4dcc3b5aa765d61d8327deb882cf99";
+        assertTrue(engine.matches("password", legacy));
+        assertFalse(engine.matches("wrong", legacy));
+        assertTrue(engine.needsRehash(legacy));
+
+        // 无法识别的哈希不匹配，并且需要重新设置
+        assertFalse(engine.matches("secret", "plain-text"));
+        assertFalse(engine.matches("secret", null));
+        assertTrue(engine.needsRehash("plain-text"));
+    }
+
+    @Test
+    void lowerIterationHashesNeedRehash() {
+        engine = engine(1, 16, 5000L);
+        String weak = new Pbkdf2PasswordHasher(500).hash("secret");
+        assertTrue(engine.matches("secret", weak));
+        assertTrue(engine.needsRehash(weak));
+    }
+
+    @Test
+    void dummyMatchNeverSucceedsAndUsesCurrentIterations() {
+        engine = engine(1, 16, 5000L);
+        assertFalse(engine.matchesDummy("secret"));
+        assertFalse(engine.matchesDummy(""));
+        String dummy = (String) ReflectionTestUtils.getField(engine, "dummyHash");
+        assertTrue(dummy.startsWith("$pbkdf2-sha256$1000$"));
+    }
+
+    @Test
+    void failsFastWhenQueueIsFull() throws InterruptedException {
+        engine = engine(1, 1, 5000L);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            occupy(release, 2);
+            assertThrows(BusinessException.class, () -> engine.hash("secret"));
+            assertThrows(BusinessException.class, () -> engine.matchesDummy("secret"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failsWhenHashWaitsLongerThanTimeout() throws InterruptedException {
+        engine = engine(1, 16, 50L);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            occupy(release, 1);
+            long start = System.nanoTime();
+            assertThrows(BusinessException.class, () -> engine.matches("secret", "5f4dcc3b5aa765d61d8327deb882cf99"));
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        } finally {
+            release.countDown();
+        }
+        // 超时任务已取消，线程释放后可以继续使用
+        assertTrue(engine.matches("password", "5f4dcc3b5aa765d61d8327deb882cf99"));
+    }
+
+    /**
+     * 用阻塞任务占住哈希线程池：第一个任务占用唯一的线程，其余任务占用队列
+     */
+    private void occupy(CountDownLatch release, int tasks) throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(engine, "executor");
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            awaitQuietly(release);
+        });
+        running.await();
+        for (int i = 1; i < tasks; i++) {
+            executor.execute(() -> awaitQuietly(release));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PasswordHashEngine engine(int threads, int queueCapacity, long timeoutMillis) {
+        PasswordHashEngine engine = new PasswordHashEngine();
+        ReflectionTestUtils.setField(engine, "iterations", 1000);
+        ReflectionTestUtils.setField(engine, "calibrationEnabled", false);
+        ReflectionTestUtils.setField(engine, "threads", threads);
+        ReflectionTestUtils.setField(engine, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(engine, "timeoutMillis", timeoutMillis);
+        engine.init();
+        return engine;
+    }
+}
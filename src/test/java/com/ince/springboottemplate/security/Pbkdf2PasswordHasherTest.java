@@ -0,0 +1,113 @@
+package com.ince.springboottemplate.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PBKDF2 和旧版 MD5 密码哈希测试：存储格式、校验、升级判断
+ */
+class Pbkdf2PasswordHasherTest {
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1000);
+
+    @Test
+    void encodedFormatIsSelfDescribing() {
+        String encoded = hasher.hash("secret");
+        String[] parts = encoded.split("\\$");
+        // "", "pbkdf2-sha256", 迭代次数, 盐, 哈希
+        assertEquals(5, parts.length);
+        assertEquals("pbkdf2-sha256", parts[1]);
+        assertEquals("1000", parts[2]);
+        assertEquals(16, Base64.getDecoder().decode(parts[3]).length);
+        assertEquals(32, Base64.getDecoder().decode(parts[4]).length);
+        assertFalse(parts[3].endsWith("="));
+    }
+
+    @Test
+    void roundTripUsesRandomSalt() {
+        String first = hasher.hash("secret");
+        String second = hasher.hash("secret");
+        assertNotEquals(first, second);
+        assertTrue(hasher.matches("secret", first));
+        assertTrue(hasher.matches("secret", second));
+        assertFalse(hasher.matches("Secret", first));
+        assertFalse(hasher.matches("", first));
+    }
+
+    @Test
+    void matchesKnownVector() {
+        // RFC 7914 第 11 节 PBKDF2-HMAC-SHA256 测试向量（P="passwd", S="salt", c=1）的前 32 字节
+        byte[] expected = HexFormat.of().parseHex("55ac046e56e3089fec1691c22544b605f94185216dde0465e68b9d57c20dacbc");
+        assertArrayEquals(expected, hasher.derive("passwd", "salt".getBytes(), 1));
+        String encoded = "$pbkdf2-sha256$1$" + Base64.getEncoder().withoutPadding().encodeToString("salt".getBytes())
+                + '$' + Base64.getEncoder().withoutPadding().encodeToString(expected);
+        assertTrue(hasher.matches("passwd", encoded));
+    }
+
+    @Test
+    void verifiesWithStoredIterationsAfterRecalibration() {
+        String encoded = hasher.hash("secret");
+        hasher.setIterations(2000);
+        assertTrue(hasher.matches("secret", encoded));
+        assertTrue(hasher.needsRehash(encoded));
+        assertFalse(hasher.needsRehash(hasher.hash("secret")));
+
+        // 存储的迭代次数高于当前值时不降级
+        hasher.setIterations(500);
+        assertFalse(hasher.needsRehash(encoded));
+    }
+
+    @Test
+    void malformedHashesNeverMatch() {
+        String valid = hasher.hash("secret");
+        String salt = valid.split("\\$")[3];
+        String hash = valid.split("\\$")[4];
+        for (String encoded : new String[]{
+                null,
+                "",
+                "$pbkdf2-sha256$",
+                "$pbkdf2-sha256$1000",
+                "$pbkdf2-sha256$1000$" + salt,
+                "$pbkdf2-sha256$abc$" + salt + '$' + hash,
+                "$pbkdf2-sha256$0$" + salt + '$' + hash,
+                "$pbkdf2-sha256$-5$" + salt + '$' + hash,
+                "$pbkdf2-sha256$1000$!!!$" + hash,
+                "$pbkdf2-sha256$1000$" + salt + "$!!!",
+                "$pbkdf2-sha256$1000$" + salt + '$',
+                "$pbkdf2-sha512$1000$" + salt + '$' + hash}) {
+            assertFalse(hasher.matches("secret", encoded), String.valueOf(encoded));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveIterations() {
+        assertThrows(IllegalArgumentException.class, () -> new Pbkdf2PasswordHasher(0));
+        assertThrows(IllegalArgumentException.class, () -> hasher.setIterations(-1));
+    }
+
+    @Test
+    void legacyMd5VerifiesAndAlwaysNeedsRehash() {
+        Md5PasswordHasher md5 = new Md5PasswordHasher();
+        // md5("password")
+        String legacy = "5f4dcc3b5aa765d61d8327deb882cf99";
+        assertTrue(md5.supports(legacy));
+        assertTrue(md5.matches("password", legacy));
+        assertFalse(md5.matches("Password", legacy));
+        assertTrue(md5.needsRehash(legacy));
+
+        assertFalse(md5.supports(null));
+        assertFalse(md5.supports(legacy.substring(1)));
+        assertFalse(md5.supports("zz" + legacy.substring(2)));
+        assertFalse(md5.supports(hasher.hash("password")));
+        assertFalse(hasher.supports(legacy));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.enums.UserRole;
+import com.ince.springboottemplate.enums.UserStatus;
+import com.ince.springboottemplate.exception.BusinessException;
+import com.ince.springboottemplate.model.entity.User;
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.security.LoginPrincipal;
+import com.ince.springboottemplate.services.UserCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 会话中的登录主体与缓存中的用户资料比对：状态、角色、版本号变化对已有会话生效
+ */
+class LoginPrincipalRefreshTest {
+
+    private static final long USER_ID = 42L;
+
+    private final Map<Long, UserVO> profiles = new HashMap<>();
+
+    private UserServiceImpl userService;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userCacheService", new MapUserCacheService());
+        request = new MockHttpServletRequest();
+    }
+
+    @Test
+    void unchangedPrincipalIsReturnedAsIs() {
+        profiles.put(USER_ID, profile(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3));
+        LoginPrincipal principal = principal(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3);
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, principal);
+        assertSame(principal, userService.getLoginUser(request));
+    }
+
+    @Test
+    void frozenAfterLoginIsSeenByExistingSession() {
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, principal(UserStatus.ACTIVE, UserRole.ADMIN, 3));
+        profiles.put(USER_ID, profile(UserStatus.FROZEN, UserRole.REGULAR_USER, 4));
+
+        LoginPrincipal current = userService.getLoginUser(request);
+        assertEquals(UserStatus.FROZEN.getCode(), current.status());
+        assertEquals(UserRole.REGULAR_USER.getCode(), current.role());
+        assertEquals(4L, current.version());
+        assertSame(current, request.getSession().getAttribute(UserConstant.LOGIN_USER));
+    }
+
+    @Test
+    void statusChangedWithoutVersionBumpIsStillSeen() {
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, principal(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3));
+        profiles.put(USER_ID, profile(UserStatus.BLOCKED, UserRole.REGULAR_USER, 3));
+        assertEquals(UserStatus.BLOCKED.getCode(), userService.getLoginUser(request).status());
+    }
+
+    @Test
+    void deletedUserIsLoggedOut() {
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, principal(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3));
+        assertThrows(BusinessException.class, () -> userService.getLoginUser(request));
+        assertNull(request.getSession().getAttribute(UserConstant.LOGIN_USER));
+    }
+
+    @Test
+    void legacyUserValueIsReplacedByPrincipal() {
+        User legacy = new User();
+        legacy.setId(USER_ID);
+        legacy.setRole(UserRole.REGULAR_USER);
+        legacy.setStatus(UserStatus.ACTIVE);
+        legacy.setVersion(3);
+        request.getSession().setAttribute(UserConstant.LOGIN_USER, legacy);
+        profiles.put(USER_ID, profile(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3));
+
+        LoginPrincipal current = userService.getLoginUser(request);
+        assertEquals(principal(UserStatus.ACTIVE, UserRole.REGULAR_USER, 3), current);
+        assertSame(current, request.getSession().getAttribute(UserConstant.LOGIN_USER));
+    }
+
+    @Test
+    void missingSessionValueIsNotLoggedIn() {
+        assertThrows(BusinessException.class, () -> userService.getLoginUser(request));
+    }
+
+    private static LoginPrincipal principal(UserStatus status, UserRole role, long version) {
+        return new LoginPrincipal(USER_ID, role.getCode(), status.getCode(), version);
+    }
+
+    private static UserVO profile(UserStatus status, UserRole role, int version) {
+        UserVO profile = new UserVO();
+        profile.setId(USER_ID);
+        profile.setStatus(status);
+        profile.setRole(role);
+        profile.setVersion(version);
+        return profile;
+    }
+
+    /**
+     * 只读的资料缓存，代替本地缓存 + Redis
+     */
+    private final class MapUserCacheService implements UserCacheService {
+
+        @Override
+        public UserVO get(Long userId, Function<Long, UserVO> loader) {
+            return profiles.get(userId);
+        }
+
+        @Override
+        public void invalidate(Long userId) {
+            profiles.remove(userId);
+        }
+
+        @Override
+        public void invalidate(Collection<Long> userIds) {
+            profiles.keySet().removeAll(userIds);
+        }
+
+        @Override
+        public UserCacheStatsVO getStats() {
+            return new UserCacheStatsVO();
+        }
+    }
+}
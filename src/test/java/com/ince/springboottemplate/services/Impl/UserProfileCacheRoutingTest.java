@@ -0,0 +1,121 @@
+package com.ince.springboottemplate.services.Impl;
+
+import com.ince.springboottemplate.aop.ReadReplicaInterceptor;
+import com.ince.springboottemplate.constant.UserConstant;
+import com.ince.springboottemplate.datasource.ReplicaRoutingContext;
+import com.ince.springboottemplate.mapper.UserMapper;
+import com.ince.springboottemplate.model.vo.UserCacheStatsVO;
+import com.ince.springboottemplate.model.vo.UserVO;
+import com.ince.springboottemplate.services.UserCacheService;
+import com.ince.springboottemplate.shard.UserShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 用户资料缓存与读写分离：修改后其他会话的缓存未命中不能把副本上的旧资料写进共享缓存
+ */
+class UserProfileCacheRoutingTest {
+
+    private static final long USER_ID = 42L;
+
+    /**
+     * 主库上已是修改后的昵称，副本仍停留在修改前
+     */
+    private static final String PRIMARY_NAME = "after-update";
+    private static final String REPLICA_NAME = "before-update";
+
+    private final Map<Long, UserVO> sharedCache = new ConcurrentHashMap<>();
+
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        UserMapper userMapper = (UserMapper) Proxy.newProxyInstance(UserMapper.class.getClassLoader(),
+                new Class<?>[]{UserMapper.class}, (proxy, method, args) -> {
+                    if (!"selectProfileById".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    UserVO profile = new UserVO();
+                    profile.setId((Long) args[0]);
+                    profile.setDisplayName(ReplicaRoutingContext.isReadReplica() ? REPLICA_NAME : PRIMARY_NAME);
+                    return profile;
+                });
+
+        UserShardRouter userShardRouter = new UserShardRouter();
+        ReflectionTestUtils.setField(userShardRouter, "tablePrefix", "users");
+        ReflectionTestUtils.setField(userShardRouter, "shardCount", 1);
+        userShardRouter.init();
+
+        UserServiceImpl target = new UserServiceImpl();
+        ReflectionTestUtils.setField(target, "baseMapper", userMapper);
+        ReflectionTestUtils.setField(target, "userShardRouter", userShardRouter);
+        ReflectionTestUtils.setField(target, "userCacheService", new MapUserCacheService());
+
+        ReadReplicaInterceptor interceptor = new ReadReplicaInterceptor();
+        ReflectionTestUtils.setField(interceptor, "stickySeconds", 5L);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(interceptor);
+        userService = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void cacheMissAfterUpdateIsLoadedFromPrimary() {
+        // 修改资料后缓存已失效；另一个会话（没有粘滞标记）先访问
+        sharedCache.remove(USER_ID);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals(PRIMARY_NAME, userService.getUserProfile(USER_ID).getDisplayName());
+        assertEquals(PRIMARY_NAME, sharedCache.get(USER_ID).getDisplayName());
+
+        // 修改者本人的粘滞期已过，从缓存读到的也必须是修改后的资料
+        MockHttpServletRequest writer = new MockHttpServletRequest();
+        writer.getSession().setAttribute(UserConstant.PRIMARY_STICKY_UNTIL, System.currentTimeMillis() - 1);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(writer));
+        assertEquals(PRIMARY_NAME, userService.getUserProfile(USER_ID).getDisplayName());
+    }
+
+    /**
+     * 只保留读穿语义的共享缓存，代替本地缓存 + Redis
+     */
+    private final class MapUserCacheService implements UserCacheService {
+
+        @Override
+        public UserVO get(Long userId, Function<Long, UserVO> loader) {
+            return sharedCache.computeIfAbsent(userId, loader);
+        }
+
+        @Override
+        public void invalidate(Long userId) {
+            sharedCache.remove(userId);
+        }
+
+        @Override
+        public void invalidate(Collection<Long> userIds) {
+            sharedCache.keySet().removeAll(userIds);
+        }
+
+        @Override
+        public UserCacheStatsVO getStats() {
+            return new UserCacheStatsVO();
+        }
+    }
+}
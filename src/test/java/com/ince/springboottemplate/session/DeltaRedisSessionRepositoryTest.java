@@ -0,0 +1,308 @@
+package com.ince.springboottemplate.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisSessionRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 增量会话仓库测试：用内存中的 Redis 哈希代替 Redis，记录每次保存实际发出的命令
+ */
+class DeltaRedisSessionRepositoryTest {
+
+    private static final String NAMESPACE = "spring:session";
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration TOUCH_GRANULARITY = Duration.ofSeconds(60);
+
+    private InMemoryRedis redis;
+    private DeltaRedisSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryRedis();
+        repository = new DeltaRedisSessionRepository(redis.operations(), NAMESPACE, TIMEOUT, TOUCH_GRANULARITY);
+    }
+
+    @Test
+    void newSessionIsWrittenInFull() {
+        DeltaRedisSessionRepository.DeltaSession session = repository.createSession();
+        session.setAttribute("a", "1");
+        repository.save(session);
+
+        Map<String, Object> hash = redis.hash(key(session.getId()));
+        assertEquals(new TreeSet<>(List.of("creationTime", "lastAccessedTime", "maxInactiveInterval", "sessionAttr:a")),
+                new TreeSet<>(hash.keySet()));
+        assertEquals(session.getCreationTime().toEpochMilli(), hash.get("creationTime"));
+        assertEquals((int) TIMEOUT.getSeconds(), hash.get("maxInactiveInterval"));
+        assertEquals("1", hash.get("sessionAttr:a"));
+        assertEquals(TIMEOUT.plus(TOUCH_GRANULARITY), redis.ttl(key(session.getId())));
+        assertEquals(1, repository.getSaves());
+    }
+
+    @Test
+    void onlyChangedAttributesAreWritten() {
+        String id = saveNewSession(Map.of("a", "1", "b", "2"));
+        redis.commands.clear();
+
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(id);
+        loaded.setAttribute("a", "1");
+        repository.save(loaded);
+        assertTrue(redis.commands.isEmpty());
+        assertEquals(1, repository.getSkippedSaves());
+
+        loaded.setAttribute("b", "3");
+        repository.save(loaded);
+        assertEquals(List.of("HSET " + key(id) + " [lastAccessedTime, sessionAttr:b]", "EXPIRE " + key(id)),
+                redis.commands);
+        assertEquals("3", redis.hash(key(id)).get("sessionAttr:b"));
+        assertEquals("1", redis.hash(key(id)).get("sessionAttr:a"));
+    }
+
+    @Test
+    void removedAttributeIsDeletedFromHash() {
+        String id = saveNewSession(Map.of("a", "1", "b", "2"));
+        redis.commands.clear();
+
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(id);
+        loaded.removeAttribute("a");
+        repository.save(loaded);
+
+        assertEquals("HDEL " + key(id) + " [sessionAttr:a]", redis.commands.get(0));
+        assertFalse(redis.hash(key(id)).containsKey("sessionAttr:a"));
+        assertNull(repository.findById(id).getAttribute("a"));
+        assertEquals("2", repository.findById(id).getAttribute("b"));
+    }
+
+    @Test
+    void lastAccessedTimeIsThrottled() {
+        String id = saveNewSession(Map.of("a", "1"));
+        redis.commands.clear();
+
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(id);
+        Instant persisted = loaded.getLastAccessedTime();
+        loaded.setLastAccessedTime(persisted.plusSeconds(30));
+        repository.save(loaded);
+        assertTrue(redis.commands.isEmpty());
+
+        loaded.setLastAccessedTime(persisted.plus(TOUCH_GRANULARITY));
+        repository.save(loaded);
+        assertEquals(List.of("HSET " + key(id) + " [lastAccessedTime]", "EXPIRE " + key(id)), redis.commands);
+        assertEquals(persisted.plus(TOUCH_GRANULARITY).toEpochMilli(), redis.hash(key(id)).get("lastAccessedTime"));
+
+        // 节流基准随写入前移
+        redis.commands.clear();
+        loaded.setLastAccessedTime(persisted.plus(TOUCH_GRANULARITY).plusSeconds(30));
+        repository.save(loaded);
+        assertTrue(redis.commands.isEmpty());
+    }
+
+    @Test
+    void changeSessionIdRenamesKey() {
+        String id = saveNewSession(Map.of("a", "1"));
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(id);
+        String newId = loaded.changeSessionId();
+        assertNotEquals(id, newId);
+        repository.save(loaded);
+
+        assertFalse(redis.exists(key(id)));
+        assertEquals("1", redis.hash(key(newId)).get("sessionAttr:a"));
+        assertNull(repository.findById(id));
+        assertEquals("1", repository.findById(newId).getAttribute("a"));
+    }
+
+    @Test
+    void changeSessionIdAfterOldKeyExpiredWritesFullSession() {
+        String id = saveNewSession(Map.of("a", "1"));
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(id);
+        // 读取之后旧会话在 Redis 中过期
+        redis.remove(key(id));
+
+        String newId = loaded.changeSessionId();
+        repository.save(loaded);
+
+        Map<String, Object> hash = redis.hash(key(newId));
+        assertTrue(hash.keySet().containsAll(List.of("creationTime", "lastAccessedTime", "maxInactiveInterval",
+                "sessionAttr:a")));
+        assertEquals("1", repository.findById(newId).getAttribute("a"));
+    }
+
+    @Test
+    void expiredSessionIsDeletedOnRead() {
+        DeltaRedisSessionRepository.DeltaSession session = repository.createSession();
+        session.setMaxInactiveInterval(Duration.ofSeconds(1));
+        session.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(session);
+
+        assertNull(repository.findById(session.getId()));
+        assertFalse(redis.exists(key(session.getId())));
+    }
+
+    @Test
+    void readsSessionWrittenByStockRepository() {
+        RedisSessionRepository stock = new RedisSessionRepository(redis.operations());
+        stock.setRedisKeyNamespace(NAMESPACE);
+        stock.setDefaultMaxInactiveInterval(TIMEOUT);
+        RedisSessionRepository.RedisSession written = stock.createSession();
+        written.setAttribute("login_user", "alice");
+        stock.save(written);
+
+        DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(written.getId());
+        assertNotNull(loaded);
+        assertEquals("alice", loaded.getAttribute("login_user"));
+        assertEquals(written.getCreationTime().toEpochMilli(), loaded.getCreationTime().toEpochMilli());
+        assertEquals(TIMEOUT, loaded.getMaxInactiveInterval());
+
+        // 反过来，增量仓库写入的会话也能被自带的仓库读取，两种模式可以直接切换
+        loaded.setAttribute("role", "admin");
+        repository.save(loaded);
+        Session reread = stock.findById(written.getId());
+        assertEquals("alice", reread.getAttribute("login_user"));
+        assertEquals("admin", reread.getAttribute("role"));
+    }
+
+    private String saveNewSession(Map<String, Object> attributes) {
+        DeltaRedisSessionRepository.DeltaSession session = repository.createSession();
+        attributes.forEach(session::setAttribute);
+        repository.save(session);
+        return session.getId();
+    }
+
+    private static String key(String sessionId) {
+        return NAMESPACE + ":sessions:" + sessionId;
+    }
+
+    /**
+     * 只实现会话仓库用到的命令，值不做序列化
+     */
+    private static final class InMemoryRedis {
+
+        private final Map<String, Map<String, Object>> hashes = new HashMap<>();
+        private final Map<String, Duration> ttls = new HashMap<>();
+        private final List<String> commands = new ArrayList<>();
+
+        Map<String, Object> hash(String key) {
+            return hashes.getOrDefault(key, Map.of());
+        }
+
+        Duration ttl(String key) {
+            return ttls.get(key);
+        }
+
+        boolean exists(String key) {
+            return hashes.containsKey(key);
+        }
+
+        void remove(String key) {
+            hashes.remove(key);
+            ttls.remove(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        RedisOperations<String, Object> operations() {
+            HashOperations<String, Object, Object> hashOperations = (HashOperations<String, Object, Object>)
+                    Proxy.newProxyInstance(HashOperations.class.getClassLoader(), new Class<?>[]{HashOperations.class},
+                            (proxy, method, args) -> switch (method.getName()) {
+                                case "entries" -> new LinkedHashMap<>(hash((String) args[0]));
+                                case "putAll" -> {
+                                    Map<String, Object> values = (Map<String, Object>) args[1];
+                                    commands.add("HSET " + args[0] + " " + new TreeSet<>(values.keySet()));
+                                    hashes.computeIfAbsent((String) args[0], k -> new HashMap<>()).putAll(values);
+                                    yield null;
+                                }
+                                case "delete" -> {
+                                    List<Object> fields = Arrays.asList((Object[]) args[1]);
+                                    commands.add("HDEL " + args[0] + " " + new TreeSet<>(fields.stream()
+                                            .map(String::valueOf).toList()));
+                                    Map<String, Object> hash = hashes.get((String) args[0]);
+                                    long removed = 0;
+                                    for (Object field : fields) {
+                                        if (hash != null && hash.remove(field) != null) {
+                                            removed++;
+                                        }
+                                    }
+                                    yield removed;
+                                }
+                                default -> throw new UnsupportedOperationException("HashOperations." + method.getName());
+                            });
+            RedisOperations<String, Object>[] self = new RedisOperations[1];
+            self[0] = (RedisOperations<String, Object>) Proxy.newProxyInstance(
+                    RedisOperations.class.getClassLoader(), new Class<?>[]{RedisOperations.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "opsForHash" -> hashOperations;
+                        case "executePipelined" -> {
+                            ((SessionCallback<?>) args[0]).execute(self[0]);
+                            yield List.of();
+                        }
+                        case "hasKey" -> exists((String) args[0]);
+                        case "delete" -> {
+                            if (args[0] instanceof Collection<?> keys) {
+                                long removed = keys.stream().filter(k -> hashes.remove(k) != null).count();
+                                yield removed;
+                            }
+                            commands.add("DEL " + args[0]);
+                            boolean existed = exists((String) args[0]);
+                            remove((String) args[0]);
+                            yield existed;
+                        }
+                        case "rename" -> {
+                            String oldKey = (String) args[0];
+                            if (!exists(oldKey)) {
+                                throw new InvalidDataAccessApiUsageException("ERR no such key");
+                            }
+                            commands.add("RENAME " + oldKey + " " + args[1]);
+                            hashes.put((String) args[1], hashes.remove(oldKey));
+                            Duration ttl = ttls.remove(oldKey);
+                            if (ttl != null) {
+                                ttls.put((String) args[1], ttl);
+                            }
+                            yield null;
+                        }
+                        case "expire" -> {
+                            commands.add("EXPIRE " + args[0]);
+                            ttls.put((String) args[0], args[1] instanceof Duration duration ? duration
+                                    : Duration.of((Long) args[1], ((TimeUnit) args[2]).toChronoUnit()));
+                            yield true;
+                        }
+                        case "expireAt" -> {
+                            commands.add("EXPIREAT " + args[0]);
+                            Instant at = args[1] instanceof Instant instant ? instant
+                                    : ((Date) args[1]).toInstant();
+                            ttls.put((String) args[0], Duration.between(Instant.now(), at));
+                            yield true;
+                        }
+                        case "persist" -> {
+                            commands.add("PERSIST " + args[0]);
+                            ttls.remove((String) args[0]);
+                            yield true;
+                        }
+                        default -> throw new UnsupportedOperationException("RedisOperations." + method.getName());
+                    });
+            return self[0];
+        }
+    }
+}
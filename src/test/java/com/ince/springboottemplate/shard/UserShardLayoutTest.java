@@ -0,0 +1,86 @@
+package com.ince.springboottemplate.shard;
+
+import com.ince.springboottemplate.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户表分片布局和路由测试，不启动 Spring 上下文
+ */
+class UserShardLayoutTest {
+
+    @Test
+    void singleShardUsesPrefixAsTable() {
+        UserShardLayout layout = new UserShardLayout("users", 1);
+        assertEquals(List.of("users"), layout.tables());
+        assertEquals("users", layout.tableOf(123L));
+    }
+
+    @Test
+    void snowflakeIdsSpreadEvenlyAcrossShards() {
+        int shards = 8;
+        int perShard = 20_000;
+        UserShardLayout layout = new UserShardLayout("users", shards);
+        assertEquals(List.of("users_0", "users_1", "users_2", "users_3", "users_4", "users_5", "users_6", "users_7"),
+                layout.tables());
+
+        // 同一毫秒内连续的ID只有序列号不同，仍应均匀分布
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(16, Long.MAX_VALUE, System::currentTimeMillis);
+        generator.assignWorker(3, 0, Long.MAX_VALUE);
+        int[] counts = new int[shards];
+        for (int i = 0; i < shards * perShard; i++) {
+            counts[layout.shardOf(generator.nextId())]++;
+        }
+        for (int count : counts) {
+            assertTrue(Math.abs(count - perShard) < perShard * 0.05, "分布不均匀: " + count);
+        }
+    }
+
+    @Test
+    void routingIsStableForTheSameLayout() {
+        UserShardLayout a = new UserShardLayout("users", 4);
+        UserShardLayout b = new UserShardLayout("users", 4);
+        for (long id = 1; id < 10_000; id++) {
+            assertEquals(a.tableOf(id), b.tableOf(id));
+        }
+    }
+
+    @Test
+    void rejectsUnsafeTableNames() {
+        assertThrows(IllegalArgumentException.class, () -> new UserShardLayout("users; DROP TABLE users", 2));
+        assertThrows(IllegalArgumentException.class, () -> new UserShardLayout("users", 0));
+    }
+
+    @Test
+    void shardedRouterRefusesUnroutedAccess() {
+        UserShardRouter router = router("users", 4);
+        assertEquals("user_lookup", router.resolveTableName("user_lookup"));
+        assertThrows(IllegalStateException.class, () -> router.resolveTableName("users"));
+
+        long userId = 1_812_345_678_901_234_567L;
+        String table = router.onUser(userId, () -> router.resolveTableName("users"));
+        assertEquals(router.getLayout().tableOf(userId), table);
+        assertEquals("users_v2_5", router.onTable("users_v2_5", () -> router.resolveTableName("USERS")));
+        assertThrows(IllegalStateException.class, () -> router.resolveTableName("users"));
+    }
+
+    @Test
+    void unshardedRouterNeedsNoContext() {
+        UserShardRouter router = router("users", 1);
+        assertEquals("users", router.resolveTableName("users"));
+    }
+
+    private static UserShardRouter router(String prefix, int count) {
+        UserShardRouter router = new UserShardRouter();
+        ReflectionTestUtils.setField(router, "tablePrefix", prefix);
+        ReflectionTestUtils.setField(router, "shardCount", count);
+        router.init();
+        return router;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ince.springboottemplate.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 客户端 IP 解析测试：伪造代理请求头和转发链从右向左的解析
+ */
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = ClientIpResolver.defaults();
+
+    @Test
+    void ignoresForwardedHeadersFromUntrustedPeer() {
+        MockHttpServletRequest request = request("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "127.0.0.1");
+        request.addHeader("X-Real-IP", "198.51.100.1");
+        request.addHeader("X-Natapp-IP", "10.0.0.1");
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void ignoresForwardedHeadersFromUntrustedIpv6Peer() {
+        MockHttpServletRequest request = request("2001:db8::1");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+        assertEquals("2001:db8::1", resolver.resolve(request));
+    }
+
+    @Test
+    void walksChainFromRightSkippingTrustedProxies() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.7, 10.0.0.3, 192.168.1.10");
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void spoofedLeftmostEntryIsNotUsed() {
+        // 客户端自带 X-Forwarded-For: 127.0.0.1，代理在右侧追加真实地址
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "127.0.0.1, 203.0.113.7");
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void skipsBlankAndUnknownEntries() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, unknown, , 10.0.0.3");
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void allTrustedChainFallsBackToLeftmost() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "192.168.1.20, 10.0.0.3");
+        assertEquals("192.168.1.20", resolver.resolve(request));
+    }
+
+    @Test
+    void readsHeadersInConfiguredOrder() {
+        ClientIpResolver realIpFirst = new ClientIpResolver(List.of("X-Real-IP", "X-Forwarded-For"),
+                ClientIpResolver.DEFAULT_TRUSTED_PROXIES, 0D);
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Real-IP", "198.51.100.1");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        assertEquals("198.51.100.1", realIpFirst.resolve(request));
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void ignoresPassThroughHeadersBehindTrustedProxy() {
+        // 代理不会覆盖 X-Natapp-IP、X-Real-IP，客户端自带的值原样到达
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Natapp-IP", "198.51.100.99");
+        request.addHeader("X-Real-IP", "198.51.100.98");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void fallsBackToPeerWhenChainContainsNonIpValue() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "random-" + System.nanoTime());
+        assertEquals("10.0.0.2", resolver.resolve(request));
+
+        MockHttpServletRequest injected = request("10.0.0.2");
+        injected.addHeader("X-Forwarded-For", "203.0.113.7, evil.example.com, 10.0.0.3");
+        assertEquals("10.0.0.2", resolver.resolve(injected));
+    }
+
+    @Test
+    void acceptsIpv6Literals() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "2001:db8::7, 10.0.0.3");
+        assertEquals("2001:db8::7", resolver.resolve(request));
+        assertTrue(ClientIpResolver.isIpLiteral("::ffff:203.0.113.7", 0, 18));
+        assertFalse(ClientIpResolver.isIpLiteral("abc:def:xyz", 0, 11));
+        assertFalse(ClientIpResolver.isIpLiteral("1:2:3:4:5:6:7:8:9", 0, 17));
+        assertFalse(ClientIpResolver.isIpLiteral("cafe", 0, 4));
+    }
+
+    @Test
+    void usesPeerWhenTrustedProxySendsNoHeaders() {
+        assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.2")));
+    }
+
+    @Test
+    void matchesTrustedNetworks() {
+        assertTrue(resolver.isTrustedProxy("172.31.255.255"));
+        assertFalse(resolver.isTrustedProxy("172.32.0.1"));
+        assertTrue(resolver.isTrustedProxy("::1"));
+        assertFalse(resolver.isTrustedProxy("1.2.3"));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ince.springboottemplate.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 唯一索引冲突解析和用户名折叠测试
+ */
+class DuplicateKeyUtilsTest {
+
+    /**
+     * MyBatis 翻译后的异常：信息里带整条 INSERT 语句（包含 email 列），驱动异常是最具体的原因
+     */
+    private static DuplicateKeyException translated(String driverMessage) {
+        return new DuplicateKeyException("\n### Error updating database.  Cause: " + driverMessage
+                + "\n### SQL: INSERT INTO users (id, username, password, email, status) VALUES (?, ?, ?, ?, ?)",
+                new SQLIntegrityConstraintViolationException(driverMessage));
+    }
+
+    @Test
+    void usernameConflictIsNotMistakenForEmailBecauseOfTheSql() {
+        assertEquals(DuplicateKeyUtils.USERNAME, DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry 'alice' for key 'users.username'")));
+    }
+
+    @Test
+    void duplicatedValueDoesNotDecideTheField() {
+        assertEquals(DuplicateKeyUtils.USERNAME, DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry 'email_fan' for key 'users.username'")));
+        assertEquals(DuplicateKeyUtils.EMAIL, DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry 'username@example.com' for key 'uk_email'")));
+        assertEquals(DuplicateKeyUtils.USERNAME, DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry 'x for key 'uk_email' y' for key 'users_3.username'")));
+    }
+
+    @Test
+    void recognisesShardTablesAndLookupTable() {
+        assertEquals(DuplicateKeyUtils.EMAIL, DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry 'a@example.com' for key 'users_7.uk_email'")));
+        assertEquals(DuplicateKeyUtils.EMAIL, DuplicateKeyUtils.conflictField(
+                new DuplicateKeyException("Duplicate entry for key 'user_lookup.email'")));
+        assertEquals(DuplicateKeyUtils.USERNAME, DuplicateKeyUtils.conflictField(
+                new DuplicateKeyException("Duplicate entry for key 'user_lookup.username'")));
+    }
+
+    @Test
+    void unknownKeysAreNotGuessed() {
+        assertNull(DuplicateKeyUtils.conflictField(
+                translated("Duplicate entry '110101199001011234' for key 'users.users_id_card_uindex'")));
+        assertNull(DuplicateKeyUtils.conflictField(translated("Unique index or primary key violation: email")));
+    }
+
+    @Test
+    void foldMatchesAccentAndCaseInsensitiveCollation() {
+        assertEquals(UserValidationUtils.fold("jose"), UserValidationUtils.fold("José"));
+        assertEquals("alice", UserValidationUtils.fold(" ALICE "));
+    }
+}